@@ -0,0 +1,141 @@
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// Segmented Sieve of Atkin.
+// A squarefree n > 3 is prime exactly when it has an odd number of solutions to
+//   4x² + y² = n  with n mod 12 in {1, 5}
+//   3x² + y² = n  with n mod 12 = 7
+//   3x² - y² = n  with x > y and n mod 12 = 11
+// so every solution flips a bit, and the multiples of p² for primes p >= 5 are
+// cleared at the end. Only odd numbers are stored, one bit each in a long[]
+// window, and for every x the range of y that lands in the window is worked out
+// with a square root, so any window can be sieved on its own.
+public class AtkinSieve {
+    // 32 KB of bits per window: 2^18 odd numbers, a 2^19 wide slice of the number line
+    static final int SEGMENT_WORDS = 4 * 1024;
+
+    final long lowerBound;
+    final long upperBound;
+    final int[] basePrimes; // primes 5 .. sqrt(upperBound), for the square-free pass
+
+    public AtkinSieve(long lowerBound, long upperBound) {
+        if (upperBound < lowerBound) {
+            throw new IllegalArgumentException("upperBound must be >= lowerBound");
+        }
+        this.lowerBound = Math.max(0, lowerBound);
+        this.upperBound = upperBound;
+        int[] odd = SegmentedSieve.basePrimesUpTo(SegmentedSieve.isqrt(upperBound));
+        this.basePrimes = odd.length > 0 && odd[0] == 3 ? Arrays.copyOfRange(odd, 1, odd.length) : odd;
+    }
+
+    // Calls action once for every prime in [lowerBound, upperBound], in increasing order
+    public void forEachPrime(LongConsumer action) {
+        if (lowerBound <= 2 && upperBound >= 2) action.accept(2);
+        if (lowerBound <= 3 && upperBound >= 3) action.accept(3);
+        sieve((word, base) -> {
+            while (word != 0) {
+                action.accept(base + 2L * Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        });
+    }
+
+    public long countPrimes() {
+        long[] count = new long[1];
+        if (lowerBound <= 2 && upperBound >= 2) count[0]++;
+        if (lowerBound <= 3 && upperBound >= 3) count[0]++;
+        sieve((word, base) -> count[0] += Long.bitCount(word));
+        return count[0];
+    }
+
+    // Bytes of bitmap per window plus the base-prime table
+    public long memoryBytes() {
+        long words = (upperBound - lowerBound) / 128 + 1;
+        return Math.min(words, SEGMENT_WORDS) * 8 + basePrimes.length * 4L;
+    }
+
+    interface WordVisitor {
+        void visit(long word, long base); // bit j set means base + 2j is prime
+    }
+
+    // Sieves window by window and hands every word, edges already trimmed, to the visitor
+    void sieve(WordVisitor visitor) {
+        if (upperBound < 5) return;
+        long first = Math.max(5, lowerBound) | 1;
+        long[] bits = new long[SEGMENT_WORDS];
+        long span = 128L * SEGMENT_WORDS;
+
+        for (long low = first; low <= upperBound; low += span) {
+            long high = Math.min(upperBound + 1, low + span); // window is [low, high)
+            Arrays.fill(bits, 0);
+            flipQuadraticForms(bits, low, high);
+            clearSquareMultiples(bits, low, high);
+
+            int words = (int) ((high - low + 127) / 128);
+            int lastBits = (int) ((high - low + 1) / 2) - 64 * (words - 1);
+            if (lastBits < 64) bits[words - 1] &= (1L << lastBits) - 1;
+            for (int w = 0; w < words; w++) {
+                visitor.visit(bits[w], low + 128L * w);
+            }
+        }
+    }
+
+    // Flips n for every solution of the three forms with n in [low, high); low is odd
+    static void flipQuadraticForms(long[] bits, long low, long high) {
+        // 4x² + y² = n: y must be odd for n = 1 mod 4
+        for (long x = 1; 4 * x * x + 1 < high; x++) {
+            long a = 4 * x * x;
+            long y = ceilSqrt(low - a) | 1;
+            for (long n = a + y * y; n < high; y += 2, n = a + y * y) {
+                int r = (int) (n % 12);
+                if (r == 1 || r == 5) flip(bits, n - low);
+            }
+        }
+        // 3x² + y² = n = 7 mod 12: x odd, y even
+        for (long x = 1; 3 * x * x + 4 < high; x += 2) {
+            long a = 3 * x * x;
+            long y = Math.max(2, ceilSqrt(low - a));
+            if ((y & 1) == 1) y++;
+            for (long n = a + y * y; n < high; y += 2, n = a + y * y) {
+                if (n % 12 == 7) flip(bits, n - low);
+            }
+        }
+        // 3x² - y² = n = 11 mod 12 with x > y: x + y odd, n shrinks as y grows
+        for (long x = 2; 2 * x * x + 2 * x - 1 < high; x++) {
+            long a = 3 * x * x;
+            long y = Math.max(1, ceilSqrt(a - high + 1));
+            if (((x + y) & 1) == 0) y++;
+            for (long n = a - y * y; y < x && n >= low; y += 2, n = a - y * y) {
+                if (n % 12 == 11) flip(bits, n - low);
+            }
+        }
+    }
+
+    // Clears the odd multiples of p² in [low, high), which the forms can miss as composites
+    void clearSquareMultiples(long[] bits, long low, long high) {
+        for (int p : basePrimes) {
+            long square = (long) p * p;
+            if (square >= high) break;
+            long start = Math.max(square, (low + square - 1) / square * square);
+            if ((start & 1) == 0) start += square;
+            for (long n = start; n < high; n += 2 * square) {
+                long j = (n - low) >>> 1;
+                bits[(int) (j >>> 6)] &= ~(1L << j);
+            }
+        }
+    }
+
+    static void flip(long[] bits, long offset) {
+        long j = offset >>> 1;
+        bits[(int) (j >>> 6)] ^= 1L << j;
+    }
+
+    // Smallest r >= 0 with r² >= v
+    static long ceilSqrt(long v) {
+        if (v <= 0) return 0;
+        long r = (long) Math.sqrt((double) v);
+        while (r * r > v) r--;
+        while (r * r < v) r++;
+        return r;
+    }
+}
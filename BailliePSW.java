@@ -0,0 +1,174 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+
+// Baillie-PSW probable prime test for arbitrary precision numbers.
+// Three stages, each run on its own so the visualizer can time and show them:
+//   1. trial division by the primes below 1000
+//   2. strong Miller-Rabin test to base 2
+//   3. strong Lucas test with Selfridge's parameters (P = 1, Q = (1 - D) / 4)
+// No composite is known to pass both 2 and 3. Trial division reduces n once per
+// group of primes whose product fits in a long, and the rest is plain long math,
+// which keeps BigInteger allocations out of the inner loop.
+public class BailliePSW {
+    static final int TRIAL_LIMIT = 1000;
+    static final int[] SMALL_PRIMES;
+    static final long[] GROUP_PRODUCTS; // product of SMALL_PRIMES[GROUP_START[g] .. GROUP_START[g + 1])
+    static final int[] GROUP_START;
+
+    static {
+        int[] odd = SegmentedSieve.basePrimesUpTo(TRIAL_LIMIT);
+        SMALL_PRIMES = new int[odd.length + 1];
+        SMALL_PRIMES[0] = 2;
+        System.arraycopy(odd, 0, SMALL_PRIMES, 1, odd.length);
+
+        long[] products = new long[SMALL_PRIMES.length];
+        int[] starts = new int[SMALL_PRIMES.length + 1];
+        int groups = 0;
+        long product = 1;
+        for (int i = 0; i < SMALL_PRIMES.length; i++) {
+            if (product > Long.MAX_VALUE / SMALL_PRIMES[i]) {
+                products[groups++] = product;
+                starts[groups] = i;
+                product = 1;
+            }
+            product *= SMALL_PRIMES[i];
+        }
+        products[groups++] = product;
+        starts[groups] = SMALL_PRIMES.length;
+        GROUP_PRODUCTS = Arrays.copyOf(products, groups);
+        GROUP_START = Arrays.copyOf(starts, groups + 1);
+    }
+
+    static final BigInteger TWO = BigInteger.valueOf(2);
+
+    final BigInteger n;
+    long lucasD; // Selfridge D, set by the Lucas stage
+    long lucasQ;
+
+    public BailliePSW(BigInteger n) {
+        if (n.signum() <= 0) throw new IllegalArgumentException("n must be positive: " + n);
+        this.n = n;
+    }
+
+    public static boolean isProbablePrime(BigInteger n) {
+        if (n.compareTo(TWO) < 0) return false;
+        BailliePSW test = new BailliePSW(n);
+        int factor = test.trialDivision();
+        if (factor != 0) return n.bitLength() < 32 && n.intValue() == factor;
+        if (n.compareTo(BigInteger.valueOf((long) TRIAL_LIMIT * TRIAL_LIMIT)) < 0) return true;
+        return test.strongProbablePrimeBase2() && test.strongLucasProbablePrime();
+    }
+
+    // Smallest prime below TRIAL_LIMIT dividing n, or 0 if there is none
+    public int trialDivision() {
+        for (int g = 0; g < GROUP_PRODUCTS.length; g++) {
+            long remainder = n.mod(BigInteger.valueOf(GROUP_PRODUCTS[g])).longValue();
+            for (int i = GROUP_START[g]; i < GROUP_START[g + 1]; i++) {
+                if (remainder % SMALL_PRIMES[i] == 0) return SMALL_PRIMES[i];
+            }
+        }
+        return 0;
+    }
+
+    public boolean strongProbablePrimeBase2() {
+        BigInteger nMinusOne = n.subtract(BigInteger.ONE);
+        int s = nMinusOne.getLowestSetBit();
+        BigInteger x = TWO.modPow(nMinusOne.shiftRight(s), n);
+        if (x.equals(BigInteger.ONE) || x.equals(nMinusOne)) return true;
+        for (int r = 1; r < s; r++) {
+            x = x.multiply(x).mod(n);
+            if (x.equals(nMinusOne)) return true;
+            if (x.equals(BigInteger.ONE)) return false;
+        }
+        return false;
+    }
+
+    // Expects an odd n > 1000 without small factors (stages 1 and 2 ran first)
+    public boolean strongLucasProbablePrime() {
+        // A perfect square has no D with (D/n) = -1, so the search below would never end
+        BigInteger root = n.sqrt();
+        if (root.multiply(root).equals(n)) return false;
+
+        // Selfridge method A: first D in 5, -7, 9, -11, ... with Jacobi symbol (D/n) = -1
+        long d = 5;
+        while (true) {
+            int jacobi = jacobi(d, n);
+            if (jacobi == -1) break;
+            if (jacobi == 0 && BigInteger.valueOf(Math.abs(d)).compareTo(n) != 0) return false;
+            d = d > 0 ? -(d + 2) : -(d - 2);
+        }
+        lucasD = d;
+        lucasQ = (1 - d) / 4;
+
+        BigInteger bigD = BigInteger.valueOf(d);
+        BigInteger bigQ = BigInteger.valueOf(lucasQ).mod(n);
+        BigInteger nPlusOne = n.add(BigInteger.ONE);
+        int s = nPlusOne.getLowestSetBit();
+        BigInteger k = nPlusOne.shiftRight(s);
+
+        // U_1 = 1, V_1 = P = 1, Q^1; walk the bits of k from the top
+        BigInteger u = BigInteger.ONE;
+        BigInteger v = BigInteger.ONE;
+        BigInteger qk = bigQ;
+        for (int bit = k.bitLength() - 2; bit >= 0; bit--) {
+            // Doubling: U_2k = U_k V_k, V_2k = V_k^2 - 2 Q^k
+            u = u.multiply(v).mod(n);
+            v = v.multiply(v).subtract(qk.shiftLeft(1)).mod(n);
+            qk = qk.multiply(qk).mod(n);
+            if (k.testBit(bit)) {
+                // Step by one: U_k+1 = (P U_k + V_k) / 2, V_k+1 = (D U_k + P V_k) / 2
+                BigInteger nextU = half(u.add(v));
+                BigInteger nextV = half(bigD.multiply(u).add(v).mod(n));
+                u = nextU;
+                v = nextV;
+                qk = qk.multiply(bigQ).mod(n);
+            }
+        }
+
+        if (u.signum() == 0 || v.signum() == 0) return true;
+        for (int r = 1; r < s; r++) {
+            v = v.multiply(v).subtract(qk.shiftLeft(1)).mod(n);
+            if (v.signum() == 0) return true;
+            qk = qk.multiply(qk).mod(n);
+        }
+        return false;
+    }
+
+    // x / 2 mod n for 0 <= x < 2n (n is odd, so adding n makes x even)
+    BigInteger half(BigInteger x) {
+        if (x.testBit(0)) x = x.add(n);
+        x = x.shiftRight(1);
+        return x.compareTo(n) >= 0 ? x.subtract(n) : x;
+    }
+
+    // Jacobi symbol (a/n) for a small odd or negative a and a large odd n
+    static int jacobi(long a, BigInteger n) {
+        int sign = 1;
+        if (a < 0) {
+            a = -a;
+            if (n.testBit(1)) sign = -sign; // (-1/n) = -1 when n = 3 mod 4
+        }
+        // Quadratic reciprocity flips the symbol to (n mod a / a), which fits in a long
+        if ((a & 3) == 3 && n.testBit(1)) sign = -sign;
+        long reduced = n.mod(BigInteger.valueOf(a)).longValue();
+        return sign * jacobi(reduced, a);
+    }
+
+    static int jacobi(long a, long n) {
+        int result = 1;
+        a %= n;
+        while (a != 0) {
+            while ((a & 1) == 0) {
+                a >>= 1;
+                long r = n & 7;
+                if (r == 3 || r == 5) result = -result;
+            }
+            long t = a;
+            a = n;
+            n = t;
+            if ((a & 3) == 3 && (n & 3) == 3) result = -result;
+            a %= n;
+        }
+        return n == 1 ? result : 0;
+    }
+}
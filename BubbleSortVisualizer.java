@@ -18,7 +18,6 @@ public class BubbleSortVisualizer extends JFrame {
     // Animation variables
     boolean isAnimating = false;
     int currentPass = 0;
-    int currentIndex = 0;
     int totalPasses = 0;
     int currentStep = 0;
     int totalSteps = 0;
@@ -44,6 +43,14 @@ public class BubbleSortVisualizer extends JFrame {
 
     boolean isPaused = false;
 
+    // Recorded run being played back, and the next event to play. Bubble sort makes
+    // about n^2 events, so long runs are streamed to a temporary SortTraceFile.
+    SortTracer.Events trace;
+    int traceStep = 0;
+    // Turbo plays as many comparisons per frame as fit, without the bubble animation
+    JCheckBox turboCheckBox;
+    TurboPacer turbo = new TurboPacer();
+
     // Colors
     Color defaultColor = new Color(135, 206, 250); // Light sky blue
     Color compareColor = new Color(255, 215, 0); // Gold
@@ -117,6 +124,7 @@ public class BubbleSortVisualizer extends JFrame {
         backButton.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
                 if (animationTimer != null) animationTimer.stop();
+                SortTraceFile.closeQuietly(trace);
                 dispose(); // Close this window
             }
         });
@@ -139,6 +147,11 @@ public class BubbleSortVisualizer extends JFrame {
         speedSlider.setBackground(new Color(240, 248, 255));
         speedSlider.setPreferredSize(new Dimension(200, 50));
 
+        turboCheckBox = new JCheckBox("Turbo");
+        turboCheckBox.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        turboCheckBox.setForeground(new Color(25, 25, 112));
+        turboCheckBox.setBackground(new Color(240, 248, 255));
+
         stepLabel = new JLabel("Step: 0 / 0");
         stepLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
         stepLabel.setForeground(new Color(25, 25, 112));
@@ -149,6 +162,7 @@ public class BubbleSortVisualizer extends JFrame {
 
         controlPanel.add(speedLabel);
         controlPanel.add(speedSlider);
+        controlPanel.add(turboCheckBox);
         controlPanel.add(Box.createHorizontalStrut(30));
         controlPanel.add(stepLabel);
         controlPanel.add(passLabel);
@@ -179,6 +193,7 @@ public class BubbleSortVisualizer extends JFrame {
             }
 
             public Dimension getPreferredSize() {
+                if (arraySize > SortPlots.MAX_BOX_ELEMENTS) return new Dimension(1000, 500);
                 int width = Math.max(1000, arraySize * 90 + 200);
                 int height = 500;
                 return new Dimension(width, height);
@@ -289,12 +304,20 @@ public class BubbleSortVisualizer extends JFrame {
             }
         });
 
+        turboCheckBox.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                turbo.reset();
+                animationTimer.setDelay(getAnimationDelay());
+            }
+        });
+
         updateInitialExplanation();
         setVisible(true);
     }
 
     // FIX: Add method to calculate animation delay based on slider value
     private int getAnimationDelay() {
+        if (turboCheckBox.isSelected()) return TurboPacer.FRAME_MILLIS;
         // Convert slider value (1-10) to delay (200ms-20ms)
         // Higher slider value = faster animation = lower delay
         int sliderValue = speedSlider.getValue();
@@ -338,7 +361,6 @@ public class BubbleSortVisualizer extends JFrame {
     void resetSortingVariables() {
         isAnimating = false;
         currentPass = 0;
-        currentIndex = 0;
         totalPasses = arraySize - 1;
         currentStep = 0;
         totalSteps = (arraySize * (arraySize - 1)) / 2;
@@ -354,6 +376,9 @@ public class BubbleSortVisualizer extends JFrame {
         animationPhase = 0;
         animationProgress = 0.0;
         needsSwap = false;
+        SortTraceFile.closeQuietly(trace);
+        trace = null;
+        traceStep = 0;
 
         statusLabel.setText("<html><center>Ready to bubble!<br>Click 'Start Bubble Sort' to begin<br><br>Comparisons: 0 | Swaps: 0</center></html>");
         stepLabel.setText("Step: 0 / " + totalSteps);
@@ -385,11 +410,11 @@ public class BubbleSortVisualizer extends JFrame {
         JPanel inputPanel = new JPanel(new GridLayout(3, 2, 10, 10));
         inputPanel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
 
-        JLabel sizeLabel = new JLabel("Array Size (4-20):");
+        JLabel sizeLabel = new JLabel("Array Size (4-5000):");
         sizeLabel.setFont(new Font("Segoe UI", Font.BOLD, 12));
         JTextField sizeField = new JTextField("10");
 
-        JLabel elementsLabel = new JLabel("Elements (space-separated):");
+        JLabel elementsLabel = new JLabel("Elements (space-separated, empty for random):");
         elementsLabel.setFont(new Font("Segoe UI", Font.BOLD, 12));
         JTextField elementsField = new JTextField("64 34 25 12 22 11 90 88 76 50");
 
@@ -404,8 +429,14 @@ public class BubbleSortVisualizer extends JFrame {
         if (result == JOptionPane.OK_OPTION) {
             try {
                 int size = Integer.parseInt(sizeField.getText().trim());
-                if (size < 4 || size > 20) {
-                    JOptionPane.showMessageDialog(this, "Size must be between 4 and 20");
+                if (size < 4 || size > 5000) {
+                    JOptionPane.showMessageDialog(this, "Size must be between 4 and 5000");
+                    return;
+                }
+
+                // Sizes past what anyone types in are filled with random values
+                if (elementsField.getText().trim().isEmpty()) {
+                    generateRandomArray(size);
                     return;
                 }
 
@@ -448,9 +479,23 @@ public class BubbleSortVisualizer extends JFrame {
         pauseButton.setText("Pause");
         pauseButton.setBackground(new Color(255, 165, 0));
 
-        // FIX: Update timer delay when starting animation
-        animationTimer.setDelay(getAnimationDelay());
-        animationTimer.start();
+        // The whole sort is recorded off the EDT first; the timer only replays it
+        int[] input = array;
+        SortTracer.traceInBackground(() -> SortTraceFile.recordOnHeapOrDisk("Bubble Sort", input, null), recorded -> {
+            if (array != input || !isAnimating) { // array was replaced while tracing
+                SortTraceFile.closeQuietly(recorded);
+                return;
+            }
+            trace = recorded;
+            traceStep = 0;
+            totalSteps = (int) recorded.comparisons();
+            turbo.reset();
+            animationTimer.setDelay(getAnimationDelay());
+            if (!isPaused) animationTimer.start();
+        }, cause -> {
+            if (array != input || !isAnimating) return; // array was replaced while tracing
+            traceFailed(cause);
+        });
 
         statusLabel.setText("<html><center>Bubble Sort Started!<br>Bubbles are floating up...<br><br>Comparisons: 0 | Swaps: 0</center></html>");
         updateExplanation("BUBBLE SORT STARTED!\n\n" +
@@ -472,16 +517,51 @@ public class BubbleSortVisualizer extends JFrame {
                 "Let the bubbling begin!");
     }
 
+    // Recording or preparing the trace failed: report it and hand the controls back
+    // with the array as it was
+    void traceFailed(Throwable cause) {
+        JOptionPane.showMessageDialog(this, "❌ Could not prepare the sort: " + cause,
+                "Sort Error", JOptionPane.ERROR_MESSAGE);
+        resetSortingVariables();
+        startButton.setText("Start Bubble Sort");
+        startButton.setEnabled(true);
+        startButton.setBackground(new Color(50, 205, 50));
+        pauseButton.setEnabled(false);
+        pauseButton.setText("Pause");
+        pauseButton.setBackground(new Color(255, 165, 0));
+        isPaused = false;
+        repaint();
+    }
+
     void performBubbleSortStep() {
-        if (!isAnimating) return;
+        if (!isAnimating || trace == null) return;
+        if (turboCheckBox.isSelected()) {
+            playTurboTick();
+            return;
+        }
 
         if (animationPhase == 0) {
-            // Start new comparison
-            if (currentIndex < arraySize - 1 - currentPass) {
-                compareIndex1 = currentIndex;
-                compareIndex2 = currentIndex + 1;
+            // A RANGE event opens pass (n - 1 - high); a COMPARE starts a bubble animation
+            if (traceStep < trace.size() && trace.op(traceStep) == SortTrace.RANGE) {
+                int pass = arraySize - 1 - trace.b(traceStep);
+                traceStep++;
+                if (pass > 0) {
+                    currentPass = pass;
+                    passLabel.setText("Pass: " + currentPass + " / " + totalPasses);
+                    statusLabel.setText("<html><center>Pass " + currentPass + " completed!<br>Starting pass " +
+                            (currentPass + 1) + "...<br><br>Comparisons: " + comparisons + " | Swaps: " + swaps + "</center></html>");
+                    repaint();
+                    return;
+                }
+            }
+
+            if (traceStep < trace.size()) {
+                compareIndex1 = trace.a(traceStep);
+                compareIndex2 = trace.b(traceStep);
+                traceStep++;
                 isComparing = true;
-                needsSwap = array[compareIndex1] > array[compareIndex2];
+                // The engine records the swap right after the comparison that called for it
+                needsSwap = traceStep < trace.size() && trace.op(traceStep) == SortTrace.SWAP;
 
                 // Set up animation positions
                 setupBubbleAnimation();
@@ -515,56 +595,8 @@ public class BubbleSortVisualizer extends JFrame {
                         "• Swaps so far: " + swaps + "\n" +
                         "• Progress: " + String.format("%.1f", (currentStep * 100.0 / totalSteps)) + "%");
             } else {
-                // End of current pass
-                currentPass++;
-                currentIndex = 0;
-                passLabel.setText("Pass: " + currentPass + " / " + totalPasses);
-
-                if (currentPass >= totalPasses) {
-                    // Sorting complete
-                    animationTimer.stop();
-                    isAnimating = false;
-                    startButton.setText("Completed");
-                    startButton.setBackground(new Color(50, 205, 50));
-                    pauseButton.setEnabled(false);
-                    pauseButton.setText("Pause");
-                    pauseButton.setBackground(new Color(255, 165, 0));
-                    isPaused = false;
-                    statusLabel.setText("<html><center>Bubble Sort Complete!<br>All bubbles are sorted!<br><br>Comparisons: " +
-                            comparisons + " | Swaps: " + swaps + "</center></html>");
-                    updateExplanation("BUBBLE SORT COMPLETED!\n\n" +
-                            "Congratulations! All bubbles have found their correct positions!\n\n" +
-                            "FINAL STATISTICS:\n" +
-                            "• Total comparisons: " + comparisons + "\n" +
-                            "• Total swaps: " + swaps + "\n" +
-                            "• Total passes: " + currentPass + "\n" +
-                            "• Array size: " + arraySize + " elements\n\n" +
-                            "PERFORMANCE ANALYSIS:\n" +
-                            "• Time Complexity: O(n²) - quadratic time\n" +
-                            "• Space Complexity: O(1) - constant space\n" +
-                            "• Stable: Yes - equal elements maintain relative order\n" +
-                            "• In-place: Yes - sorts within the original array\n\n" +
-                            "BUBBLE SORT CHARACTERISTICS:\n" +
-                            "• Simple to understand and implement\n" +
-                            "• Good for educational purposes\n" +
-                            "• Inefficient for large datasets\n" +
-                            "• Best case: O(n) when array is already sorted\n" +
-                            "• Worst case: O(n²) when array is reverse sorted\n\n" +
-                            "The bubbles have successfully floated to their correct positions!\n" +
-                            "Larger values (bigger bubbles) are now at the top,\n" +
-                            "and smaller values (smaller bubbles) are at the bottom.");
-
-                    // Reset animation variables
-                    isComparing = false;
-                    isSwapping = false;
-                    compareIndex1 = -1;
-                    compareIndex2 = -1;
-                    repaint();
-                    return;
-                } else {
-                    statusLabel.setText("<html><center>Pass " + currentPass + " completed!<br>Starting pass " +
-                            (currentPass + 1) + "...<br><br>Comparisons: " + comparisons + " | Swaps: " + swaps + "</center></html>");
-                }
+                completeBubbleSort();
+                return;
             }
         } else if (animationPhase == 1) {
             // Animate comparison (bubbles moving up)
@@ -584,10 +616,9 @@ public class BubbleSortVisualizer extends JFrame {
             animationProgress += 0.08;
             if (animationProgress >= 1.0) {
                 animationProgress = 1.0;
-                // Perform actual swap
-                int temp = array[compareIndex1];
-                array[compareIndex1] = array[compareIndex2];
-                array[compareIndex2] = temp;
+                // Play the recorded swap
+                SortTrace.apply(array, trace.op(traceStep), trace.a(traceStep), trace.b(traceStep));
+                traceStep++;
                 swaps++;
                 animationPhase = 3; // Move to return phase
                 animationProgress = 0.0;
@@ -603,13 +634,115 @@ public class BubbleSortVisualizer extends JFrame {
                 compareIndex1 = -1;
                 compareIndex2 = -1;
                 animationPhase = 0;
-                currentIndex++;
             }
         }
 
         repaint();
     }
 
+    void completeBubbleSort() {
+        // End of the trace: the last pass is done
+        currentPass = totalPasses;
+        passLabel.setText("Pass: " + currentPass + " / " + totalPasses);
+
+        // Sorting complete
+        animationTimer.stop();
+        isAnimating = false;
+        startButton.setText("Completed");
+        startButton.setBackground(new Color(50, 205, 50));
+        pauseButton.setEnabled(false);
+        pauseButton.setText("Pause");
+        pauseButton.setBackground(new Color(255, 165, 0));
+        isPaused = false;
+        statusLabel.setText("<html><center>Bubble Sort Complete!<br>All bubbles are sorted!<br><br>Comparisons: " +
+                comparisons + " | Swaps: " + swaps + "</center></html>");
+        updateExplanation("BUBBLE SORT COMPLETED!\n\n" +
+                "Congratulations! All bubbles have found their correct positions!\n\n" +
+                "FINAL STATISTICS:\n" +
+                "• Total comparisons: " + comparisons + "\n" +
+                "• Total swaps: " + swaps + "\n" +
+                "• Total passes: " + currentPass + "\n" +
+                "• Array size: " + arraySize + " elements\n\n" +
+                "PERFORMANCE ANALYSIS:\n" +
+                "• Time Complexity: O(n²) - quadratic time\n" +
+                "• Space Complexity: O(1) - constant space\n" +
+                "• Stable: Yes - equal elements maintain relative order\n" +
+                "• In-place: Yes - sorts within the original array\n\n" +
+                "BUBBLE SORT CHARACTERISTICS:\n" +
+                "• Simple to understand and implement\n" +
+                "• Good for educational purposes\n" +
+                "• Inefficient for large datasets\n" +
+                "• Best case: O(n) when array is already sorted\n" +
+                "• Worst case: O(n²) when array is reverse sorted\n\n" +
+                "The bubbles have successfully floated to their correct positions!\n" +
+                "Larger values (bigger bubbles) are now at the top,\n" +
+                "and smaller values (smaller bubbles) are at the bottom.");
+
+        // Reset animation variables
+        isComparing = false;
+        isSwapping = false;
+        compareIndex1 = -1;
+        compareIndex2 = -1;
+        repaint();
+    }
+
+    // Plays the comparisons of one turbo tick straight through the trace, without the
+    // bubble animation, and shows how far the run got once at the end
+    void playTurboTick() {
+        finishBubbleAnimation();
+
+        long start = System.nanoTime();
+        int steps = turbo.steps();
+        int played = 0;
+        while (played < steps && traceStep < trace.size()) {
+            int op = trace.op(traceStep);
+            int a = trace.a(traceStep);
+            int b = trace.b(traceStep);
+            traceStep++;
+
+            if (op == SortTrace.RANGE) {
+                int pass = arraySize - 1 - b;
+                if (pass > 0) currentPass = pass;
+            } else if (op == SortTrace.COMPARE) {
+                comparisons++;
+                currentStep++;
+                played++;
+            } else {
+                SortTrace.apply(array, op, a, b);
+                if (op == SortTrace.SWAP) swaps++;
+            }
+        }
+
+        if (traceStep >= trace.size()) {
+            completeBubbleSort();
+            return;
+        }
+        turbo.tickDone(played, System.nanoTime() - start);
+
+        stepLabel.setText("Step: " + currentStep + " / " + totalSteps);
+        passLabel.setText("Pass: " + currentPass + " / " + totalPasses);
+        statusLabel.setText("<html><center>⚡ Turbo: pass " + (currentPass + 1) + " of " + totalPasses +
+                "<br>" + played + " comparisons this frame<br><br>Comparisons: " + comparisons +
+                " | Swaps: " + swaps + "</center></html>");
+        repaint();
+    }
+
+    // Completes a comparison that was mid-animation when turbo was switched on
+    void finishBubbleAnimation() {
+        if (animationPhase == 0) return;
+        if (needsSwap && animationPhase <= 2) {
+            SortTrace.apply(array, trace.op(traceStep), trace.a(traceStep), trace.b(traceStep));
+            traceStep++;
+            swaps++;
+        }
+        isComparing = false;
+        isSwapping = false;
+        compareIndex1 = -1;
+        compareIndex2 = -1;
+        animationPhase = 0;
+        animationProgress = 0.0;
+    }
+
     void setupBubbleAnimation() {
         int panelWidth = arrayPanel.getWidth();
         int bubbleSize = Math.min(70, (panelWidth - 100) / arraySize);
@@ -650,6 +783,10 @@ public class BubbleSortVisualizer extends JFrame {
 
     void drawBubbleArray(Graphics2D g2d) {
         if (array == null) return;
+        if (arraySize > SortPlots.MAX_BOX_ELEMENTS) {
+            drawCompactArray(g2d);
+            return;
+        }
 
         int panelWidth = arrayPanel.getWidth();
         int panelHeight = arrayPanel.getHeight();
@@ -691,6 +828,35 @@ public class BubbleSortVisualizer extends JFrame {
         drawBubbleLegend(g2d);
     }
 
+    // Arrays too long for bubbles are drawn as value bars, with the passes already
+    // bubbled to the top end shaded as sorted
+    void drawCompactArray(Graphics2D g2d) {
+        int width = arrayPanel.getWidth() - 200;
+        int height = arrayPanel.getHeight() - 120;
+        int left = 180;
+        int top = 60;
+        if (width <= 0 || height <= 0) return;
+
+        g2d.setFont(new Font("Segoe UI", Font.BOLD, 18));
+        g2d.setColor(new Color(25, 25, 112));
+        g2d.drawString("Bubble Sort - " + arraySize + " elements", left, 30);
+
+        g2d.drawImage(SortPlots.valueBars(array, width, height, borderColor.getRGB(), Color.WHITE.getRGB()), left, top, null);
+        if (isAnimating && currentPass > 0) {
+            int x = left + SortPlots.columnOf(arraySize - currentPass, arraySize, width);
+            g2d.setColor(new Color(50, 205, 50, 80));
+            g2d.fillRect(x, top, left + width - x, height);
+        }
+        if (isComparing && compareIndex1 >= 0) {
+            int x = left + SortPlots.columnOf(compareIndex1, arraySize, width);
+            g2d.setColor(compareColor);
+            g2d.drawLine(x, top, x, top + height);
+        }
+        g2d.setColor(borderColor);
+        g2d.drawRect(left, top, width, height);
+        drawBubbleLegend(g2d);
+    }
+
     void drawAnimatedBubbles(Graphics2D g2d, int bubbleSize) {
         // Calculate current positions based on animation phase and progress
         double currentBubble1X = bubble1X;
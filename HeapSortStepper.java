@@ -0,0 +1,127 @@
+// HeapSortVisualizer's player, see SortStepper. Every trace event is one tick; the
+// completion tick after the last one is not counted as a step.
+public class HeapSortStepper implements SortStepper {
+    // What a tick did
+    static final int BUILD_STARTED = 1;  // RANGE over the whole array opens the build phase
+    static final int HEAP_BUILT = 2;     // the first extraction RANGE ends it
+    static final int HEAP_SHRUNK = 3;    // any later extraction RANGE
+    static final int HEAPIFY = 4;
+    static final int CHILD_COMPARED = 5;
+    static final int EXTRACTED = 6;      // the maximum swapped to its final place
+    static final int SIFTED = 7;         // a parent swapped with its larger child
+    static final int OTHER = 8;
+
+    final int[] array;
+    int traceStep = 0;
+    int currentStep = 0;
+    int heapSize;
+    boolean isBuildingHeap = true;
+    int heapifyIndex = -1; // Node currently being heapified (root of current heapify operation)
+    int largestIndex = -1; // Index of the largest element found in current heapify step
+    int leftChild = -1;    // Left child being compared
+    int rightChild = -1;   // Right child being compared
+    int swapIndex1 = -1;
+    int swapIndex2 = -1;
+    int comparedChild = -1; // the child a CHILD_COMPARED tick held against the largest so far
+    int comparedWith = -1;
+
+    HeapSortStepper(int[] array) {
+        this.array = array;
+        heapSize = array.length;
+    }
+
+    public int step(SortTracer.Events trace) {
+        if (traceStep >= trace.size()) {
+            clearHighlights();
+            heapSize = 0; // every element is marked as sorted
+            return DONE;
+        }
+
+        int op = trace.op(traceStep);
+        int a = trace.a(traceStep);
+        int b = trace.b(traceStep);
+        traceStep++;
+        currentStep++;
+
+        if (op == SortTrace.RANGE) {
+            clearHighlights();
+            heapSize = b + 1;
+            if (heapSize == array.length) return BUILD_STARTED;
+            if (!isBuildingHeap) return HEAP_SHRUNK;
+            isBuildingHeap = false;
+            return HEAP_BUILT;
+        } else if (op == SortTrace.MARK && b == SortTrace.HEAPIFY) {
+            clearHighlights();
+            heapifyIndex = a;
+            largestIndex = a;
+            return HEAPIFY;
+        } else if (op == SortTrace.COMPARE) {
+            // COMPARE child largest: the child is left or right by parity and wins if it is larger
+            if (a % 2 == 1) {
+                leftChild = a;
+            } else {
+                rightChild = a;
+            }
+            comparedChild = a;
+            comparedWith = b;
+            if (array[a] > array[b]) {
+                largestIndex = a;
+            }
+            return CHILD_COMPARED;
+        } else if (op == SortTrace.SWAP && b >= heapSize) {
+            // SWAP 0 end with end already outside the heap
+            clearHighlights();
+            swapIndex1 = 0;
+            swapIndex2 = b;
+            SortTrace.apply(array, SortTrace.SWAP, 0, b);
+            return EXTRACTED;
+        } else if (op == SortTrace.SWAP) {
+            leftChild = -1;
+            rightChild = -1;
+            swapIndex1 = a;
+            swapIndex2 = b;
+            SortTrace.apply(array, op, a, b);
+            return SIFTED;
+        }
+        return OTHER;
+    }
+
+    void clearHighlights() {
+        heapifyIndex = -1;
+        leftChild = -1;
+        rightChild = -1;
+        largestIndex = -1;
+        swapIndex1 = -1;
+        swapIndex2 = -1;
+    }
+
+    public int traceStep() {
+        return traceStep;
+    }
+
+    public int tick() {
+        return currentStep;
+    }
+
+    public int[] array() {
+        return array;
+    }
+
+    public int[] cursor() {
+        return new int[] {traceStep, currentStep, heapSize, isBuildingHeap ? 1 : 0,
+                heapifyIndex, largestIndex, leftChild, rightChild, swapIndex1, swapIndex2};
+    }
+
+    public void restore(int[] cursor) {
+        traceStep = cursor[0];
+        currentStep = cursor[1];
+        heapSize = cursor[2];
+        isBuildingHeap = cursor[3] == 1;
+        heapifyIndex = cursor[4];
+        largestIndex = cursor[5];
+        leftChild = cursor[6];
+        rightChild = cursor[7];
+        swapIndex1 = cursor[8];
+        swapIndex2 = cursor[9];
+    }
+}
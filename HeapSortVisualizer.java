@@ -1,19 +1,18 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Deque;
-import java.util.ArrayDeque; // For Deque (stack-like behavior)
 import javax.swing.event.ChangeListener;
 import javax.swing.event.ChangeEvent;
 
 public class HeapSortVisualizer extends JFrame {
     int[] array;
     int arraySize;
-    int heapSize;
     JPanel treePanel, arrayPanel, explanationPanel;
-    JButton startButton, resetButton, customInputButton, backButton, pauseButton;
+    JButton startButton, resetButton, customInputButton, backButton, pauseButton, loadTraceButton;
+    JButton stepBackButton, seekButton;
     JSlider speedSlider;
     JLabel speedLabel, statusLabel, stepLabel;
     JTextArea explanationArea;
@@ -21,26 +20,26 @@ public class HeapSortVisualizer extends JFrame {
 
     // Animation variables
     boolean isAnimating = false;
-    boolean isBuildingHeap = true;
-    boolean isExtracting = false;
-    int currentBuildIndex; // Index of the root of the subtree to heapify in build phase
     boolean isPaused = false;
-
-    // Highlighting variables
-    int heapifyIndex = -1; // Node currently being heapified (root of current heapify operation)
-    int leftChild = -1;    // Left child being compared
-    int rightChild = -1;   // Right child being compared
-    int largestIndex = -1; // Index of the largest element found in current heapify step
-    int swapIndex1 = -1;
-    int swapIndex2 = -1;
-    int currentStep = 0;
     int totalSteps = 0;
 
-    // NEW: Stack for managing iterative heapify calls
-    private Deque<HeapifyCall> heapifyStack;
+    // Recorded run being played back, and the player's position in it along with the
+    // heap size and highlights; the array it plays on is 'array'
+    SortTracer.Events trace;
+    HeapSortStepper player;
+    // Trace file opened with Load Trace; played instead of recording a new run
+    SortTraceFile loadedTrace;
+    // Snapshots taken during playback for seeking, and whether steps are being played
+    // unseen (replayed by a seek, or run ahead of the visible one in a turbo tick)
+    SortCheckpoints checkpoints;
+    boolean seeking = false;
+    // Turbo plays as many heap events per frame as fit, see TurboPacer
+    JCheckBox turboCheckBox;
+    TurboPacer turbo = new TurboPacer();
 
     // Tree visualization variables
     List<TreeNode> treeNodes;
+    static final int MAX_TREE_NODES = 31; // five levels fill the tree panel
 
     // Colors
     Color defaultColor = new Color(240, 248, 255);
@@ -52,33 +51,6 @@ public class HeapSortVisualizer extends JFrame {
     Color borderColor = new Color(44, 62, 80); // Dark gray for borders
     Color treeLineColor = new Color(108, 117, 125); // Gray for tree lines
 
-    // NEW: Class to represent a single "call" to maxHeapify in the iterative process
-    class HeapifyCall {
-        int index; // The root of the current subtree being heapified
-        int largest; // The index of the largest element found so far in this call
-        int state; // Internal state for this specific heapify call
-        int leftChildIdx;
-        int rightChildIdx;
-
-        // States for 'state' variable
-        static final int INIT = 0;
-        static final int COMPARE_LEFT = 1;
-        static final int COMPARE_RIGHT = 2;
-        static final int CHECK_SWAP = 3;
-        static final int PERFORM_SWAP = 4;
-        static final int RECURSE_CHILD = 5; // Indicates a child needs to be heapified
-        static final int WAITING_FOR_CHILD = 6; // NEW STATE: Parent waiting for child heapify to finish
-        static final int DONE = 7; // This heapify call is complete
-
-        HeapifyCall(int index) {
-            this.index = index;
-            this.largest = index;
-            this.state = INIT;
-            this.leftChildIdx = 2 * index + 1;
-            this.rightChildIdx = 2 * index + 2;
-        }
-    }
-
     // NEW: TreeNode class definition (was missing)
     class TreeNode {
         int value;
@@ -142,6 +114,11 @@ public class HeapSortVisualizer extends JFrame {
         speedSlider.setBackground(new Color(248, 249, 250));
         speedSlider.setPreferredSize(new Dimension(200, 50));
 
+        turboCheckBox = new JCheckBox("Turbo");
+        turboCheckBox.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        turboCheckBox.setForeground(new Color(44, 62, 80));
+        turboCheckBox.setBackground(new Color(248, 249, 250));
+
         stepLabel = new JLabel("Step: 0 / 0");
         stepLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
         stepLabel.setForeground(new Color(44, 62, 80));
@@ -156,15 +133,22 @@ public class HeapSortVisualizer extends JFrame {
         backButton = createStyledButton("Back to Hub", new Color(100, 149, 237));
         pauseButton = createStyledButton("Pause", new Color(255, 165, 0));
         pauseButton.setEnabled(false);
+        loadTraceButton = createStyledButton("Load Trace", new Color(52, 73, 94));
+        stepBackButton = createStyledButton("◀ Step Back", new Color(108, 117, 125));
+        seekButton = createStyledButton("Go to Step", new Color(108, 117, 125));
 
         controlPanel.add(startButton);
         controlPanel.add(resetButton);
         controlPanel.add(customInputButton);
         controlPanel.add(backButton);
         controlPanel.add(pauseButton);
+        controlPanel.add(loadTraceButton);
+        controlPanel.add(stepBackButton);
+        controlPanel.add(seekButton);
         controlPanel.add(Box.createHorizontalStrut(30));
         controlPanel.add(speedLabel);
         controlPanel.add(speedSlider);
+        controlPanel.add(turboCheckBox);
         controlPanel.add(Box.createHorizontalStrut(30));
         controlPanel.add(stepLabel);
 
@@ -251,6 +235,7 @@ public class HeapSortVisualizer extends JFrame {
 
             @Override // Override getPreferredSize to calculate dynamic width
             public Dimension getPreferredSize() {
+                if (arraySize > SortPlots.MAX_BOX_ELEMENTS) return new Dimension(800, 150);
                 int boxWidth = 60;
                 int spacing = 10;
                 int padding = 20; // Padding on both sides
@@ -323,15 +308,39 @@ public class HeapSortVisualizer extends JFrame {
             }
         });
 
+        loadTraceButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                loadTraceFile();
+            }
+        });
+
+        stepBackButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                if (checkpoints != null) seekTo(player.currentStep - 1);
+            }
+        });
+
+        seekButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                showSeekDialog();
+            }
+        });
+
         speedSlider.addChangeListener(new ChangeListener() {
             public void stateChanged(ChangeEvent e) {
-                int delay = 1200 - (speedSlider.getValue() * 100);
                 if (animationTimer != null) {
-                    animationTimer.setDelay(delay);
+                    animationTimer.setDelay(getAnimationDelay());
                 }
             }
         });
 
+        turboCheckBox.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                turbo.reset();
+                animationTimer.setDelay(getAnimationDelay());
+            }
+        });
+
         animationTimer = new Timer(800, new ActionListener() {
             public void actionPerformed(ActionEvent e) {
                 performHeapSortStep();
@@ -344,6 +353,11 @@ public class HeapSortVisualizer extends JFrame {
         setVisible(true);
     }
 
+    int getAnimationDelay() {
+        if (turboCheckBox.isSelected()) return TurboPacer.FRAME_MILLIS;
+        return 1200 - (speedSlider.getValue() * 100);
+    }
+
     JButton createStyledButton(String text, Color color) {
         JButton button = new JButton(text);
         button.setFont(new Font("Segoe UI", Font.BOLD, 14));
@@ -367,8 +381,8 @@ public class HeapSortVisualizer extends JFrame {
     }
 
     void generateRandomArray(int size) {
+        closeLoadedTrace();
         arraySize = size;
-        heapSize = arraySize;
         array = new int[arraySize];
         for (int i = 0; i < arraySize; i++) {
             array[i] = (int)(Math.random() * 99) + 1;
@@ -382,31 +396,18 @@ public class HeapSortVisualizer extends JFrame {
     }
 
     void calculateTotalSteps() {
-        // A more generous estimate for granular steps in Heap Sort
-        // This is an initial estimate for the progress bar. The final totalSteps will be
-        // set to currentStep when the algorithm completes for perfect X/X display.
+        // A generous estimate shown until the sort has been traced; the trace length
+        // replaces it as soon as playback starts.
         totalSteps = arraySize * 25; // Increased from 15 to 25 per element for more buffer
     }
 
     void resetSortingVariables() {
         isAnimating = false;
-        isBuildingHeap = true;
-        isExtracting = false;
-        currentBuildIndex = arraySize / 2 - 1; // Start from the last non-leaf node
-        heapSize = arraySize; // Reset heap size to full array size
         isPaused = false;
 
-        // Clear highlighting variables
-        heapifyIndex = -1;
-        leftChild = -1;
-        rightChild = -1;
-        largestIndex = -1;
-        swapIndex1 = -1;
-        swapIndex2 = -1;
-        currentStep = 0;
-
-        // NEW: Initialize heapify stack
-        heapifyStack = new ArrayDeque<>();
+        trace = null;
+        player = new HeapSortStepper(array); // full heap, nothing highlighted
+        checkpoints = null;
 
         statusLabel.setText("<html><center>🎯 Ready to sort!<br>Click 'Start Heap Sort' to begin</center></html>");
         stepLabel.setText("Step: 0 / " + totalSteps);
@@ -416,7 +417,16 @@ public class HeapSortVisualizer extends JFrame {
         if (animationTimer.isRunning()) {
             animationTimer.stop();
         }
-        generateRandomArray(arraySize);
+        if (loadedTrace != null) {
+            // A loaded trace can only be replayed from its own starting array
+            array = loadedTrace.initialArray().clone();
+            calculateTotalSteps();
+            resetSortingVariables();
+            buildTreeNodes();
+            repaint();
+        } else {
+            generateRandomArray(arraySize);
+        }
         startButton.setText("Start Heap Sort");
         startButton.setEnabled(true);
         startButton.setBackground(new Color(46, 204, 113));
@@ -432,11 +442,11 @@ public class HeapSortVisualizer extends JFrame {
         JPanel inputPanel = new JPanel(new GridLayout(3, 2, 10, 10));
         inputPanel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
 
-        JLabel sizeLabel = new JLabel("Array Size (4-15):");
+        JLabel sizeLabel = new JLabel("Array Size (4-50000):");
         sizeLabel.setFont(new Font("Segoe UI", Font.BOLD, 12));
         JTextField sizeField = new JTextField("10");
 
-        JLabel elementsLabel = new JLabel("Elements (space-separated):");
+        JLabel elementsLabel = new JLabel("Elements (space-separated, empty for random):");
         elementsLabel.setFont(new Font("Segoe UI", Font.BOLD, 12));
         JTextField elementsField = new JTextField("4 10 3 5 1 8 9 2 7 6");
 
@@ -451,8 +461,14 @@ public class HeapSortVisualizer extends JFrame {
         if (result == JOptionPane.OK_OPTION) {
             try {
                 int size = Integer.parseInt(sizeField.getText().trim());
-                if (size < 4 || size > 15) {
-                    JOptionPane.showMessageDialog(this, "❌ Size must be between 4 and 15");
+                if (size < 4 || size > 50000) {
+                    JOptionPane.showMessageDialog(this, "❌ Size must be between 4 and 50000");
+                    return;
+                }
+
+                // Sizes past what anyone types in are filled with random values
+                if (elementsField.getText().trim().isEmpty()) {
+                    generateRandomArray(size);
                     return;
                 }
 
@@ -462,8 +478,8 @@ public class HeapSortVisualizer extends JFrame {
                     return;
                 }
 
+                closeLoadedTrace();
                 arraySize = size;
-                heapSize = arraySize;
                 array = new int[arraySize];
                 for (int i = 0; i < arraySize; i++) {
                     array[i] = Integer.parseInt(elements[i]);
@@ -487,6 +503,70 @@ public class HeapSortVisualizer extends JFrame {
         }
     }
 
+    // Opens a trace written by SortTraceFile and plays it from its starting array.
+    // Events are decoded from the mapped file a chunk at a time, so the file can be
+    // far larger than anything that would be recorded in memory here.
+    void loadTraceFile() {
+        if (isAnimating) return;
+
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        SortTraceFile loaded;
+        try {
+            loaded = SortTraceFile.open(chooser.getSelectedFile().toPath());
+        } catch (IOException | RuntimeException e) {
+            JOptionPane.showMessageDialog(this, "❌ Could not read trace file: " + e.getMessage());
+            return;
+        }
+        if (!loaded.algorithm.equals("Heap Sort")) {
+            JOptionPane.showMessageDialog(this, "❌ This is a " + loaded.algorithm + " trace, not a Heap Sort trace");
+            try {
+                loaded.close();
+            } catch (IOException ignored) {
+            }
+            return;
+        }
+
+        closeLoadedTrace();
+        loadedTrace = loaded;
+        array = loaded.initialArray().clone();
+        arraySize = array.length;
+        calculateTotalSteps();
+        resetSortingVariables();
+        buildTreeNodes();
+        arrayPanel.revalidate();
+        repaint();
+        startHeapSort();
+    }
+
+    // Recording or preparing the trace failed: report it and hand the controls back
+    // with the array as it was
+    void traceFailed(Throwable cause) {
+        JOptionPane.showMessageDialog(this, "❌ Could not prepare the sort: " + cause,
+                "Sort Error", JOptionPane.ERROR_MESSAGE);
+        closeLoadedTrace();
+        resetSortingVariables();
+        buildTreeNodes();
+        startButton.setText("Start Heap Sort");
+        startButton.setEnabled(true);
+        startButton.setBackground(new Color(46, 204, 113));
+        pauseButton.setEnabled(false);
+        pauseButton.setText("Pause");
+        pauseButton.setBackground(new Color(255, 165, 0));
+        isPaused = false;
+        repaint();
+    }
+
+    void closeLoadedTrace() {
+        if (loadedTrace == null) return;
+        try {
+            loadedTrace.close();
+        } catch (IOException ignored) {
+        }
+        loadedTrace = null;
+    }
+
     void startHeapSort() {
         if (isAnimating) return;
 
@@ -502,9 +582,25 @@ public class HeapSortVisualizer extends JFrame {
         pauseButton.setText("Pause");
         pauseButton.setBackground(new Color(255, 165, 0));
 
-        int delay = 1200 - (speedSlider.getValue() * 100);
-        animationTimer.setDelay(delay);
-        animationTimer.start();
+        // The whole sort is recorded off the EDT first; the timer only replays it
+        int[] input = array;
+        SortTraceFile file = loadedTrace;
+        SortTracer.traceInBackground(() -> {
+            SortTracer.Events events = file != null ? file : SortTracer.record("Heap Sort", input, null);
+            return new SortCheckpoints(events).take(new HeapSortStepper(events.initialArray().clone()));
+        }, prepared -> {
+            if (array != input || !isAnimating) return; // array was replaced while tracing
+            trace = prepared.trace;
+            totalSteps = prepared.ticks;
+            checkpoints = prepared;
+            turbo.reset();
+            stepLabel.setText("Step: 0 / " + totalSteps);
+            animationTimer.setDelay(getAnimationDelay());
+            if (!isPaused) animationTimer.start();
+        }, cause -> {
+            if (array != input || !isAnimating) return; // array was replaced while tracing
+            traceFailed(cause);
+        });
 
         statusLabel.setText("<html><center>🚀 Building Max Heap...<br>Phase 1 of 2</center></html>");
         updateExplanation("HEAP SORT STARTED!\n\n" +
@@ -519,215 +615,167 @@ public class HeapSortVisualizer extends JFrame {
     }
 
     void performHeapSortStep() {
-        if (isPaused) return;
+        if (isPaused || trace == null) return;
+        if (turboCheckBox.isSelected()) {
+            playTurboTick();
+        } else {
+            playStep();
+        }
+    }
 
-        currentStep++;
-        stepLabel.setText("Step: " + currentStep + " / " + totalSteps);
+    // Plays the heap events of one turbo tick unseen, then the last one as usual
+    void playTurboTick() {
+        long start = System.nanoTime();
+        int steps = turbo.steps();
+        int played = 1;
+        seeking = true;
+        while (played < steps && player.traceStep < trace.size()) {
+            playStep();
+            played++;
+        }
+        seeking = false;
+        playStep();
+        turbo.tickDone(played, System.nanoTime() - start);
+    }
 
-        if (isBuildingHeap) {
-            performBuildHeapStep();
-        } else if (isExtracting) {
-            performExtractStep();
+    // Plays one trace event. While seeking only the state moves on; nothing is drawn.
+    void playStep() {
+        int played = player.step(trace);
+        if (played == SortStepper.DONE) {
+            completeAnalysis();
+            return;
+        }
+        if (seeking) return;
+
+        if (played == HeapSortStepper.BUILD_STARTED) {
+            updateExplanation("🔧 Building the max heap, starting from the last non-leaf node " + (arraySize / 2 - 1) + ".");
+        } else if (played == HeapSortStepper.HEAP_BUILT) {
+            // Finished building heap
+            statusLabel.setText("<html><center>✅ Max Heap Built!<br>🔄 Extracting Elements...</center></html>");
+            updateExplanation("MAX HEAP CONSTRUCTION COMPLETED!\n\n" +
+                    "The array has been successfully converted into a max heap! " +
+                    "Notice how every parent node is now larger than its children.\n\n" +
+                    "PHASE 2: EXTRACTING ELEMENTS\n" +
+                    "Now we'll repeatedly:\n" +
+                    "1. Swap the root (maximum) with the last element\n" +
+                    "2. Reduce heap size\n" +
+                    "3. Heapify the root to maintain heap property\n\n" +
+                    "This will sort the array in ascending order.");
+        } else if (played == HeapSortStepper.HEAPIFY) {
+            int node = player.heapifyIndex;
+            updateExplanation("Heapifying node " + node + " (value: " + array[node] + "). Comparing it with its children.");
+        } else if (played == HeapSortStepper.CHILD_COMPARED) {
+            explainChildComparison();
+        } else if (played == HeapSortStepper.EXTRACTED) {
+            explainExtraction();
+        } else if (played == HeapSortStepper.SIFTED) {
+            int parent = player.swapIndex2;
+            updateExplanation("Heap property violated! Swapped " + array[parent] + " (parent) with " + array[player.swapIndex1] +
+                    " (larger child).\nContinuing to heapify the subtree at index " + parent + ".");
         }
 
+        stepLabel.setText("Step: " + player.currentStep + " / " + totalSteps);
         buildTreeNodes(); // Rebuild tree nodes to reflect current state for drawing
         repaint();
     }
 
-    void performBuildHeapStep() {
-        // If the heapify stack is empty, it means the previous heapify operation is done
-        // or we are starting a new one for the next element in the build phase.
-        if (heapifyStack.isEmpty()) {
-            currentBuildIndex--; // Move to the next parent node to heapify
-            if (currentBuildIndex < 0) {
-                // Finished building heap
-                isBuildingHeap = false;
-                isExtracting = true;
-                // currentExtractIndex is now implicitly heapSize - 1
-                clearHighlights(); // Clear any remaining highlights
-                statusLabel.setText("<html><center>✅ Max Heap Built!<br>🔄 Extracting Elements...</center></html>");
-                updateExplanation("MAX HEAP CONSTRUCTION COMPLETED!\n\n" +
-                        "The array has been successfully converted into a max heap! " +
-                        "Notice how every parent node is now larger than its children.\n\n" +
-                        "PHASE 2: EXTRACTING ELEMENTS\n" +
-                        "Now we'll repeatedly:\n" +
-                        "1. Swap the root (maximum) with the last element\n" +
-                        "2. Reduce heap size\n" +
-                        "3. Heapify the root to maintain heap property\n\n" +
-                        "This will sort the array in ascending order.");
-                return;
-            }
-            // Start a new heapify operation for the currentBuildIndex
-            heapifyStack.push(new HeapifyCall(currentBuildIndex));
-            updateExplanation("🔧 Starting to heapify node " + currentBuildIndex + " (value: " + array[currentBuildIndex] + ").");
+    // COMPARE child largest: the child is left or right by parity and wins if it is larger
+    void explainChildComparison() {
+        int child = player.comparedChild;
+        int largest = player.comparedWith;
+        String side = child % 2 == 1 ? "left" : "right";
+        if (player.largestIndex == child) {
+            updateExplanation("Comparing " + array[largest] + " (current largest) with " + array[child] + " (" + side + " child).\n" +
+                    "The " + side + " child (" + array[child] + ") is larger.");
+        } else {
+            updateExplanation("Comparing " + array[largest] + " (current largest) with " + array[child] + " (" + side + " child).\n" +
+                    array[largest] + " stays the largest.");
         }
-
-        // Process one step of the current heapify operation from the stack
-        processHeapifyStepFromStack();
     }
 
-    void performExtractStep() {
-        // If the heapify stack is empty, it means the previous heapify operation is done
-        // or we are starting a new extraction step.
-        if (heapifyStack.isEmpty()) {
-            if (heapSize <= 1) { // Sorting complete (heapSize 1 means only one element left, which is sorted)
-                // Sorting complete
-                completeAnalysis(); // Call completeAnalysis to finalize state
-                return;
-            }
-
-            // Perform the swap (root with last element of current heap)
-            swapIndex1 = 0;
-            swapIndex2 = heapSize - 1; // Last element of current heap
-            int temp = array[0];
-            array[0] = array[heapSize - 1];
-            array[heapSize - 1] = temp;
-
-            statusLabel.setText("<html><center>🔄 Extracted: " + array[heapSize - 1] +
-                    "<br>Swapped with root</center></html>");
-            updateExplanation("🔄 EXTRACTING MAXIMUM ELEMENT\n\n" +
-                    "Extracted maximum: " + array[heapSize - 1] + " (now at index " + (heapSize - 1) + ")\n" +
-                    "This element is now in its final sorted position.\n\n" +
-                    "PROCESS:\n" +
-                    "1. Swapped root (" + array[heapSize - 1] + ") with last heap element (" + array[0] + ")\n" +
-                    "2. Reduced heap size from " + heapSize + " to " + (heapSize - 1) + "\n" +
-                    "3. Now preparing to heapify the new root to restore max heap property.\n\n" +
-                    "Remaining elements to sort: " + (heapSize - 1));
-
-            // Reduce heap size
-            heapSize--;
-
-            // Start heapify from root (index 0)
-            heapifyStack.push(new HeapifyCall(0));
-        }
-
-        // Process one step of the current heapify operation from the stack
-        processHeapifyStepFromStack();
+    // SWAP 0 end with end already outside the heap: the maximum moved to its final place
+    void explainExtraction() {
+        int end = player.swapIndex2;
+        int heapSize = player.heapSize;
+        statusLabel.setText("<html><center>🔄 Extracted: " + array[end] +
+                "<br>Swapped with root</center></html>");
+        updateExplanation("🔄 EXTRACTING MAXIMUM ELEMENT\n\n" +
+                "Extracted maximum: " + array[end] + " (now at index " + end + ")\n" +
+                "This element is now in its final sorted position.\n\n" +
+                "PROCESS:\n" +
+                "1. Swapped root (" + array[end] + ") with last heap element (" + array[0] + ")\n" +
+                "2. Reduced heap size from " + (heapSize + 1) + " to " + heapSize + "\n" +
+                "3. Now preparing to heapify the new root to restore max heap property.\n\n" +
+                "Remaining elements to sort: " + heapSize);
     }
 
-    // This method processes one step of the maxHeapify operation using the stack
-    void processHeapifyStepFromStack() {
-        if (heapifyStack.isEmpty()) {
-            clearHighlights(); // Ensure no highlights if stack is empty
+    // Shows the state after the given number of steps. The nearest checkpoint at or
+    // before the step before it is restored (unless the player is already between the
+    // two), the steps in between are replayed unseen and the last one is shown as usual.
+    void seekTo(int step) {
+        step = Math.max(0, Math.min(step, totalSteps));
+        int target = Math.max(0, step - 1);
+        SortCheckpoints.Checkpoint nearest = checkpoints.floor(target);
+        boolean restore = player.currentStep > target || nearest.tick > player.currentStep;
+        if (restore && !checkpoints.restorable(nearest)) {
+            JOptionPane.showMessageDialog(this, "❌ Step " + step + " is too far from the saved states of this trace to jump to.\n" +
+                    "Let the sort play forward to it instead.");
             return;
         }
+        pausePlayback();
 
-        HeapifyCall currentCall = heapifyStack.peek(); // Get the current call without removing it
-        heapifyIndex = currentCall.index; // Highlight the current root being heapified
-        largestIndex = currentCall.largest; // Update largestIndex for highlighting
-
-        int i = currentCall.index;
-        int l = currentCall.leftChildIdx;
-        int r = currentCall.rightChildIdx;
+        if (restore) {
+            checkpoints.restore(nearest, player);
+        }
+        seeking = true;
+        while (player.currentStep < target && player.traceStep < trace.size()) {
+            playStep();
+        }
+        seeking = false;
 
-        // Clear comparison/swap highlights from previous step, unless we are in a swap state
-        if (currentCall.state != HeapifyCall.PERFORM_SWAP) {
-            leftChild = -1;
-            rightChild = -1;
-            swapIndex1 = -1;
-            swapIndex2 = -1;
+        if (step > 0) {
+            playStep();
+        } else {
+            player.clearHighlights();
+            stepLabel.setText("Step: 0 / " + totalSteps);
+            statusLabel.setText("<html><center>⏮️ Back at the start<br>Click Resume to play</center></html>");
+            updateExplanation("Rewound to the unsorted array. Step forward with Resume, or jump with Go to Step.");
+            buildTreeNodes();
+            repaint();
         }
+    }
 
-        switch (currentCall.state) {
-            case HeapifyCall.INIT:
-                currentCall.largest = i;
-                largestIndex = i; // Update largestIndex for highlighting
-                currentCall.state = HeapifyCall.COMPARE_LEFT;
-                updateExplanation("Heapifying node " + i + " (value: " + array[i] + "). Initializing comparison.");
-                break;
-
-            case HeapifyCall.COMPARE_LEFT:
-                leftChild = l; // Highlight left child
-                if (l < heapSize) {
-                    updateExplanation("Comparing " + array[i] + " (parent) with " + array[l] + " (left child).");
-                    if (array[l] > array[currentCall.largest]) {
-                        currentCall.largest = l;
-                        largestIndex = l; // Update largestIndex for highlighting
-                        updateExplanation("Left child (" + array[l] + ") is larger than current largest (" + array[i] + ").");
-                    }
-                } else {
-                    updateExplanation("No left child for node " + i + ".");
-                }
-                currentCall.state = HeapifyCall.COMPARE_RIGHT;
-                break;
-
-            case HeapifyCall.COMPARE_RIGHT:
-                rightChild = r; // Highlight right child
-                if (r < heapSize) {
-                    updateExplanation("Comparing " + array[currentCall.largest] + " (current largest) with " + array[r] + " (right child).");
-                    if (array[r] > array[currentCall.largest]) {
-                        currentCall.largest = r;
-                        largestIndex = r; // Update largestIndex for highlighting
-                        updateExplanation("Right child (" + array[r] + ") is larger than current largest (" + array[currentCall.largest] + ").");
-                    }
-                } else {
-                    updateExplanation("No right child for node " + i + ".");
-                }
-                currentCall.state = HeapifyCall.CHECK_SWAP;
-                break;
-
-            case HeapifyCall.CHECK_SWAP:
-                if (currentCall.largest != i) {
-                    // A swap is needed. Prepare for the swap animation.
-                    swapIndex1 = i;
-                    swapIndex2 = currentCall.largest;
-                    updateExplanation("Heap property violated! Preparing to swap " + array[i] + " with " + array[currentCall.largest] + ".");
-                    currentCall.state = HeapifyCall.PERFORM_SWAP;
-                } else {
-                    // No swap needed, this heapify operation is done.
-                    updateExplanation("Node " + i + " is already a max heap. No swap needed.");
-                    currentCall.state = HeapifyCall.DONE;
-                    heapifyStack.pop(); // This call is done, remove from stack
-                    clearHighlights(); // Clear highlights for this completed heapify
-                }
-                break;
-
-            case HeapifyCall.PERFORM_SWAP:
-                // Perform the actual swap
-                int temp = array[i];
-                array[i] = array[currentCall.largest];
-                array[currentCall.largest] = temp;
-                updateExplanation("Swapped " + array[swapIndex1] + " and " + array[swapIndex2] + ".");
-                swapIndex1 = -1; // Clear swap highlights
-                swapIndex2 = -1;
-                currentCall.state = HeapifyCall.RECURSE_CHILD;
-                break;
-
-            case HeapifyCall.RECURSE_CHILD:
-                // After a swap, we need to recursively heapify the subtree where the swapped element went.
-                // Push a new HeapifyCall for the child onto the stack.
-                // The current call (parent) remains on the stack, waiting for the child to complete.
-                heapifyStack.push(new HeapifyCall(currentCall.largest));
-                updateExplanation("Recursively heapifying subtree at index " + currentCall.largest + " (new value: " + array[currentCall.largest] + ").");
-                currentCall.state = HeapifyCall.WAITING_FOR_CHILD; // Parent is now waiting for child
-                break;
-
-            case HeapifyCall.WAITING_FOR_CHILD: // NEW STATE
-                // This state means the parent is waiting for its child's heapify to complete.
-                // If the child's call is no longer on top of the stack (meaning it was popped),
-                // then this parent call can now be marked as DONE.
-                if (heapifyStack.peek() == currentCall) { // Child has completed and this parent call is now on top
-                    currentCall.state = HeapifyCall.DONE;
-                    heapifyStack.pop(); // Now this parent call is truly done
-                    clearHighlights(); // Clear highlights for this completed heapify
-                }
-                // If heapifyStack.peek() is NOT currentCall, it means a child call is still on top,
-                // so the parent should continue waiting. No action needed in this step.
-                break;
-
-            case HeapifyCall.DONE:
-                // This state indicates that the current HeapifyCall has completed its work
-                // and has been popped from the stack.
-                // This case should ideally not be hit if the stack management is perfect.
-                // If it's still on stack, pop it.
-                if (!heapifyStack.isEmpty() && heapifyStack.peek() == currentCall) {
-                    heapifyStack.pop();
-                }
-                clearHighlights(); // Clear highlights for this completed heapify
-                break;
+    void showSeekDialog() {
+        if (checkpoints == null) return;
+
+        String input = JOptionPane.showInputDialog(this,
+                "Go to step (0 to " + totalSteps + "):", String.valueOf(player.currentStep));
+        if (input == null) return;
+        try {
+            int step = Integer.parseInt(input.trim());
+            if (step < 0 || step > totalSteps) {
+                JOptionPane.showMessageDialog(this, "❌ Step must be between 0 and " + totalSteps);
+                return;
+            }
+            seekTo(step);
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "❌ Please enter a valid step number");
         }
     }
 
+    // Seeking stops the timer; a finished run becomes a paused one again
+    void pausePlayback() {
+        animationTimer.stop();
+        isAnimating = true;
+        isPaused = true;
+        startButton.setText("Sorting...");
+        startButton.setEnabled(false);
+        startButton.setBackground(new Color(231, 76, 60));
+        pauseButton.setEnabled(true);
+        pauseButton.setText("Resume");
+        pauseButton.setBackground(new Color(46, 204, 113));
+    }
+
     void togglePause() {
         if (!isAnimating) return;
 
@@ -755,13 +803,9 @@ public class HeapSortVisualizer extends JFrame {
         pauseButton.setText("Pause");
         pauseButton.setBackground(new Color(255, 165, 0));
         isPaused = false;
-        clearHighlights(); // Clear any remaining highlights
-
-        heapSize = 0; // Set heapSize to 0 to ensure all elements are marked as sorted
+        // The player has cleared the highlights and emptied the heap, so every element shows as sorted
 
-        // Update totalSteps to match currentStep for accurate final display
-        totalSteps = currentStep;
-        stepLabel.setText("Step: " + currentStep + " / " + totalSteps);
+        stepLabel.setText("Step: " + player.currentStep + " / " + totalSteps);
 
         statusLabel.setText("<html><center>🎉 Heap Sort Complete!<br>Array is now sorted!</center></html>");
         updateExplanation("HEAP SORT COMPLETED!\n\n" +
@@ -777,18 +821,9 @@ public class HeapSortVisualizer extends JFrame {
         repaint(); // Repaint to show final sorted state
     }
 
-    void clearHighlights() {
-        heapifyIndex = -1;
-        leftChild = -1;
-        rightChild = -1;
-        largestIndex = -1;
-        swapIndex1 = -1;
-        swapIndex2 = -1;
-    }
-
     void buildTreeNodes() {
         treeNodes = new ArrayList<>();
-        if (arraySize == 0) return;
+        if (arraySize == 0 || arraySize > MAX_TREE_NODES) return; // too deep to draw; the array view carries on
 
         int panelWidth = 800;
         int panelHeight = 350;
@@ -806,15 +841,15 @@ public class HeapSortVisualizer extends JFrame {
             TreeNode node = new TreeNode(array[i], i, x, y);
 
             // Set colors based on current state
-            if (i >= heapSize) {
+            if (i >= player.heapSize) {
                 node.color = sortedColor;
-            } else if (i == heapifyIndex) {
+            } else if (i == player.heapifyIndex) {
                 node.color = heapifyColor;
-            } else if (i == leftChild || i == rightChild) {
+            } else if (i == player.leftChild || i == player.rightChild) {
                 node.color = compareColor;
-            } else if (i == largestIndex && largestIndex != heapifyIndex) {
+            } else if (i == player.largestIndex && player.largestIndex != player.heapifyIndex) {
                 node.color = maxColor;
-            } else if (i == swapIndex1 || i == swapIndex2) {
+            } else if (i == player.swapIndex1 || i == player.swapIndex2) {
                 node.color = swapColor;
             } else {
                 node.color = defaultColor;
@@ -825,6 +860,12 @@ public class HeapSortVisualizer extends JFrame {
     }
 
     void drawHeapTree(Graphics2D g2d) {
+        if (arraySize > MAX_TREE_NODES) {
+            g2d.setColor(new Color(108, 117, 125));
+            g2d.setFont(new Font("Segoe UI", Font.BOLD, 14));
+            g2d.drawString("The tree view shows heaps of up to " + MAX_TREE_NODES + " nodes; this one has " + arraySize + ".", 30, 60);
+            return;
+        }
         if (treeNodes == null || treeNodes.isEmpty()) return;
 
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -919,6 +960,10 @@ public class HeapSortVisualizer extends JFrame {
 
     void drawArray(Graphics2D g2d) {
         if (array == null) return;
+        if (arraySize > SortPlots.MAX_BOX_ELEMENTS) {
+            drawCompactArray(g2d);
+            return;
+        }
 
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
@@ -937,15 +982,15 @@ public class HeapSortVisualizer extends JFrame {
             int y = startY;
 
             Color boxColor = defaultColor;
-            if (i >= heapSize) { // This condition now correctly colors all elements as sorted when heapSize is 0
+            if (i >= player.heapSize) { // This condition now correctly colors all elements as sorted when heapSize is 0
                 boxColor = sortedColor;
-            } else if (i == heapifyIndex) {
+            } else if (i == player.heapifyIndex) {
                 boxColor = heapifyColor;
-            } else if (i == leftChild || i == rightChild) {
+            } else if (i == player.leftChild || i == player.rightChild) {
                 boxColor = compareColor;
-            } else if (i == largestIndex && largestIndex != heapifyIndex) {
+            } else if (i == player.largestIndex && player.largestIndex != player.heapifyIndex) {
                 boxColor = maxColor;
-            } else if (i == swapIndex1 || i == swapIndex2) {
+            } else if (i == player.swapIndex1 || i == player.swapIndex2) {
                 boxColor = swapColor;
             }
 
@@ -984,15 +1029,48 @@ public class HeapSortVisualizer extends JFrame {
         }
 
         // Draw heap size indicator ONLY if animating and heap is not fully sorted
-        if (isAnimating && heapSize < arraySize) {
-            int heapEndX = startX + heapSize * (boxWidth + spacing) - (spacing / 2); // Position the line between boxes
+        if (isAnimating && player.heapSize < arraySize) {
+            int heapEndX = startX + player.heapSize * (boxWidth + spacing) - (spacing / 2); // Position the line between boxes
             g2d.setColor(new Color(231, 76, 60));
             g2d.setStroke(new BasicStroke(3));
             g2d.drawLine(heapEndX, startY - 10, heapEndX, startY + boxHeight + 10);
 
             g2d.setFont(new Font("Segoe UI", Font.BOLD, 10));
-            g2d.drawString("Heap Size: " + heapSize, heapEndX + 5, startY + boxHeight / 2);
+            g2d.drawString("Heap Size: " + player.heapSize, heapEndX + 5, startY + boxHeight / 2);
+        }
+    }
+
+    // Bars for arrays too long for one box per element: the sorted tail is shaded and
+    // the heap boundary, the sift-down root and the swapped pair are vertical lines
+    void drawCompactArray(Graphics2D g2d) {
+        int width = arrayPanel.getWidth() - 40;
+        int height = arrayPanel.getHeight() - 40;
+        int left = 20;
+        int top = 25;
+        if (width <= 0 || height <= 0) return;
+
+        g2d.drawImage(SortPlots.valueBars(array, width, height, sortedColor.getRGB(), Color.WHITE.getRGB()), left, top, null);
+        if (isAnimating && player.heapSize < arraySize) {
+            int heapEndX = left + SortPlots.columnOf(player.heapSize, arraySize, width);
+            g2d.setColor(new Color(52, 152, 219, 60));
+            g2d.fillRect(heapEndX, top, left + width - heapEndX, height);
+            g2d.setColor(new Color(231, 76, 60));
+            g2d.setStroke(new BasicStroke(3));
+            g2d.drawLine(heapEndX, top, heapEndX, top + height);
+            g2d.setFont(new Font("Segoe UI", Font.BOLD, 10));
+            g2d.drawString("Heap Size: " + player.heapSize, heapEndX + 5, top + 12);
+        }
+        g2d.setStroke(new BasicStroke(1));
+        int[] marked = {player.heapifyIndex, player.swapIndex1, player.swapIndex2};
+        Color[] markColors = {heapifyColor, swapColor, swapColor};
+        for (int k = 0; k < marked.length; k++) {
+            if (marked[k] < 0) continue;
+            int x = left + SortPlots.columnOf(marked[k], arraySize, width);
+            g2d.setColor(markColors[k]);
+            g2d.drawLine(x, top, x, top + height);
         }
+        g2d.setColor(borderColor);
+        g2d.drawRect(left, top, width, height);
     }
 
     void updateInitialExplanation() {
@@ -0,0 +1,68 @@
+// MergeSortVisualizer's player, see SortStepper. Each merge is RANGE [left, right] and
+// a MID mark, then its compares and writes, and plays as one tick: everything up to
+// the next RANGE. The completion tick is not counted as a step.
+public class MergeSortStepper implements SortStepper {
+    static final int MERGED = 1;
+
+    final int[] array;
+    int traceStep = 0;
+    int currentStep = 0;
+    int currentOperationIndex = 0;
+    int mergeLeft = -1;
+    int mergeRight = -1;
+    int mergeMid = -1;
+    int mergeComparisons = 0; // made by the merge the last tick played
+
+    MergeSortStepper(int[] array) {
+        this.array = array;
+    }
+
+    public int step(SortTracer.Events trace) {
+        if (traceStep >= trace.size()) {
+            mergeLeft = -1;
+            mergeRight = -1;
+            mergeMid = -1;
+            return DONE;
+        }
+
+        mergeLeft = trace.a(traceStep);
+        mergeRight = trace.b(traceStep);
+        mergeMid = trace.a(traceStep + 1);
+        traceStep += 2;
+        currentStep++;
+
+        mergeComparisons = 0;
+        while (traceStep < trace.size() && trace.op(traceStep) != SortTrace.RANGE) {
+            if (trace.op(traceStep) == SortTrace.COMPARE) mergeComparisons++;
+            SortTrace.apply(array, trace.op(traceStep), trace.a(traceStep), trace.b(traceStep));
+            traceStep++;
+        }
+        currentOperationIndex++;
+        return MERGED;
+    }
+
+    public int traceStep() {
+        return traceStep;
+    }
+
+    public int tick() {
+        return currentStep;
+    }
+
+    public int[] array() {
+        return array;
+    }
+
+    public int[] cursor() {
+        return new int[] {traceStep, currentStep, currentOperationIndex, mergeLeft, mergeRight, mergeMid};
+    }
+
+    public void restore(int[] cursor) {
+        traceStep = cursor[0];
+        currentStep = cursor[1];
+        currentOperationIndex = cursor[2];
+        mergeLeft = cursor[3];
+        mergeRight = cursor[4];
+        mergeMid = cursor[5];
+    }
+}
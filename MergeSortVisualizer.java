@@ -1,17 +1,16 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
 import java.util.Arrays; // Added for Arrays.toString() in explanation
 
 public class MergeSortVisualizer extends JFrame {
     int[] array;
-    int[] tempArray;
     int arraySize;
     JPanel arrayPanel, explanationPanel;
     JScrollPane arrayScrollPane, explanationScrollPane;
-    JButton startButton, resetButton, customInputButton, pauseButton;
+    JButton startButton, resetButton, customInputButton, pauseButton, loadTraceButton;
+    JButton stepBackButton, seekButton;
     JSlider speedSlider;
     JLabel speedLabel, statusLabel, stepLabel, phaseLabel;
     JTextArea explanationArea;
@@ -19,14 +18,10 @@ public class MergeSortVisualizer extends JFrame {
 
     // Animation variables
     boolean isAnimating = false;
-    int currentStep = 0;
     int totalSteps = 0;
     boolean isPaused = false;
 
     // Merge operation variables
-    int mergeLeft = -1;
-    int mergeRight = -1;
-    int mergeMid = -1;
     int leftPointer = -1;
     int rightPointer = -1;
     int mergePointer = -1;
@@ -35,9 +30,19 @@ public class MergeSortVisualizer extends JFrame {
     int compareIndex1 = -1;
     int compareIndex2 = -1;
 
-    // Merge operations queue
-    List<MergeOperation> mergeOperations;
-    int currentOperationIndex = 0;
+    // Recorded run being played back, and the player's position in it along with the
+    // merge on screen; the array it plays on is 'array'
+    SortTracer.Events trace;
+    MergeSortStepper player;
+    // Trace file opened with Load Trace; played instead of recording a new run
+    SortTraceFile loadedTrace;
+    // Snapshots taken during playback for seeking, and whether steps are being played
+    // unseen (replayed by a seek, or run ahead of the visible one in a turbo tick)
+    SortCheckpoints checkpoints;
+    boolean seeking = false;
+    // Turbo plays as many merges per frame as fit, see TurboPacer
+    JCheckBox turboCheckBox;
+    TurboPacer turbo = new TurboPacer();
 
     // Colors
     Color defaultColor = new Color(240, 248, 255);
@@ -49,22 +54,6 @@ public class MergeSortVisualizer extends JFrame {
     Color activeColor = new Color(255, 165, 0);
     Color borderColor = new Color(44, 62, 80);
 
-    class MergeOperation {
-        int left, mid, right;
-        int step;
-        String description;
-        boolean completed;
-
-        MergeOperation(int left, int mid, int right, int step, String description) {
-            this.left = left;
-            this.mid = mid;
-            this.right = right;
-            this.step = step;
-            this.description = description;
-            this.completed = false;
-        }
-    }
-
     public MergeSortVisualizer() {
         initializeGUI();
         generateRandomArray(8);
@@ -109,6 +98,9 @@ public class MergeSortVisualizer extends JFrame {
         customInputButton = createStyledButton("Custom Input", new Color(155, 89, 182));
         pauseButton = createStyledButton("Pause", new Color(255, 165, 0));
         pauseButton.setEnabled(false);
+        loadTraceButton = createStyledButton("Load Trace", new Color(52, 73, 94));
+        stepBackButton = createStyledButton("◀ Step Back", new Color(108, 117, 125));
+        seekButton = createStyledButton("Go to Step", new Color(108, 117, 125));
 
         // Add back button after customInputButton
         JButton backButton = createStyledButton("Back to Hub", new Color(100, 149, 237));
@@ -123,6 +115,9 @@ public class MergeSortVisualizer extends JFrame {
         controlPanel.add(resetButton);
         controlPanel.add(customInputButton);
         controlPanel.add(backButton); // Add this line
+        controlPanel.add(loadTraceButton);
+        controlPanel.add(stepBackButton);
+        controlPanel.add(seekButton);
         controlPanel.add(pauseButton);
         controlPanel.add(Box.createHorizontalStrut(30));
 
@@ -137,6 +132,11 @@ public class MergeSortVisualizer extends JFrame {
         speedSlider.setBackground(new Color(248, 249, 250));
         speedSlider.setPreferredSize(new Dimension(200, 50));
 
+        turboCheckBox = new JCheckBox("Turbo");
+        turboCheckBox.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        turboCheckBox.setForeground(new Color(44, 62, 80));
+        turboCheckBox.setBackground(new Color(248, 249, 250));
+
         stepLabel = new JLabel("Step: 0 / 0");
         stepLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
         stepLabel.setForeground(new Color(44, 62, 80));
@@ -147,6 +147,7 @@ public class MergeSortVisualizer extends JFrame {
 
         controlPanel.add(speedLabel);
         controlPanel.add(speedSlider);
+        controlPanel.add(turboCheckBox);
         controlPanel.add(Box.createHorizontalStrut(30));
         controlPanel.add(stepLabel);
         controlPanel.add(phaseLabel);
@@ -172,6 +173,7 @@ public class MergeSortVisualizer extends JFrame {
             }
 
             public Dimension getPreferredSize() {
+                if (arraySize > SortPlots.MAX_BOX_ELEMENTS) return new Dimension(1000, 400);
                 int width = Math.max(1000, arraySize * 80 + 200);
                 int height = 400;
                 return new Dimension(width, height);
@@ -268,6 +270,24 @@ public class MergeSortVisualizer extends JFrame {
             }
         });
 
+        loadTraceButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                loadTraceFile();
+            }
+        });
+
+        stepBackButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                if (checkpoints != null) seekTo(player.currentStep - 1);
+            }
+        });
+
+        seekButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                showSeekDialog();
+            }
+        });
+
         // FIX: Create timer with dynamic delay based on speed slider
         animationTimer = new Timer(getAnimationDelay(), new ActionListener() {
             public void actionPerformed(ActionEvent e) {
@@ -282,12 +302,20 @@ public class MergeSortVisualizer extends JFrame {
             }
         });
 
+        turboCheckBox.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                turbo.reset();
+                animationTimer.setDelay(getAnimationDelay());
+            }
+        });
+
         updateInitialExplanation();
         setVisible(true);
     }
 
     // FIX: Add method to calculate animation delay based on slider value
     private int getAnimationDelay() {
+        if (turboCheckBox.isSelected()) return TurboPacer.FRAME_MILLIS;
         // Convert slider value (1-10) to delay (1500ms-150ms)
         // Higher slider value = faster animation = lower delay
         int sliderValue = speedSlider.getValue();
@@ -317,27 +345,25 @@ public class MergeSortVisualizer extends JFrame {
     }
 
     void generateRandomArray(int size) {
+        closeLoadedTrace();
         arraySize = size;
         array = new int[arraySize];
-        tempArray = new int[arraySize];
         for (int i = 0; i < arraySize; i++) {
             array[i] = (int)(Math.random() * 99) + 1;
         }
         resetSortingVariables();
-        buildMergeOperations();
         updatePanelSizes();
         repaint();
     }
 
     void resetSortingVariables() {
         isAnimating = false;
-        currentStep = 0;
-        currentOperationIndex = 0;
+        totalSteps = arraySize - 1; // top-down merge sort merges n - 1 times
+        trace = null;
+        player = new MergeSortStepper(array);
+        checkpoints = null;
         isPaused = false;
 
-        mergeLeft = -1;
-        mergeRight = -1;
-        mergeMid = -1;
         leftPointer = -1;
         rightPointer = -1;
         mergePointer = -1;
@@ -347,7 +373,7 @@ public class MergeSortVisualizer extends JFrame {
         compareIndex2 = -1;
 
         statusLabel.setText("<html><center>🎯 Ready to sort!<br>Click 'Start Merge Sort' to begin</center></html>");
-        stepLabel.setText("Step: 0 / " + (mergeOperations != null ? mergeOperations.size() : 0));
+        stepLabel.setText("Step: 0 / " + totalSteps);
         phaseLabel.setText("Phase: Ready");
         startButton.setText("Start Merge Sort");
         startButton.setEnabled(true);
@@ -366,7 +392,14 @@ public class MergeSortVisualizer extends JFrame {
         if (animationTimer.isRunning()) {
             animationTimer.stop();
         }
-        generateRandomArray(arraySize);
+        if (loadedTrace != null) {
+            // A loaded trace can only be replayed from its own starting array
+            array = loadedTrace.initialArray().clone();
+            resetSortingVariables();
+            repaint();
+        } else {
+            generateRandomArray(arraySize);
+        }
         startButton.setText("Start Merge Sort");
         startButton.setEnabled(true);
         startButton.setBackground(new Color(46, 204, 113));
@@ -382,11 +415,11 @@ public class MergeSortVisualizer extends JFrame {
         JPanel inputPanel = new JPanel(new GridLayout(3, 2, 10, 10));
         inputPanel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
 
-        JLabel sizeLabel = new JLabel("Array Size (4-32):");
+        JLabel sizeLabel = new JLabel("Array Size (4-50000):");
         sizeLabel.setFont(new Font("Segoe UI", Font.BOLD, 12));
         JTextField sizeField = new JTextField("8");
 
-        JLabel elementsLabel = new JLabel("Elements (space-separated, -999 to 999):");
+        JLabel elementsLabel = new JLabel("Elements (-999 to 999, empty for random):");
         elementsLabel.setFont(new Font("Segoe UI", Font.BOLD, 12));
         JTextField elementsField = new JTextField("38 27 43 3 9 82 10 1");
 
@@ -401,8 +434,14 @@ public class MergeSortVisualizer extends JFrame {
         if (result == JOptionPane.OK_OPTION) {
             try {
                 int size = Integer.parseInt(sizeField.getText().trim());
-                if (size < 4 || size > 32) {
-                    JOptionPane.showMessageDialog(this, "❌ Size must be between 4 and 32");
+                if (size < 4 || size > 50000) {
+                    JOptionPane.showMessageDialog(this, "❌ Size must be between 4 and 50000");
+                    return;
+                }
+
+                // Sizes past what anyone types in are filled with random values
+                if (elementsField.getText().trim().isEmpty()) {
+                    generateRandomArray(size);
                     return;
                 }
 
@@ -412,9 +451,9 @@ public class MergeSortVisualizer extends JFrame {
                     return;
                 }
 
+                closeLoadedTrace();
                 arraySize = size;
                 array = new int[arraySize];
-                tempArray = new int[arraySize];
                 for (int i = 0; i < arraySize; i++) {
                     array[i] = Integer.parseInt(elements[i]);
                     if (array[i] < -999 || array[i] > 999) {
@@ -424,7 +463,6 @@ public class MergeSortVisualizer extends JFrame {
                 }
 
                 resetSortingVariables();
-                buildMergeOperations();
                 updatePanelSizes();
                 repaint();
 
@@ -434,6 +472,67 @@ public class MergeSortVisualizer extends JFrame {
         }
     }
 
+    // Opens a trace written by SortTraceFile and plays it from its starting array.
+    // Events are decoded from the mapped file a chunk at a time, so the file can be
+    // far larger than anything that would be recorded in memory here.
+    void loadTraceFile() {
+        if (isAnimating) return;
+
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        SortTraceFile loaded;
+        try {
+            loaded = SortTraceFile.open(chooser.getSelectedFile().toPath());
+        } catch (IOException | RuntimeException e) {
+            JOptionPane.showMessageDialog(this, "❌ Could not read trace file: " + e.getMessage());
+            return;
+        }
+        if (!loaded.algorithm.equals("Merge Sort")) {
+            JOptionPane.showMessageDialog(this, "❌ This is a " + loaded.algorithm + " trace, not a Merge Sort trace");
+            try {
+                loaded.close();
+            } catch (IOException ignored) {
+            }
+            return;
+        }
+
+        closeLoadedTrace();
+        loadedTrace = loaded;
+        array = loaded.initialArray().clone();
+        arraySize = array.length;
+        resetSortingVariables();
+        updatePanelSizes();
+        repaint();
+        startMergeSort();
+    }
+
+    // Recording or preparing the trace failed: report it and hand the controls back
+    // with the array as it was
+    void traceFailed(Throwable cause) {
+        JOptionPane.showMessageDialog(this, "❌ Could not prepare the sort: " + cause,
+                "Sort Error", JOptionPane.ERROR_MESSAGE);
+        closeLoadedTrace();
+        resetSortingVariables();
+        startButton.setText("Start Merge Sort");
+        startButton.setEnabled(true);
+        startButton.setBackground(new Color(46, 204, 113));
+        pauseButton.setText("Pause");
+        pauseButton.setBackground(new Color(255, 165, 0));
+        pauseButton.setEnabled(false);
+        isPaused = false;
+        repaint();
+    }
+
+    void closeLoadedTrace() {
+        if (loadedTrace == null) return;
+        try {
+            loadedTrace.close();
+        } catch (IOException ignored) {
+        }
+        loadedTrace = null;
+    }
+
     void startMergeSort() {
         if (isAnimating) return;
 
@@ -446,9 +545,23 @@ public class MergeSortVisualizer extends JFrame {
         pauseButton.setText("Pause");
         pauseButton.setBackground(new Color(255, 165, 0));
 
-        // FIX: Update timer delay when starting animation
-        animationTimer.setDelay(getAnimationDelay());
-        animationTimer.start();
+        // The whole sort is recorded off the EDT first; the timer only replays it
+        int[] input = array;
+        SortTraceFile file = loadedTrace;
+        SortTracer.traceInBackground(() -> {
+            SortTracer.Events events = file != null ? file : SortTracer.record("Merge Sort", input, null);
+            return new SortCheckpoints(events).take(new MergeSortStepper(events.initialArray().clone()));
+        }, prepared -> {
+            if (array != input || !isAnimating) return; // array was replaced while tracing
+            trace = prepared.trace;
+            checkpoints = prepared;
+            turbo.reset();
+            animationTimer.setDelay(getAnimationDelay());
+            if (!isPaused) animationTimer.start();
+        }, cause -> {
+            if (array != input || !isAnimating) return; // array was replaced while tracing
+            traceFailed(cause);
+        });
 
         statusLabel.setText("<html><center>🚀 Starting Merge Sort...<br>Merging sorted sub-arrays</center></html>");
         phaseLabel.setText("Phase: Merging");
@@ -461,7 +574,7 @@ public class MergeSortVisualizer extends JFrame {
                 "We'll show each merge operation on the single array,\n" +
                 "highlighting the sections being merged.\n\n" +
                 "Array size: " + arraySize + " elements\n" +
-                "Total merge operations: " + mergeOperations.size() + "\n\n" +
+                "Total merge operations: " + totalSteps + "\n\n" +
                 "Starting merge operations...");
     }
 
@@ -484,9 +597,32 @@ public class MergeSortVisualizer extends JFrame {
     }
 
     void performMergeSortStep() {
-        if (isPaused) return;
+        if (isPaused || trace == null) return;
+        if (turboCheckBox.isSelected()) {
+            playTurboTick();
+        } else {
+            playStep();
+        }
+    }
+
+    // Plays the merges of one turbo tick unseen, then the last one as usual
+    void playTurboTick() {
+        long start = System.nanoTime();
+        int steps = turbo.steps();
+        int played = 1;
+        seeking = true;
+        while (played < steps && player.traceStep < trace.size()) {
+            playStep();
+            played++;
+        }
+        seeking = false;
+        playStep();
+        turbo.tickDone(played, System.nanoTime() - start);
+    }
 
-        if (currentOperationIndex >= mergeOperations.size()) {
+    // Plays one merge. While seeking only the array and cursor move on; nothing is drawn.
+    void playStep() {
+        if (player.step(trace) == SortStepper.DONE) {
             // Sorting complete
             animationTimer.stop();
             isAnimating = false;
@@ -500,9 +636,9 @@ public class MergeSortVisualizer extends JFrame {
             updateExplanation("MERGE SORT COMPLETED!\n\n" +
                     "Congratulations! The merge sort algorithm has successfully sorted the array.\n\n" +
                     "FINAL RESULT:\n" +
-                    "The array is now in perfect ascending order!\n" + Arrays.toString(array) + "\n\n" +
+                    "The array is now in perfect ascending order!\n" + describeArray() + "\n\n" +
                     "ALGORITHM SUMMARY:\n" +
-                    "• Total merge operations: " + mergeOperations.size() + "\n" +
+                    "• Total merge operations: " + totalSteps + "\n" +
                     "• All sub-arrays merged successfully\n" +
                     "• Array is now completely sorted\n\n" +
                     "PERFORMANCE CHARACTERISTICS:\n" +
@@ -519,9 +655,6 @@ public class MergeSortVisualizer extends JFrame {
                     "predictable performance and stability guarantees!");
 
             // Reset visual indicators
-            mergeLeft = -1;
-            mergeRight = -1;
-            mergeMid = -1;
             leftPointer = -1;
             rightPointer = -1;
             compareIndex1 = -1;
@@ -530,104 +663,108 @@ public class MergeSortVisualizer extends JFrame {
             return;
         }
 
-        MergeOperation op = mergeOperations.get(currentOperationIndex);
-
-        if (!op.completed) {
-            currentStep++;
-            stepLabel.setText("Step: " + currentStep + " / " + mergeOperations.size());
-
-            // Set up merge operation
-            mergeLeft = op.left;
-            mergeRight = op.right;
-            mergeMid = op.mid;
-
-            statusLabel.setText("<html><center>🔄 " + op.description + "<br>Merging [" + mergeLeft + "," + mergeMid + "] with [" + (mergeMid + 1) + "," + mergeRight + "]</center></html>");
-            updateExplanation("MERGE OPERATION " + (currentOperationIndex + 1) + " / " + mergeOperations.size() + "\n\n" +
-                    op.description + "\n\n" +
-                    "CURRENT OPERATION:\n" +
-                    "• Left sub-array: indices [" + mergeLeft + ", " + mergeMid + "]\n" +
-                    "• Right sub-array: indices [" + (mergeMid + 1) + ", " + mergeRight + "]\n" +
-                    "• Target range: indices [" + mergeLeft + ", " + mergeRight + "]\n\n" +
-                    "MERGE PROCESS:\n" +
-                    "1. Compare elements from both sorted sub-arrays\n" +
-                    "2. Copy the smaller element to temporary array\n" +
-                    "3. Advance the pointer in the array we copied from\n" +
-                    "4. Repeat until one sub-array is exhausted\n" +
-                    "5. Copy remaining elements from the other sub-array\n" +
-                    "6. Copy merged result back to original array\n\n" +
-                    "This merge combines two already-sorted segments\n" +
-                    "into one larger sorted segment.\n\n" +
-                    "Performing merge operation...");
-
-            // Perform the actual merge
-            performMerge(op.left, op.mid, op.right);
-            op.completed = true;
-        }
+        if (seeking) return;
+
+        stepLabel.setText("Step: " + player.currentStep + " / " + totalSteps);
+        String description = "Merging " + (player.mergeMid - player.mergeLeft + 1) + " + " + (player.mergeRight - player.mergeMid) +
+                " elements into a sorted segment of " + (player.mergeRight - player.mergeLeft + 1);
+        statusLabel.setText("<html><center>🔄 " + description + "<br>Merging [" + player.mergeLeft + "," + player.mergeMid + "] with [" + (player.mergeMid + 1) + "," + player.mergeRight + "]</center></html>");
+
+        updateExplanation("MERGE OPERATION " + player.currentOperationIndex + " / " + totalSteps + "\n\n" +
+                description + "\n\n" +
+                "CURRENT OPERATION:\n" +
+                "• Left sub-array: indices [" + player.mergeLeft + ", " + player.mergeMid + "]\n" +
+                "• Right sub-array: indices [" + (player.mergeMid + 1) + ", " + player.mergeRight + "]\n" +
+                "• Target range: indices [" + player.mergeLeft + ", " + player.mergeRight + "]\n" +
+                "• Comparisons made: " + player.mergeComparisons + "\n\n" +
+                "MERGE PROCESS:\n" +
+                "1. Compare elements from both sorted sub-arrays\n" +
+                "2. Copy the smaller element to temporary array\n" +
+                "3. Advance the pointer in the array we copied from\n" +
+                "4. Repeat until one sub-array is exhausted\n" +
+                "5. Copy remaining elements from the other sub-array\n" +
+                "6. Copy merged result back to original array\n\n" +
+                "This merge combines two already-sorted segments\n" +
+                "into one larger sorted segment.");
 
-        currentOperationIndex++;
         repaint();
     }
 
-    void performMerge(int left, int mid, int right) {
-        // Copy elements to temporary array
-        for (int i = left; i <= right; i++) {
-            tempArray[i] = array[i];
+    // Shows the state after the given number of merges. The nearest checkpoint at or
+    // before the merge before it is restored (unless the player is already between the
+    // two), the merges in between are replayed unseen and the last one is shown as usual.
+    void seekTo(int step) {
+        step = Math.max(0, Math.min(step, totalSteps));
+        int target = Math.max(0, step - 1);
+        SortCheckpoints.Checkpoint nearest = checkpoints.floor(target);
+        boolean restore = player.currentStep > target || nearest.tick > player.currentStep;
+        if (restore && !checkpoints.restorable(nearest)) {
+            JOptionPane.showMessageDialog(this, "❌ Merge " + step + " is too far from the saved states of this trace to jump to.\n" +
+                    "Let the sort play forward to it instead.");
+            return;
         }
+        pausePlayback();
 
-        int leftIndex = left;
-        int rightIndex = mid + 1;
-        int mergeIndex = left;
-
-        // Merge the two sorted sub-arrays
-        while (leftIndex <= mid && rightIndex <= right) {
-            if (tempArray[leftIndex] <= tempArray[rightIndex]) {
-                array[mergeIndex] = tempArray[leftIndex];
-                leftIndex++;
-            } else {
-                array[mergeIndex] = tempArray[rightIndex];
-                rightIndex++;
-            }
-            mergeIndex++;
+        if (restore) {
+            checkpoints.restore(nearest, player);
         }
-
-        // Copy remaining elements from left sub-array
-        while (leftIndex <= mid) {
-            array[mergeIndex] = tempArray[leftIndex];
-            leftIndex++;
-            mergeIndex++;
+        seeking = true;
+        while (player.currentStep < target && player.traceStep < trace.size()) {
+            playStep();
         }
+        seeking = false;
 
-        // Copy remaining elements from right sub-array
-        while (rightIndex <= right) {
-            array[mergeIndex] = tempArray[rightIndex];
-            rightIndex++;
-            mergeIndex++;
+        if (step > 0) {
+            playStep();
+        } else {
+            stepLabel.setText("Step: 0 / " + totalSteps);
+            statusLabel.setText("<html><center>⏮️ Back at the start<br>Click Resume to play</center></html>");
+            updateExplanation("Rewound to the unsorted array. Step forward with Resume, or jump with Go to Step.");
+            repaint();
         }
     }
 
-    void buildMergeOperations() {
-        mergeOperations = new ArrayList<>();
-        totalSteps = 0;
-        buildMergeOperationsRecursive(0, arraySize - 1, 1);
+    void showSeekDialog() {
+        if (checkpoints == null) return;
+
+        String input = JOptionPane.showInputDialog(this,
+                "Go to step (0 to " + totalSteps + "):", String.valueOf(player.currentStep));
+        if (input == null) return;
+        try {
+            int step = Integer.parseInt(input.trim());
+            if (step < 0 || step > totalSteps) {
+                JOptionPane.showMessageDialog(this, "❌ Step must be between 0 and " + totalSteps);
+                return;
+            }
+            seekTo(step);
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "❌ Please enter a valid step number");
+        }
     }
 
-    void buildMergeOperationsRecursive(int left, int right, int level) {
-        if (left < right) {
-            int mid = (left + right) / 2;
-
-            // Recursively build operations for left and right halves
-            buildMergeOperationsRecursive(left, mid, level + 1);
-            buildMergeOperationsRecursive(mid + 1, right, level + 1);
+    // Seeking stops the timer; a finished run becomes a paused one again
+    void pausePlayback() {
+        animationTimer.stop();
+        isAnimating = true;
+        isPaused = true;
+        startButton.setText("Sorting...");
+        startButton.setEnabled(false);
+        startButton.setBackground(new Color(231, 76, 60));
+        pauseButton.setEnabled(true);
+        pauseButton.setText("Resume");
+        pauseButton.setBackground(new Color(46, 204, 113));
+    }
 
-            // Add merge operation for this level
-            totalSteps++;
-            String description = "Level " + level + " merge: combining sorted segments";
-            mergeOperations.add(new MergeOperation(left, mid, right, totalSteps, description));
-        }
+    String describeArray() {
+        return arraySize <= SortPlots.MAX_BOX_ELEMENTS ? Arrays.toString(array) : "(" + arraySize + " elements)";
     }
 
     void drawArray(Graphics2D g2d) {
         if (array == null) return;
+        if (arraySize > SortPlots.MAX_BOX_ELEMENTS) {
+            drawCompactArray(g2d);
+            return;
+        }
 
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
@@ -649,16 +786,16 @@ public class MergeSortVisualizer extends JFrame {
         g2d.drawString(title, titleX, 30);
 
         // Draw merge range background
-        if (isAnimating && mergeLeft >= 0 && mergeRight >= 0) {
-            int rangeStartX = startX + mergeLeft * (boxWidth + 8);
-            int rangeWidth = (mergeRight - mergeLeft + 1) * (boxWidth + 8) - 8;
+        if (isAnimating && player.mergeLeft >= 0 && player.mergeRight >= 0) {
+            int rangeStartX = startX + player.mergeLeft * (boxWidth + 8);
+            int rangeWidth = (player.mergeRight - player.mergeLeft + 1) * (boxWidth + 8) - 8;
             g2d.setColor(new Color(46, 204, 113, 60));
             g2d.fillRoundRect(rangeStartX - 5, startY - 10, rangeWidth + 10, boxHeight + 20, 12, 12);
 
             // Draw merge operation label
             g2d.setColor(new Color(46, 204, 113));
             g2d.setFont(new Font("Segoe UI", Font.BOLD, 12));
-            String mergeLabel = "Merging Range [" + mergeLeft + ", " + mergeRight + "]";
+            String mergeLabel = "Merging Range [" + player.mergeLeft + ", " + player.mergeRight + "]";
             FontMetrics mergeFm = g2d.getFontMetrics();
             int mergeLabelX = rangeStartX + (rangeWidth - mergeFm.stringWidth(mergeLabel)) / 2;
             g2d.drawString(mergeLabel, mergeLabelX, startY - 15);
@@ -674,9 +811,9 @@ public class MergeSortVisualizer extends JFrame {
             Color textColor = new Color(44, 62, 80);
             boolean isHighlighted = false;
 
-            if (isAnimating && mergeLeft >= 0 && mergeRight >= 0) {
-                if (i >= mergeLeft && i <= mergeRight) {
-                    if (i <= mergeMid) {
+            if (isAnimating && player.mergeLeft >= 0 && player.mergeRight >= 0) {
+                if (i >= player.mergeLeft && i <= player.mergeRight) {
+                    if (i <= player.mergeMid) {
                         boxColor = leftArrayColor;
                         textColor = Color.WHITE;
                     } else {
@@ -684,7 +821,7 @@ public class MergeSortVisualizer extends JFrame {
                         textColor = Color.WHITE;
                     }
                     isHighlighted = true;
-                } else if (i < mergeLeft || i > mergeRight) {
+                } else if (i < player.mergeLeft || i > player.mergeRight) {
                     // Elements outside current merge range - already sorted
                     boxColor = sortedColor;
                     textColor = Color.WHITE;
@@ -725,10 +862,10 @@ public class MergeSortVisualizer extends JFrame {
             g2d.drawString(indexText, indexX, y + boxHeight + 15);
 
             // Draw array section labels
-            if (isAnimating && mergeLeft >= 0 && mergeRight >= 0 && i >= mergeLeft && i <= mergeRight) {
+            if (isAnimating && player.mergeLeft >= 0 && player.mergeRight >= 0 && i >= player.mergeLeft && i <= player.mergeRight) {
                 g2d.setFont(new Font("Segoe UI", Font.BOLD, 9));
                 g2d.setColor(Color.WHITE);
-                String sectionLabel = i <= mergeMid ? "LEFT" : "RIGHT";
+                String sectionLabel = i <= player.mergeMid ? "LEFT" : "RIGHT";
                 FontMetrics sectionFm = g2d.getFontMetrics();
                 int sectionX = x + (boxWidth - sectionFm.stringWidth(sectionLabel)) / 2;
                 g2d.drawString(sectionLabel, sectionX, y + 15);
@@ -739,6 +876,36 @@ public class MergeSortVisualizer extends JFrame {
         drawLegend(g2d);
     }
 
+    // Bars for arrays too long for one box per element, with the merge range shaded
+    // and the midpoint marked
+    void drawCompactArray(Graphics2D g2d) {
+        int width = arrayPanel.getWidth() - 200;
+        int height = arrayPanel.getHeight() - 120;
+        int left = 180;
+        int top = 60;
+        if (width <= 0 || height <= 0) return;
+
+        g2d.setFont(new Font("Segoe UI", Font.BOLD, 18));
+        g2d.setColor(new Color(44, 62, 80));
+        g2d.drawString("Merge Sort - " + arraySize + " elements", left, 30);
+
+        g2d.drawImage(SortPlots.valueBars(array, width, height, leftArrayColor.getRGB(), Color.WHITE.getRGB()), left, top, null);
+        if (isAnimating && player.mergeLeft >= 0 && player.mergeRight >= 0) {
+            int x1 = left + SortPlots.columnOf(player.mergeLeft, arraySize, width);
+            int x2 = left + SortPlots.columnOf(player.mergeRight, arraySize, width);
+            int xm = left + SortPlots.columnOf(player.mergeMid, arraySize, width);
+            g2d.setColor(new Color(46, 204, 113, 60));
+            g2d.fillRect(x1, top, x2 - x1 + 1, height);
+            g2d.setColor(rightArrayColor);
+            g2d.drawLine(xm, top, xm, top + height);
+            g2d.setFont(new Font("Segoe UI", Font.BOLD, 12));
+            g2d.drawString("Merging Range [" + player.mergeLeft + ", " + player.mergeRight + "]", x1, top + height + 18);
+        }
+        g2d.setColor(borderColor);
+        g2d.drawRect(left, top, width, height);
+        drawLegend(g2d);
+    }
+
     void drawLegend(Graphics2D g2d) {
         String[] labels = {"Unsorted", "Left Sub-array", "Right Sub-array", "Sorted"};
         Color[] colors = {defaultColor, leftArrayColor, rightArrayColor, sortedColor};
@@ -0,0 +1,79 @@
+// Montgomery modular arithmetic for an odd 64-bit modulus n < 2^63.
+// Numbers are kept in Montgomery form (a * 2^64 mod n), which turns every
+// modular multiplication into two 64x64 multiplies and a shift, with no division.
+// The high halves come from Math.multiplyHigh.
+public class Montgomery64 {
+    final long n;
+    final long negInv; // -n^-1 mod 2^64
+    final long one;    // 2^64 mod n, i.e. 1 in Montgomery form
+    final long r2;     // 2^128 mod n, used to convert into Montgomery form
+
+    public Montgomery64(long n) {
+        if (n < 3 || (n & 1) == 0) {
+            throw new IllegalArgumentException("Modulus must be odd and > 1: " + n);
+        }
+        this.n = n;
+
+        // Newton iteration: every round doubles the number of correct low bits
+        long inv = n;
+        for (int i = 0; i < 5; i++) {
+            inv *= 2 - n * inv;
+        }
+        this.negInv = -inv;
+
+        long r = Long.remainderUnsigned(-1L, n) + 1;
+        if (r == n) r = 0;
+        this.one = r;
+
+        // 2^128 mod n by doubling 2^64 mod n another 64 times
+        for (int i = 0; i < 64; i++) {
+            r <<= 1;
+            if (Long.compareUnsigned(r, n) >= 0) r -= n;
+        }
+        this.r2 = r;
+    }
+
+    // a * b / 2^64 mod n, for a and b in Montgomery form
+    public long multiply(long a, long b) {
+        return reduce(Math.multiplyHigh(a, b), a * b);
+    }
+
+    public long square(long a) {
+        return multiply(a, a);
+    }
+
+    // Addition works the same in and out of Montgomery form
+    public long add(long a, long b) {
+        long sum = a + b;
+        if (Long.compareUnsigned(sum, n) >= 0) sum -= n;
+        return sum;
+    }
+
+    public long toMontgomery(long a) {
+        return multiply(Math.floorMod(a, n), r2);
+    }
+
+    public long fromMontgomery(long a) {
+        return reduce(0, a);
+    }
+
+    public long pow(long base, long exponent) {
+        long result = one;
+        while (exponent > 0) {
+            if ((exponent & 1) != 0) result = multiply(result, base);
+            base = multiply(base, base);
+            exponent >>>= 1;
+        }
+        return result;
+    }
+
+    // REDC of the 128-bit value hi:lo; requires hi:lo < n * 2^64
+    long reduce(long hi, long lo) {
+        long m = lo * negInv;
+        // Unsigned high half of m * n (n is positive, m may not be)
+        long mnHi = Math.multiplyHigh(m, n) + ((m >> 63) & n);
+        long t = hi + mnHi + (lo != 0 ? 1 : 0);
+        if (Long.compareUnsigned(t, n) >= 0) t -= n;
+        return t;
+    }
+}
@@ -0,0 +1,131 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Non-animated, multi-core version of the segmented sieve.
+// [lowerBound, upperBound] is cut into chunks that are sieved in parallel on a
+// ForkJoinPool. Every worker gets its own window buffer (through its own
+// SegmentedSieve) while the base-prime table is built once and shared read-only.
+// Chunk results are kept by chunk number, so merging them is a pass in chunk order.
+public class ParallelSegmentedSieve {
+    // A few chunks per thread so a slow chunk does not leave the other cores idle
+    static final int CHUNKS_PER_THREAD = 8;
+
+    final long lowerBound;
+    final long upperBound;
+    final int parallelism;
+    final int segmentSize;
+    final int[] basePrimes;
+
+    public ParallelSegmentedSieve(long lowerBound, long upperBound) {
+        this(lowerBound, upperBound, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelSegmentedSieve(long lowerBound, long upperBound, int parallelism) {
+        if (upperBound < lowerBound) {
+            throw new IllegalArgumentException("upperBound must be >= lowerBound");
+        }
+        this.lowerBound = Math.max(0, lowerBound);
+        this.upperBound = upperBound;
+        this.parallelism = Math.max(1, parallelism);
+        this.segmentSize = SegmentedSieve.DEFAULT_SEGMENT_SIZE;
+        this.basePrimes = SegmentedSieve.basePrimesUpTo(SegmentedSieve.isqrt(upperBound));
+    }
+
+    // Adds all primes in [lowerBound, upperBound] to 'primes', in increasing order, and their
+    // statistics to 'statistics'. A chunk keeps its primes as int offsets from lowerBound and
+    // is dropped once it is copied over; its statistics are merged in the same pass
+    public void findPrimes(PrimeList primes, PrimeStatistics statistics) {
+        if (upperBound - lowerBound > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Range wider than 2^31: " + lowerBound + " to " + upperBound);
+        }
+        int[][] chunkPrimes = new int[chunkCount()][];
+        PrimeStatistics[] chunkStatistics = new PrimeStatistics[chunkPrimes.length];
+        run(chunkPrimes, null, chunkStatistics);
+        for (int k = 0; k < chunkPrimes.length; k++) {
+            for (int offset : chunkPrimes[k]) primes.add(lowerBound + offset);
+            chunkPrimes[k] = null;
+            statistics.merge(chunkStatistics[k]);
+        }
+    }
+
+    public long countPrimes() {
+        long[] chunkCounts = new long[chunkCount()];
+        run(null, chunkCounts, null);
+        long total = 0;
+        for (long count : chunkCounts) total += count;
+        return total;
+    }
+
+    int chunkCount() {
+        long width = upperBound - lowerBound + 1;
+        long minChunk = 2L * segmentSize;
+        long chunks = Math.min((long) parallelism * CHUNKS_PER_THREAD, (width + minChunk - 1) / minChunk);
+        return (int) Math.max(1, chunks);
+    }
+
+    long chunkLow(int chunk, int chunks) {
+        long width = upperBound - lowerBound + 1;
+        return lowerBound + (width / chunks) * chunk + Math.min(chunk, width % chunks);
+    }
+
+    // Either chunkCounts or the primes and their statistics are collected, one entry per chunk
+    void run(int[][] chunkPrimes, long[] chunkCounts, PrimeStatistics[] chunkStatistics) {
+        int chunks = chunkCounts != null ? chunkCounts.length : chunkPrimes.length;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new ChunkTask(0, chunks, chunks, chunkPrimes, chunkCounts, chunkStatistics));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Splits the chunk interval in halves until a single chunk is left, then sieves it
+    class ChunkTask extends RecursiveAction {
+        final int from, to, chunks;
+        final int[][] chunkPrimes;
+        final long[] chunkCounts;
+        final PrimeStatistics[] chunkStatistics;
+
+        ChunkTask(int from, int to, int chunks, int[][] chunkPrimes, long[] chunkCounts, PrimeStatistics[] chunkStatistics) {
+            this.from = from;
+            this.to = to;
+            this.chunks = chunks;
+            this.chunkPrimes = chunkPrimes;
+            this.chunkCounts = chunkCounts;
+            this.chunkStatistics = chunkStatistics;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ChunkTask(from, mid, chunks, chunkPrimes, chunkCounts, chunkStatistics),
+                        new ChunkTask(mid, to, chunks, chunkPrimes, chunkCounts, chunkStatistics));
+                return;
+            }
+
+            long low = chunkLow(from, chunks);
+            long high = from == chunks - 1 ? upperBound : chunkLow(from + 1, chunks) - 1;
+            SegmentedSieve sieve = new SegmentedSieve(low, high, segmentSize, basePrimes);
+
+            if (chunkCounts != null) {
+                chunkCounts[from] = sieve.countPrimes();
+            } else {
+                // Each chunk's statistics start fresh; merge() joins them across the seams
+                PrimeStatistics statistics = new PrimeStatistics();
+                int[][] buffer = {new int[256]};
+                int[] found = {0};
+                sieve.forEachPrime(p -> {
+                    statistics.accept(p);
+                    if (found[0] == buffer[0].length) {
+                        buffer[0] = Arrays.copyOf(buffer[0], found[0] * 2);
+                    }
+                    buffer[0][found[0]++] = (int) (p - lowerBound);
+                });
+                chunkStatistics[from] = statistics;
+                chunkPrimes[from] = Arrays.copyOf(buffer[0], found[0]);
+            }
+        }
+    }
+}
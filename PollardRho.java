@@ -0,0 +1,103 @@
+import java.util.Arrays;
+
+// Pollard's rho factorization for 64-bit numbers, with Brent's cycle detection.
+// The walk y -> y^2 + c runs in Montgomery form. Instead of one gcd per step,
+// |x - y| values are multiplied together and a single gcd is taken every BATCH
+// steps; if a batch overshoots (gcd = n) the last batch is replayed one step at
+// a time. Finding a factor p takes about sqrt(p) steps, so a 62-bit semiprime
+// needs on the order of 2^16 multiplications instead of 2^31 trial divisions.
+public class PollardRho {
+    static final int BATCH = 128;
+
+    // A nontrivial divisor of n; n must be composite
+    public static long findDivisor(long n) {
+        if ((n & 1) == 0) return 2;
+        for (int p : MillerRabin64.SMALL_PRIMES) {
+            if (n % p == 0) return p;
+        }
+
+        Montgomery64 m = new Montgomery64(n);
+        for (long c = 1; ; c++) {
+            long divisor = brent(m, m.toMontgomery(c), m.toMontgomery(2));
+            if (divisor != n) return divisor;
+            // This constant gave a useless cycle, try the next one
+        }
+    }
+
+    static long brent(Montgomery64 m, long c, long start) {
+        long n = m.n;
+        long y = start;
+        long x = start;
+        long ys = start;
+        long q = m.one;
+        long g = 1;
+
+        for (long r = 1; g == 1; r <<= 1) {
+            x = y;
+            for (long i = 0; i < r; i++) {
+                y = m.add(m.square(y), c);
+            }
+            for (long k = 0; k < r && g == 1; k += BATCH) {
+                ys = y;
+                long steps = Math.min(BATCH, r - k);
+                for (long i = 0; i < steps; i++) {
+                    y = m.add(m.square(y), c);
+                    q = m.multiply(q, Math.abs(x - y));
+                }
+                // Montgomery form only adds a factor 2^64, which does not change the gcd with odd n
+                g = gcd(q, n);
+            }
+        }
+
+        if (g == n) {
+            // The batch multiplied in a multiple of n: replay it one step at a time
+            do {
+                ys = m.add(m.square(ys), c);
+                g = gcd(Math.abs(x - ys), n);
+            } while (g == 1);
+        }
+        return g;
+    }
+
+    // All prime factors of n with multiplicity, in increasing order
+    public static long[] factor(long n) {
+        if (n < 2) return new long[0];
+        long[] factors = new long[64];
+        int count = 0;
+        long[] stack = new long[64];
+        int top = 0;
+        stack[top++] = n;
+        while (top > 0) {
+            long value = stack[--top];
+            if (value == 1) continue;
+            if (MillerRabin64.isPrime(value)) {
+                factors[count++] = value;
+                continue;
+            }
+            long divisor = findDivisor(value);
+            stack[top++] = divisor;
+            stack[top++] = value / divisor;
+        }
+        long[] result = Arrays.copyOf(factors, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    // Binary gcd, both arguments non-negative
+    static long gcd(long a, long b) {
+        if (a == 0) return b;
+        if (b == 0) return a;
+        int shift = Long.numberOfTrailingZeros(a | b);
+        a >>>= Long.numberOfTrailingZeros(a);
+        while (b != 0) {
+            b >>>= Long.numberOfTrailingZeros(b);
+            if (a > b) {
+                long t = a;
+                a = b;
+                b = t;
+            }
+            b -= a;
+        }
+        return a << shift;
+    }
+}
@@ -0,0 +1,209 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// On-disk prime bitmap shared by every run of the app.
+// File layout (little endian):
+//   header  magic "PRMBITS1" (8 bytes), version (4), reserved (4), limit (8), reserved (8)
+//   body    limit / 128 longs; bit b of word w is set if 128w + 2b + 1 is prime
+// The body covers [0, limit) and is read through a read-only memory mapping, so
+// lookups never copy the bitmap onto the heap. Asking for a larger upper bound
+// sieves only the missing tail, appends it and remaps the file.
+public class PrimeBitmapCache implements Closeable {
+    static final long MAGIC = 0x31535449424d5250L; // "PRMBITS1" read as a little endian long
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int NUMBERS_PER_WORD = 128;
+    // 2^32 numbers is a 256 MB file; wider ranges are sieved without the cache
+    static final long MAX_LIMIT = 1L << 32;
+    // Numbers sieved per appended block: 8M numbers = 512 KB of bitmap
+    static final int BLOCK_WORDS = 64 * 1024;
+
+    static PrimeBitmapCache shared;
+
+    final Path file;
+    final FileChannel channel;
+    MappedByteBuffer bitmap;
+    long limit;
+
+    // The cache in the user's home directory, opened once per JVM
+    public static synchronized PrimeBitmapCache shared() throws IOException {
+        if (shared == null) {
+            shared = new PrimeBitmapCache(defaultLocation());
+        }
+        return shared;
+    }
+
+    // The shared cache if a run has already created it, without creating the file
+    public static synchronized PrimeBitmapCache sharedIfExists() throws IOException {
+        if (shared == null && !Files.exists(defaultLocation())) return null;
+        return shared();
+    }
+
+    static Path defaultLocation() {
+        return Paths.get(System.getProperty("user.home"), ".algorithm-visualizer", "prime-bitmap.bin");
+    }
+
+    public PrimeBitmapCache(Path file) throws IOException {
+        this.file = file;
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        FileLock lock = channel.lock();
+        try {
+            limit = readLimit();
+            if (limit < 0) {
+                // New or unreadable file: start over with an empty bitmap
+                channel.truncate(0);
+                writeHeader(0);
+                limit = 0;
+            }
+        } finally {
+            lock.release();
+        }
+        remap();
+    }
+
+    public synchronized long limit() {
+        return limit;
+    }
+
+    public synchronized boolean covers(long upperBound) {
+        return upperBound < limit;
+    }
+
+    // Makes sure [0, upperBound] is in the file. Returns the number of newly sieved numbers
+    public synchronized long ensureCovers(long upperBound) throws IOException {
+        if (upperBound < limit) return 0;
+        if (upperBound >= MAX_LIMIT) {
+            throw new IllegalArgumentException("Prime cache only goes up to " + MAX_LIMIT + ": " + upperBound);
+        }
+        long newLimit = (upperBound / NUMBERS_PER_WORD + 1) * NUMBERS_PER_WORD;
+        long oldLimit = limit;
+
+        FileLock lock = channel.lock();
+        try {
+            // Another process may have grown the file in the meantime
+            long onDisk = readLimit();
+            if (onDisk > limit) limit = onDisk;
+
+            if (limit < newLimit) {
+                int[] basePrimes = SegmentedSieve.basePrimesUpTo(SegmentedSieve.isqrt(newLimit));
+                long[] words = new long[BLOCK_WORDS];
+                for (long blockLow = limit; blockLow < newLimit; ) {
+                    long blockHigh = Math.min(newLimit, blockLow + (long) BLOCK_WORDS * NUMBERS_PER_WORD);
+                    int wordCount = (int) ((blockHigh - blockLow) / NUMBERS_PER_WORD);
+                    Arrays.fill(words, 0, wordCount, 0);
+
+                    long base = blockLow;
+                    new SegmentedSieve(blockLow, blockHigh - 1, SegmentedSieve.DEFAULT_SEGMENT_SIZE, basePrimes)
+                            .forEachPrime(p -> {
+                                if ((p & 1) == 0) return; // 2 is implied
+                                long bit = (p - base) >>> 1;
+                                words[(int) (bit >>> 6)] |= 1L << bit;
+                            });
+
+                    ByteBuffer buffer = ByteBuffer.allocate(wordCount * 8).order(ByteOrder.LITTLE_ENDIAN);
+                    buffer.asLongBuffer().put(words, 0, wordCount);
+                    long position = HEADER_BYTES + blockLow / NUMBERS_PER_WORD * 8;
+                    while (buffer.hasRemaining()) {
+                        position += channel.write(buffer, position);
+                    }
+                    blockLow = blockHigh;
+                }
+                channel.force(false);
+                // The header goes last, so a crash never leaves a limit that points past the data
+                writeHeader(newLimit);
+                limit = newLimit;
+            }
+        } finally {
+            lock.release();
+        }
+        remap();
+        return limit - oldLimit;
+    }
+
+    public synchronized boolean isPrime(long n) {
+        checkCovered(n);
+        if (n < 3) return n == 2;
+        if ((n & 1) == 0) return false;
+        long bit = n >>> 1;
+        return (word(bit >>> 6) & (1L << bit)) != 0;
+    }
+
+    // Calls action for every prime in [lowerBound, upperBound] in increasing order
+    public synchronized void forEachPrime(long lowerBound, long upperBound, LongConsumer action) {
+        checkCovered(upperBound);
+        if (upperBound < 2 || upperBound < lowerBound) return;
+        if (lowerBound <= 2) action.accept(2);
+
+        long firstBit = Math.max(3, lowerBound) >>> 1;
+        long lastBit = (upperBound - 1) >>> 1;
+        for (long w = firstBit >>> 6; w <= lastBit >>> 6; w++) {
+            long bits = word(w);
+            if (w == firstBit >>> 6) bits &= -1L << firstBit;
+            if (w == lastBit >>> 6) bits &= -1L >>> (63 - (lastBit & 63));
+            while (bits != 0) {
+                action.accept(((w << 6) + Long.numberOfTrailingZeros(bits)) * 2 + 1);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    public synchronized long countPrimes(long lowerBound, long upperBound) {
+        long[] count = new long[1];
+        forEachPrime(lowerBound, upperBound, p -> count[0]++);
+        return count[0];
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    long word(long index) {
+        return bitmap.getLong(HEADER_BYTES + (int) (index * 8));
+    }
+
+    void checkCovered(long n) {
+        if (n >= limit) {
+            throw new IllegalArgumentException(n + " is past the cached limit " + limit);
+        }
+    }
+
+    void remap() throws IOException {
+        bitmap = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES + limit / NUMBERS_PER_WORD * 8);
+        bitmap.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // The limit stored in the header, or -1 if the file is not a valid cache
+    long readLimit() throws IOException {
+        if (channel.size() < HEADER_BYTES) return -1;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(header, 0);
+        header.flip();
+        if (header.getLong(0) != MAGIC || header.getInt(8) != VERSION) return -1;
+        long stored = header.getLong(16);
+        if (stored < 0 || stored % NUMBERS_PER_WORD != 0) return -1;
+        if (channel.size() < HEADER_BYTES + stored / NUMBERS_PER_WORD * 8) return -1;
+        return stored;
+    }
+
+    void writeHeader(long newLimit) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(MAGIC).putInt(VERSION).putInt(0).putLong(newLimit).putLong(0);
+        header.flip();
+        channel.write(header, 0);
+        channel.force(true);
+    }
+}
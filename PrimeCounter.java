@@ -0,0 +1,57 @@
+// Prime counting function pi(x) with the Lucy_Hedgehog algorithm.
+// Let S(v) be the count of numbers in [2, v] that survive sieving by the primes
+// below p. Only the O(sqrt x) values v = x / i are ever needed, and sieving by the
+// next prime p updates them with S(v) -= S(v / p) - S(p - 1). After all primes up
+// to sqrt x, S(x) = pi(x). That is O(x^(3/4)) time and O(sqrt x) memory, so
+// pi(10^12) takes seconds and no prime is ever stored.
+public class PrimeCounter {
+    // Narrow ranges are cheaper to sieve directly than to count twice from 0
+    static final long SIEVE_FALLBACK_WIDTH = 1L << 24;
+    // Two arrays of sqrt(x) longs: 10^13 needs about 50 MB and ten seconds
+    static final long MAX_X = 10_000_000_000_000L;
+
+    public static long pi(long x) {
+        if (x < 2) return 0;
+        if (x > MAX_X) throw new IllegalArgumentException("pi(x) is limited to x <= " + MAX_X + ": " + x);
+        int r = (int) SegmentedSieve.isqrt(x);
+
+        // large[i] = S(x / i) for i <= r, small[v] = S(v) for v <= r
+        long[] large = new long[r + 1];
+        long[] small = new long[r + 1];
+        for (int i = 1; i <= r; i++) {
+            large[i] = x / i - 1;
+            small[i] = i - 1;
+        }
+
+        for (int p = 2; p <= r; p++) {
+            if (small[p] == small[p - 1]) continue; // p was sieved out, so it is not prime
+            long primesBelow = small[p - 1];
+            long square = (long) p * p;
+
+            long limit = Math.min(r, x / square);
+            for (int i = 1; i <= limit; i++) {
+                long d = (long) i * p;
+                large[i] -= (d <= r ? large[(int) d] : small[(int) (x / d)]) - primesBelow;
+            }
+            for (int v = r; v >= square; v--) {
+                small[v] -= small[v / p] - primesBelow;
+            }
+        }
+        return large[1];
+    }
+
+    // Number of primes in [lowerBound, upperBound]
+    public static long countInRange(long lowerBound, long upperBound) {
+        if (upperBound < Math.max(2, lowerBound)) return 0;
+        if (usesSieve(lowerBound, upperBound)) {
+            return new SegmentedSieve(lowerBound, upperBound).countPrimes();
+        }
+        return pi(upperBound) - pi(lowerBound - 1);
+    }
+
+    // Sieving costs about the width of the range, counting about upperBound^(3/4)
+    public static boolean usesSieve(long lowerBound, long upperBound) {
+        long width = upperBound - lowerBound + 1;
+        return width <= SIEVE_FALLBACK_WIDTH || width <= Math.pow(upperBound, 0.75);
+    }
+}
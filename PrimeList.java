@@ -0,0 +1,73 @@
+import java.util.Arrays;
+
+// Growable list of primes backed by a plain int[] (no boxing).
+// Primes are always discovered in increasing order, so a value that is not larger
+// than the last one is already in the list: add() drops it in O(1), no contains()
+// scan needed, and the list never has to be sorted.
+// Each prime is stored as an int offset from 'base', so a window far up the number
+// line (say from 10^15) still costs 4 bytes per prime, as long as it is less than
+// 2^31 wide.
+public class PrimeList {
+    final long base;
+    int[] offsets;
+    int size;
+
+    public PrimeList() {
+        this(0, 16);
+    }
+
+    public PrimeList(int initialCapacity) {
+        this(0, initialCapacity);
+    }
+
+    public PrimeList(long base, int initialCapacity) {
+        this.base = base;
+        offsets = new int[Math.max(1, initialCapacity)];
+    }
+
+    // Returns false if the prime was already recorded
+    public boolean add(long prime) {
+        long offset = prime - base;
+        if (offset < 0 || offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(prime + " is outside " + base + " + [0, 2^31)");
+        }
+        if (size > 0 && offset <= offsets[size - 1]) return false;
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(16, size + (size >> 1)));
+        }
+        offsets[size++] = (int) offset;
+        return true;
+    }
+
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        return base + offsets[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Binary search, the list is sorted by construction
+    public boolean contains(long value) {
+        long offset = value - base;
+        if (offset < 0 || offset > Integer.MAX_VALUE) return false;
+        return Arrays.binarySearch(offsets, 0, size, (int) offset) >= 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public long[] toArray() {
+        long[] values = new long[size];
+        for (int i = 0; i < size; i++) values[i] = base + offsets[i];
+        return values;
+    }
+}
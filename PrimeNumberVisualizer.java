@@ -1,8 +1,17 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongConsumer;
 
 public class PrimeNumberVisualizer extends JFrame {
     // GUI Components
@@ -15,35 +24,133 @@ public class PrimeNumberVisualizer extends JFrame {
     JLabel rangeFromLabel, rangeToLabel, singleNumberLabel;
     JTextArea resultsArea, stepsArea;
     JComboBox<String> algorithmComboBox;
+    JCheckBox diskCacheCheckBox;
+    boolean cacheGrowing = false; // a worker is extending the disk cache, leave it alone
+    boolean comparing = false;    // Compare Engines is timing the sieves on a worker
+    SwingWorker<?, ?> engineWorker; // sieving or counting the range off the EDT, null otherwise
+    PrimeStatistics engineStatistics; // collected by the compute-only engines while sieving
+    JCheckBox turboCheckBox;
     JSlider speedSlider;
+    JSlider zoomSlider;
     javax.swing.Timer animationTimer;
 
     // Algorithm and Mode Variables
     boolean isMode1 = true; // true = Range Mode, false = Single Number Mode
     String currentAlgorithm = "Iterative";
     boolean isAnimating = false;
-
-    // Range Mode Variables
-    int lowerBound = 2;
-    int upperBound = 50;
-    int[] numbers;
-    boolean[] isPrime;
-    boolean[] isMarked;
-    int currentNumber = 2;
-    int currentMultiple = 4;
+    // Turbo runs as many steps per frame as fit; all but the last one of a tick are
+    // quiet, leaving the step log and the performance panel alone
+    TurboPacer turbo = new TurboPacer();
+    boolean quiet = false;
+
+    // Range Mode Variables (bounds are long, indices into the range stay int)
+    long lowerBound = 2;
+    long upperBound = 50;
+    PrimeSieveStorage sieveStorage; // number at index i is lowerBound + i
+    long currentNumber = 2;
+    long currentMultiple = 4;
     int animationStep = 0;
-    List<Integer> foundPrimes;
+    PrimeList foundPrimes; // filled in increasing order, never needs sorting
     long startTime, endTime;
 
     // Single Number Mode Variables
-    int targetNumber = 17;
-    int currentDivisor = 2;
+    long targetNumber = 17;
+    long currentDivisor = 2;
     boolean isPrimeResult = true;
 
+    // Miller-Rabin Variables
+    MillerRabin64 millerRabin; // null until n - 1 = d * 2^s has been shown
+    int witnessRound = 0;      // next index into MillerRabin64.WITNESSES
+    long[] witnessChain;       // a^d, a^2d, ... mod n for the round on screen
+    long engineNanos;          // one headless run of the test, for the results panel
+
+    // Baillie-PSW Variables
+    static final String[] BPSW_STAGES = {"Trial division (primes < 1000)", "Strong Miller-Rabin, base 2", "Strong Lucas (Selfridge)"};
+    BigInteger bigTarget = BigInteger.valueOf(17);
+    BailliePSW bailliePSW;
+    int bpswStage = 0;                          // next stage to run
+    long[] bpswStageNanos = new long[3];
+    boolean bpswFailed = false;                 // the last stage that ran rejected n
+    StringBuilder bpswLog = new StringBuilder();
+
+    // Pollard's Rho Variables
+    Deque<Long> factorWorkStack = new ArrayDeque<>(); // cofactors still to be split
+    List<Long> discoveredFactors = new ArrayList<>();  // prime factors in discovery order
+    boolean smallFactorsStripped = false;
+    long rhoNanos;                                     // time spent inside Pollard's rho
+    StringBuilder factorLog = new StringBuilder();
+
+    // Prime Counting Variables (nothing is stored per number, so the bounds go up to PrimeCounter.MAX_X)
+    long primeCount;
+    boolean countedBySieve;  // narrow range, sieved instead of counted
+    long countNanos;
+
     // Sieve Variables
+    int[] sieveBasePrimes;     // 2 and the odd primes up to √upperBound, built on a worker when the sieve starts
+    int basePrimeIndex = 0;    // next entry of sieveBasePrimes to cross off
     int sieveCurrentPrime = 2;
     int sieveStep = 0; // 0: finding next prime, 1: marking multiples
 
+    // Running totals for the performance panel, kept up to date as numbers are
+    // marked or discovered so a status refresh never rescans the whole range
+    static class ProgressCounters {
+        long numbersChecked;   // numbers examined (range mode) or divisors tested (single mode)
+        long primesFound;
+        long compositesMarked;
+
+        void reset() {
+            numbersChecked = 0;
+            primesFound = 0;
+            compositesMarked = 0;
+        }
+
+        void recordPrime() {
+            numbersChecked++;
+            primesFound++;
+        }
+
+        void recordComposite() {
+            numbersChecked++;
+            compositesMarked++;
+        }
+
+        void recordCheck() {
+            numbersChecked++;
+        }
+    }
+
+    ProgressCounters counters = new ProgressCounters();
+
+    // List model over the primes of a finished run. A row is formatted only when the
+    // JList asks for it, so millions of primes cost nothing beyond the PrimeList itself.
+    static class PrimeListModel extends AbstractListModel<String> {
+        PrimeList primes = new PrimeList();
+
+        void setPrimes(PrimeList newPrimes) {
+            // Each event has to match the contents at the time it fires: empty the list
+            // for the removal, then put the new primes in for the addition
+            int oldSize = primes.size();
+            primes = new PrimeList();
+            if (oldSize > 0) fireIntervalRemoved(this, 0, oldSize - 1);
+            primes = newPrimes;
+            if (primes.size() > 0) fireIntervalAdded(this, 0, primes.size() - 1);
+        }
+
+        public int getSize() {
+            return primes.size();
+        }
+
+        public String getElementAt(int index) {
+            return "#" + (index + 1) + "    " + primes.get(index);
+        }
+    }
+
+    PrimeListModel primeListModel = new PrimeListModel();
+    JList<String> primeList;
+    JPanel primeListPanel;
+    JTextField jumpField;
+    JLabel pageLabel;
+
     // Animation and Visual Variables
     int highlightedIndex = -1;
     int markingIndex = -1;
@@ -54,6 +161,54 @@ public class PrimeNumberVisualizer extends JFrame {
     Color neutralColor = new Color(236, 240, 241);
     Color backgroundColor = new Color(248, 249, 250);
 
+    // Drawing objects shared by every repaint instead of being created per cell
+    Color darkTextColor = new Color(44, 62, 80);
+    Color cellShadowColor = new Color(0, 0, 0, 30);
+    BasicStroke cellBorderStroke = new BasicStroke(2);
+    Font rangeTitleFont = new Font("Segoe UI", Font.BOLD, 22);
+    Font rangeMessageFont = new Font("Segoe UI", Font.BOLD, 18);
+    Font legendLabelFont = new Font("Segoe UI", Font.PLAIN, 14);
+    Font cellFont; // rebuilt only when the cell size changes
+
+    // Ranges wider than this are not drawn at all (and not animated)
+    static final int MAX_GRID_NUMBERS = 20_000_000;
+    // Range bounds stop here: the base primes up to √MAX_RANGE_BOUND still fit in memory
+    static final long MAX_RANGE_BOUND = 10_000_000_000_000_000L;
+    // Widest range the compute-only engines accept. PrimeList keeps every prime as an int
+    // offset (4 bytes), and 2 * 10^8 numbers hold at most about 11M primes, so the list and
+    // its last growth copy stay below 100 MB
+    static final long MAX_RANGE_WIDTH = 200_000_000;
+    static final int GRID_START_Y = 80;
+    static final int GRID_GAP = 10;
+
+    // Zoom levels: cell size in pixels and how many numbers are folded into one cell.
+    // Cells smaller than LABELED_CELL_MIN have no room for text and are drawn as a
+    // heatmap, written pixel by pixel into an int[] raster instead of shape by shape.
+    static final int[] ZOOM_CELL_PIXELS = {1, 1, 1, 2, 4, 8, 16, 24, 40, 70};
+    static final int[] ZOOM_NUMBERS_PER_CELL = {16, 4, 1, 1, 1, 1, 1, 1, 1, 1};
+    static final int LABELED_CELL_MIN = 24;
+    static final int MAX_PANEL_HEIGHT = 30_000; // zoom is lowered until the grid fits
+    int zoomLevel = ZOOM_CELL_PIXELS.length - 1;
+    BufferedImage heatmapImage; // viewport sized, reused between repaints
+
+    // Range views other than the grid, rendered off screen from sieveStorage by PrimePlots
+    static final String[] RANGE_VIEWS = {"Grid", "Ulam Spiral", "Prime Gaps"};
+    static final int GAP_PLOT_HEIGHT = 400;
+    String rangeView = "Grid";
+    JComboBox<String> viewComboBox;
+    static final int MAX_PLOT_CHANGES = 1 << 16; // past this many a full render is cheaper
+    BufferedImage plotImage; // null once the storage changed, rebuilt on the next repaint
+    String plotKey = "";     // view, zoom and width the image was rendered for
+    int plotMaxGap;
+    int[] plotChanges = new int[64]; // numbers marked composite since plotImage was drawn
+    int plotChangeCount;
+
+    // Smallest-prime-factor table, built by Factorize Range and reused while it covers upperBound
+    SmallestFactorTable factorTable;
+    boolean factorizing = false; // Factorize Range is building the table on a worker
+    // The batch listing stops here, the summary still covers the whole range
+    static final int MAX_LISTED_FACTORIZATIONS = 1000;
+
     public PrimeNumberVisualizer() {
         initializeGUI();
         initializeMode1();
@@ -79,11 +234,17 @@ public class PrimeNumberVisualizer extends JFrame {
             }
         });
 
+        turboCheckBox.addActionListener(e -> {
+            turbo.reset();
+            animationTimer.setDelay(getAnimationDelay());
+        });
+
         setVisible(true);
     }
 
     // FIX: Add method to calculate animation delay based on slider value
     private int getAnimationDelay() {
+        if (turboCheckBox.isSelected()) return TurboPacer.FRAME_MILLIS;
         // Convert slider value (1-10) to delay (1000ms-100ms)
         // Higher slider value = faster animation = lower delay
         int sliderValue = speedSlider.getValue();
@@ -174,7 +335,7 @@ public class PrimeNumberVisualizer extends JFrame {
 
         JLabel algorithmLabel = new JLabel("Algorithm:");
         algorithmLabel.setFont(new Font("Segoe UI", Font.BOLD, 11));
-        algorithmComboBox = new JComboBox<>(new String[]{"Iterative", "Sieve of Eratosthenes"});
+        algorithmComboBox = new JComboBox<>(new String[]{"Iterative", "Sieve of Eratosthenes", "Wheel Sieve (mod 30)", "Sieve of Atkin", "Segmented Sieve", "Parallel Segmented Sieve", "Miller-Rabin (64-bit)", "Baillie-PSW (BigInteger)", "Pollard's Rho Factorization", "Prime Counting π(x)"});
         algorithmComboBox.setPreferredSize(new Dimension(200, 25));
         algorithmComboBox.setMaximumSize(new Dimension(200, 25));
         algorithmComboBox.addActionListener(e -> {
@@ -188,6 +349,14 @@ public class PrimeNumberVisualizer extends JFrame {
         modeSection.add(Box.createVerticalStrut(5));
         modeSection.add(algorithmLabel);
         modeSection.add(algorithmComboBox);
+        modeSection.add(Box.createVerticalStrut(5));
+
+        // The segmented sieve answers from the prime bitmap in the user's home directory when
+        // it already covers the range; growing the file is opt-in and happens in the background
+        diskCacheCheckBox = new JCheckBox("Grow disk prime cache", false);
+        diskCacheCheckBox.setFont(new Font("Segoe UI", Font.PLAIN, 10));
+        diskCacheCheckBox.setBackground(backgroundColor);
+        modeSection.add(diskCacheCheckBox);
 
         // Input Section
         JPanel inputSection = createSection("Input Parameters");
@@ -229,7 +398,7 @@ public class PrimeNumberVisualizer extends JFrame {
         singleNumberField.setVisible(false);
 
         // Speed Section
-        JPanel speedSection = createSection("Animation Speed");
+        JPanel speedSection = createSection("Animation Speed & Zoom");
 
         JLabel speedLabel = new JLabel("Speed:");
         speedLabel.setFont(new Font("Segoe UI", Font.BOLD, 11));
@@ -243,8 +412,44 @@ public class PrimeNumberVisualizer extends JFrame {
         speedSlider.setMinorTickSpacing(1);
         speedSlider.setFont(new Font("Segoe UI", Font.PLAIN, 9));
 
+        turboCheckBox = new JCheckBox("Turbo (as many steps per frame as fit)");
+        turboCheckBox.setFont(new Font("Segoe UI", Font.PLAIN, 10));
+        turboCheckBox.setBackground(backgroundColor);
+
+        JLabel zoomLabel = new JLabel("Zoom (small cells become a heatmap):");
+        zoomLabel.setFont(new Font("Segoe UI", Font.BOLD, 11));
+        zoomSlider = new JSlider(0, ZOOM_CELL_PIXELS.length - 1, zoomLevel);
+        zoomSlider.setPreferredSize(new Dimension(200, 30));
+        zoomSlider.setMaximumSize(new Dimension(200, 30));
+        zoomSlider.setBackground(backgroundColor);
+        zoomSlider.setPaintTicks(true);
+        zoomSlider.setMajorTickSpacing(1);
+        zoomSlider.addChangeListener(e -> {
+            zoomLevel = zoomSlider.getValue();
+            visualizationPanel.revalidate();
+            visualizationPanel.repaint();
+        });
+
         speedSection.add(speedLabel);
         speedSection.add(speedSlider);
+        speedSection.add(turboCheckBox);
+        speedSection.add(Box.createVerticalStrut(5));
+        speedSection.add(zoomLabel);
+        speedSection.add(zoomSlider);
+
+        JLabel viewLabel = new JLabel("View:");
+        viewLabel.setFont(new Font("Segoe UI", Font.BOLD, 11));
+        viewComboBox = new JComboBox<>(RANGE_VIEWS);
+        viewComboBox.setPreferredSize(new Dimension(200, 25));
+        viewComboBox.setMaximumSize(new Dimension(200, 25));
+        viewComboBox.addActionListener(e -> {
+            rangeView = (String) viewComboBox.getSelectedItem();
+            visualizationPanel.revalidate();
+            visualizationPanel.repaint();
+        });
+        speedSection.add(Box.createVerticalStrut(5));
+        speedSection.add(viewLabel);
+        speedSection.add(viewComboBox);
 
         // Action Buttons Section
         JPanel buttonSection = createSection("Actions");
@@ -260,6 +465,14 @@ public class PrimeNumberVisualizer extends JFrame {
         buttonSection.add(Box.createVerticalStrut(5));
         buttonSection.add(pauseButton);
         buttonSection.add(Box.createVerticalStrut(5));
+        JButton factorizeButton = createCompactButton("Factorize Range", new Color(155, 89, 182));
+        factorizeButton.addActionListener(e -> factorizeRange());
+        buttonSection.add(factorizeButton);
+        buttonSection.add(Box.createVerticalStrut(5));
+        JButton compareButton = createCompactButton("Compare Engines", new Color(52, 73, 94));
+        compareButton.addActionListener(e -> compareEngines());
+        buttonSection.add(compareButton);
+        buttonSection.add(Box.createVerticalStrut(5));
         JButton backButton = createCompactButton("Back to Hub", new Color(100, 149, 237));
         backButton.addActionListener(e -> {
             if (animationTimer != null) animationTimer.stop();
@@ -340,15 +553,51 @@ public class PrimeNumberVisualizer extends JFrame {
             }
 
             public Dimension getPreferredSize() {
-                if (isMode1 && numbers != null) {
-                    int cols = Math.min(10, numbers.length); // Changed from 20 to 10
-                    int rows = (numbers.length + cols - 1) / cols;
-                    return new Dimension(cols * 80 + 100, rows * 80 + 200); // Adjusted for larger cells
+                if (isMode1 && sieveStorage != null && !rangeView.equals("Grid")) {
+                    Dimension plot = rangePlotSize();
+                    return new Dimension(plot.width + 100, GRID_START_Y + plot.height + 200);
+                }
+                if (isMode1 && sieveStorage != null) {
+                    int pitch = gridCellSize() + gridGap();
+                    long height = GRID_START_Y + (long) gridRows() * pitch + 200;
+                    // The heatmap fills whatever width it gets, labeled cells ask for their columns
+                    int width = isHeatmap() ? 400 : gridColumns() * pitch + 100;
+                    return new Dimension(width, (int) Math.min(Integer.MAX_VALUE / 2, height));
                 }
                 return new Dimension(1000, 700); // Larger default size
             }
+
+            // Hovering a cell shows its factorization, from the smallest-prime-factor table if one is built
+            public String getToolTipText(MouseEvent e) {
+                if (!isMode1 || sieveStorage == null) return null;
+                int index = gridCellAt(e.getX(), e.getY());
+                if (index < 0) return null;
+                if (numbersPerCell() > 1) {
+                    int last = Math.min(sieveStorage.size(), index + numbersPerCell()) - 1;
+                    int primes = 0;
+                    for (int i = index; i <= last; i++) {
+                        if (sieveStorage.isPrime(i)) primes++;
+                    }
+                    return sieveStorage.numberAt(index) + " to " + sieveStorage.numberAt(last) + ": " + primes + " primes";
+                }
+                long number = sieveStorage.numberAt(index);
+                SmallestFactorTable table = factorTable;
+                if (table == null || number > table.limit) {
+                    // Hovering never builds the table (Factorize Range does); Miller-Rabin and
+                    // Pollard's rho answer for a single number without it
+                    return MillerRabin64.isPrime(number) ? number + " is prime" : number + " = " + formatFactorization(PollardRho.factor(number));
+                }
+                return table.isPrime((int) number) ? number + " is prime" : number + " = " + table.format((int) number);
+            }
         };
         visualizationPanel.setBackground(Color.WHITE);
+        ToolTipManager.sharedInstance().registerComponent(visualizationPanel);
+        // The number of columns follows the width, so the height has to be worked out again
+        visualizationPanel.addComponentListener(new ComponentAdapter() {
+            public void componentResized(ComponentEvent e) {
+                if (isMode1 && sieveStorage != null) visualizationPanel.revalidate();
+            }
+        });
 
         visualizationScrollPane = new JScrollPane(visualizationPanel);
         visualizationScrollPane.setBorder(BorderFactory.createTitledBorder(
@@ -452,6 +701,8 @@ public class PrimeNumberVisualizer extends JFrame {
         resultsScrollPane = new JScrollPane(resultsArea);
         resultsScrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
         resultsSubPanel.add(resultsScrollPane, BorderLayout.CENTER);
+        createPrimeListPanel();
+        resultsSubPanel.add(primeListPanel, BorderLayout.SOUTH);
 
         bottomSection.add(stepsPanel, BorderLayout.CENTER);
         bottomSection.add(resultsSubPanel, BorderLayout.SOUTH);
@@ -460,6 +711,85 @@ public class PrimeNumberVisualizer extends JFrame {
         resultsPanel.add(bottomSection, BorderLayout.CENTER);
     }
 
+    // Virtual list of the primes found, with page buttons and a jump to the n-th prime
+    void createPrimeListPanel() {
+        primeList = new JList<>(primeListModel);
+        primeList.setFont(new Font("Segoe UI", Font.PLAIN, 10));
+        primeList.setForeground(new Color(44, 62, 80));
+        // Fixed row size: the JList never measures rows it is not showing
+        primeList.setFixedCellHeight(16);
+        primeList.setFixedCellWidth(280);
+        primeList.setVisibleRowCount(8);
+        primeList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+
+        JScrollPane listScrollPane = new JScrollPane(primeList);
+        listScrollPane.getViewport().addChangeListener(e -> updatePageLabel());
+
+        JButton previousPage = createCompactButton("◀", new Color(52, 152, 219));
+        previousPage.addActionListener(e -> scrollPrimeList(-1));
+        JButton nextPage = createCompactButton("▶", new Color(52, 152, 219));
+        nextPage.addActionListener(e -> scrollPrimeList(1));
+        jumpField = new JTextField(6);
+        jumpField.setFont(new Font("Segoe UI", Font.PLAIN, 10));
+        jumpField.addActionListener(e -> jumpToPrime());
+        JButton jumpButton = createCompactButton("Go to #", new Color(155, 89, 182));
+        jumpButton.addActionListener(e -> jumpToPrime());
+        pageLabel = new JLabel(" ");
+        pageLabel.setFont(new Font("Segoe UI", Font.PLAIN, 10));
+
+        JPanel navigation = new JPanel(new FlowLayout(FlowLayout.LEFT, 3, 2));
+        navigation.setBackground(backgroundColor);
+        navigation.add(previousPage);
+        navigation.add(nextPage);
+        navigation.add(jumpButton);
+        navigation.add(jumpField);
+        navigation.add(pageLabel);
+
+        primeListPanel = new JPanel(new BorderLayout());
+        primeListPanel.add(listScrollPane, BorderLayout.CENTER);
+        primeListPanel.add(navigation, BorderLayout.SOUTH);
+        primeListPanel.setVisible(false);
+    }
+
+    void showPrimeList(PrimeList primes) {
+        primeListModel.setPrimes(primes == null ? new PrimeList() : primes);
+        primeListPanel.setVisible(primes != null);
+        if (primes != null && primes.size() > 0) primeList.ensureIndexIsVisible(0);
+        updatePageLabel();
+    }
+
+    // Moves the list a page (the rows on screen) up or down
+    void scrollPrimeList(int direction) {
+        int size = primeListModel.getSize();
+        if (size == 0) return;
+        int first = Math.max(0, primeList.getFirstVisibleIndex());
+        int last = Math.max(first, primeList.getLastVisibleIndex());
+        int page = last - first + 1;
+        int target = direction > 0 ? Math.min(size - 1, last + page) : Math.max(0, first - page);
+        primeList.ensureIndexIsVisible(target);
+    }
+
+    void jumpToPrime() {
+        int size = primeListModel.getSize();
+        if (size == 0) return;
+        try {
+            int index = (int) Math.max(1, Math.min(size, Long.parseLong(jumpField.getText().trim()))) - 1;
+            primeList.setSelectedIndex(index);
+            primeList.ensureIndexIsVisible(index);
+        } catch (NumberFormatException e) {
+            jumpField.setText("");
+        }
+    }
+
+    void updatePageLabel() {
+        int size = primeListModel.getSize();
+        if (size == 0) {
+            pageLabel.setText(" ");
+            return;
+        }
+        pageLabel.setText((primeList.getFirstVisibleIndex() + 1) + "-" + (primeList.getLastVisibleIndex() + 1) + " of " + size);
+    }
+
     void switchMode() {
         if (isAnimating) return;
 
@@ -508,20 +838,54 @@ public class PrimeNumberVisualizer extends JFrame {
         resetVisualization();
     }
 
+    boolean isRangeOnlyAlgorithm() {
+        return currentAlgorithm.equals("Sieve of Eratosthenes") || isComputeOnlyAlgorithm() || isCountingAlgorithm();
+    }
+
+    boolean isCountingAlgorithm() {
+        return currentAlgorithm.equals("Prime Counting π(x)");
+    }
+
+    // Algorithms that compute the whole range in one go instead of animating it
+    boolean isComputeOnlyAlgorithm() {
+        return currentAlgorithm.equals("Segmented Sieve") || currentAlgorithm.equals("Parallel Segmented Sieve") ||
+                currentAlgorithm.equals("Wheel Sieve (mod 30)") || currentAlgorithm.equals("Sieve of Atkin");
+    }
+
+    boolean isSingleOnlyAlgorithm() {
+        return currentAlgorithm.equals("Miller-Rabin (64-bit)") || currentAlgorithm.equals("Baillie-PSW (BigInteger)") ||
+                currentAlgorithm.equals("Pollard's Rho Factorization");
+    }
+
     void updateControlsForAlgorithm() {
-        if (!isMode1 && currentAlgorithm.equals("Sieve of Eratosthenes")) {
+        if (!isMode1 && isRangeOnlyAlgorithm()) {
             JOptionPane.showMessageDialog(this,
-                    "Sieve of Eratosthenes is designed for finding all primes in a range.\n" +
+                    currentAlgorithm + " is designed for finding all primes in a range.\n" +
                             "Switching to Range Mode for this algorithm.",
                     "Algorithm Notice", JOptionPane.INFORMATION_MESSAGE);
             switchMode();
+        } else if (isMode1 && isSingleOnlyAlgorithm()) {
+            JOptionPane.showMessageDialog(this,
+                    currentAlgorithm + " is designed for checking a single number.\n" +
+                            "Switching to Single Number Mode for this algorithm.",
+                    "Algorithm Notice", JOptionPane.INFORMATION_MESSAGE);
+            switchMode();
         }
     }
 
     void initializeMode1() {
+        showPrimeList(null);
+        if (isCountingAlgorithm()) {
+            initializeCounting();
+            return;
+        }
+
         try {
-            lowerBound = Math.max(2, Integer.parseInt(lowerBoundField.getText().trim()));
-            upperBound = Math.max(lowerBound, Integer.parseInt(upperBoundField.getText().trim()));
+            lowerBound = Math.min(MAX_RANGE_BOUND, Math.max(2, Long.parseLong(lowerBoundField.getText().trim())));
+            upperBound = Math.min(MAX_RANGE_BOUND, Math.max(lowerBound, Long.parseLong(upperBoundField.getText().trim())));
+            // Only the compute-only engines go past the grid limit, up to MAX_RANGE_WIDTH
+            long maxWidth = isComputeOnlyAlgorithm() ? MAX_RANGE_WIDTH : MAX_GRID_NUMBERS;
+            upperBound = Math.min(upperBound, lowerBound + maxWidth - 1);
 
             // Update fields with validated values
             lowerBoundField.setText(String.valueOf(lowerBound));
@@ -533,22 +897,31 @@ public class PrimeNumberVisualizer extends JFrame {
             upperBoundField.setText("50");
         }
 
-        int size = upperBound - lowerBound + 1;
-        numbers = new int[size];
-        isPrime = new boolean[size];
-        isMarked = new boolean[size];
-        foundPrimes = new ArrayList<>();
-
-        for (int i = 0; i < size; i++) {
-            numbers[i] = lowerBound + i;
-            isPrime[i] = true;
-            isMarked[i] = false;
+        long size = upperBound - lowerBound + 1;
+        foundPrimes = new PrimeList(lowerBound, 16);
+
+        // The segmented sieves work window by window, so ranges past the heatmap limit get no grid
+        if (isComputeOnlyAlgorithm() && size > MAX_GRID_NUMBERS) {
+            sieveStorage = null;
+            resetAnimationVariables();
+            updateStepsArea("PRIME NUMBER RANGE ANALYSIS\n\n" +
+                    "Ready to analyze numbers from " + lowerBound + " to " + upperBound + "\n" +
+                    "Algorithm: " + currentAlgorithm + "\n\n" +
+                    "The range is too large to draw, only the results will be shown.");
+            return;
         }
 
-        // 1 is not prime, and if our range includes it
-        if (lowerBound == 1) {
-            isPrime[0] = false;
+        // Numbers below 2 always read as composite from the storage
+        sieveStorage = new PrimeSieveStorage(lowerBound, upperBound);
+        plotImage = null;
+
+        // Start at full zoom and zoom out, down to a heatmap if need be, until the range fits
+        int fittingLevel = ZOOM_CELL_PIXELS.length - 1;
+        while (fittingLevel > 0 && GRID_START_Y + (long) gridRows(fittingLevel) *
+                (ZOOM_CELL_PIXELS[fittingLevel] + (ZOOM_CELL_PIXELS[fittingLevel] < LABELED_CELL_MIN ? 0 : GRID_GAP)) > MAX_PANEL_HEIGHT) {
+            fittingLevel--;
         }
+        zoomSlider.setValue(fittingLevel);
 
         resetAnimationVariables();
         updateStepsArea("PRIME NUMBER RANGE ANALYSIS\n\n" +
@@ -557,33 +930,83 @@ public class PrimeNumberVisualizer extends JFrame {
                 "Click 'Start Analysis' to begin the visualization!");
     }
 
+    // Counting only needs the two bounds, so they go up to PrimeCounter.MAX_X and no grid is allocated
+    void initializeCounting() {
+        try {
+            lowerBound = Math.max(2, Long.parseLong(lowerBoundField.getText().trim()));
+            upperBound = Math.min(PrimeCounter.MAX_X,
+                    Math.max(lowerBound, Long.parseLong(upperBoundField.getText().trim())));
+            lowerBound = Math.min(lowerBound, upperBound);
+        } catch (NumberFormatException e) {
+            lowerBound = 2;
+            upperBound = 50;
+        }
+        lowerBoundField.setText(String.valueOf(lowerBound));
+        upperBoundField.setText(String.valueOf(upperBound));
+
+        foundPrimes = new PrimeList();
+        sieveStorage = null;
+        primeCount = 0;
+        countNanos = 0;
+        resetAnimationVariables();
+        updateStepsArea("PRIME COUNTING π(x)\n\n" +
+                "Ready to count primes from " + lowerBound + " to " + upperBound + "\n" +
+                "Algorithm: " + currentAlgorithm + "\n\n" +
+                "Bounds up to " + PrimeCounter.MAX_X + " are accepted.\n" +
+                "Only the count is computed, no prime is listed.");
+    }
+
     void initializeMode2() {
         try {
-            targetNumber = Math.max(2, Integer.parseInt(singleNumberField.getText().trim()));
-            singleNumberField.setText(String.valueOf(targetNumber));
+            if (currentAlgorithm.equals("Baillie-PSW (BigInteger)")) {
+                bigTarget = new BigInteger(singleNumberField.getText().trim()).max(BigInteger.TWO);
+                singleNumberField.setText(bigTarget.toString());
+            } else {
+                targetNumber = Math.max(2, Long.parseLong(singleNumberField.getText().trim()));
+                singleNumberField.setText(String.valueOf(targetNumber));
+            }
         } catch (NumberFormatException e) {
             targetNumber = 17;
+            bigTarget = BigInteger.valueOf(17);
             singleNumberField.setText("17");
         }
 
         currentDivisor = 2;
         isPrimeResult = true;
+        millerRabin = null;
+        witnessRound = 0;
+        witnessChain = null;
+        bailliePSW = null;
+        bpswStage = 0;
+        bpswFailed = false;
+        Arrays.fill(bpswStageNanos, 0);
+        bpswLog.setLength(0);
+        factorWorkStack.clear();
+        discoveredFactors.clear();
+        smallFactorsStripped = false;
+        rhoNanos = 0;
+        factorLog.setLength(0);
         resetAnimationVariables();
         updateStepsArea("SINGLE NUMBER PRIME CHECK\n\n" +
-                "Ready to check if " + targetNumber + " is prime\n" +
+                "Ready to check if " + targetText() + " is prime\n" +
                 "Algorithm: " + currentAlgorithm + "\n\n" +
                 "Enter a number in the field above and click 'Start Analysis' to begin!");
     }
 
     void resetAnimationVariables() {
+        counters.reset();
         currentNumber = lowerBound;
         currentMultiple = currentNumber * 2;
         animationStep = 0;
+        sieveBasePrimes = null;
+        basePrimeIndex = 0;
         sieveCurrentPrime = 2;
         sieveStep = 0;
         highlightedIndex = -1;
         markingIndex = -1;
         isAnimating = false;
+        engineWorker = null; // a sieve still running in the background is ignored when it ends
+        engineStatistics = null;
 
         if (animationTimer.isRunning()) {
             animationTimer.stop();
@@ -608,6 +1031,7 @@ public class PrimeNumberVisualizer extends JFrame {
         pauseButton.setBackground(new Color(255, 165, 0));
 
         startTime = System.currentTimeMillis();
+        turbo.reset();
 
         // FIX: Update timer delay when starting animation
         animationTimer.setDelay(getAnimationDelay());
@@ -616,10 +1040,11 @@ public class PrimeNumberVisualizer extends JFrame {
         if (isMode1) {
             statusLabel.setText("<html><center>Analyzing range<br>" + lowerBound + " to " + upperBound + "</center></html>");
         } else {
-            statusLabel.setText("<html><center>Checking number<br>" + targetNumber + "</center></html>");
+            statusLabel.setText("<html><center>Checking number<br>" + targetText() + "</center></html>");
         }
 
         resultsArea.setText("");
+        showPrimeList(null);
     }
 
     void resetVisualization() {
@@ -645,6 +1070,7 @@ public class PrimeNumberVisualizer extends JFrame {
         statusLabel.setText("<html><center>Ready!<br>Click Start</center></html>");
         performanceLabel.setText("<html><center>Execution Time: --<br>Numbers Checked: --<br>Primes Found: --<br>Progress: --<br>Algorithm: " + currentAlgorithm + "</center></html>");
         resultsArea.setText("");
+        showPrimeList(null);
 
         visualizationPanel.repaint();
     }
@@ -652,17 +1078,51 @@ public class PrimeNumberVisualizer extends JFrame {
     void performAnimationStep() {
         if (!isAnimating) return;
 
+        if (turboCheckBox.isSelected()) {
+            playTurboTick();
+        } else {
+            performAlgorithmStep();
+        }
+        visualizationPanel.repaint();
+    }
+
+    // Runs the steps of one turbo tick quietly, then the last one as usual. A run that
+    // finishes inside the tick reports its result regardless, see completeAnalysis. The
+    // tick ends early when a step hands work to a background engine.
+    void playTurboTick() {
+        long start = System.nanoTime();
+        int steps = turbo.steps();
+        int played = 1;
+        quiet = true;
+        while (played < steps && isAnimating && engineWorker == null) {
+            performAlgorithmStep();
+            played++;
+        }
+        quiet = false;
+        if (isAnimating && engineWorker == null) performAlgorithmStep();
+        turbo.tickDone(played, System.nanoTime() - start);
+    }
+
+    void performAlgorithmStep() {
         if (isMode1) {
             if (currentAlgorithm.equals("Iterative")) {
                 performIterativeRangeStep();
+            } else if (isComputeOnlyAlgorithm()) {
+                performSegmentedSieve();
+            } else if (isCountingAlgorithm()) {
+                performPrimeCounting();
             } else {
                 performSieveStep();
             }
+        } else if (currentAlgorithm.equals("Miller-Rabin (64-bit)")) {
+            performMillerRabinStep();
+        } else if (currentAlgorithm.equals("Baillie-PSW (BigInteger)")) {
+            performBailliePSWStep();
+        } else if (currentAlgorithm.equals("Pollard's Rho Factorization")) {
+            performPollardRhoStep();
         } else {
             performSingleNumberStep();
         }
-
-        visualizationPanel.repaint();
     }
 
     void performIterativeRangeStep() {
@@ -671,28 +1131,33 @@ public class PrimeNumberVisualizer extends JFrame {
             return;
         }
 
-        int index = currentNumber - lowerBound;
+        int index = (int) (currentNumber - lowerBound);
         highlightedIndex = index;
 
         if (currentNumber < 2) {
-            isPrime[index] = false;
+            markComposite(index);
+            counters.recordComposite();
             updateStepsArea("CHECKING NUMBER: " + currentNumber + "\n\n" +
                     "Numbers less than 2 are not prime by definition.\n" +
                     currentNumber + " is NOT PRIME.\n\n" +
                     "Moving to next number...");
         } else {
             boolean isPrimeNumber = checkIfPrime(currentNumber);
-            isPrime[index] = isPrimeNumber;
-
             if (isPrimeNumber) {
                 foundPrimes.add(currentNumber);
+                counters.recordPrime();
                 updateStepsArea("PRIME FOUND: " + currentNumber + "\n\n" +
-                        "Checked all divisors from 2 to √" + currentNumber + "\n" +
-                        "No divisors found - " + currentNumber + " is PRIME!\n\n" +
+                        (currentNumber > Integer.MAX_VALUE
+                                ? "Passed all " + MillerRabin64.WITNESSES.length + " Miller-Rabin witnesses (too large for trial division)\n"
+                                : "Checked all divisors from 2 to √" + currentNumber + "\n" +
+                                "No divisors found - ") + currentNumber + " is PRIME!\n\n" +
                         "Total primes found so far: " + foundPrimes.size());
             } else {
+                markComposite(index);
+                counters.recordComposite();
                 updateStepsArea("COMPOSITE NUMBER: " + currentNumber + "\n\n" +
-                        "Found a divisor - " + currentNumber + " is NOT PRIME.\n\n" +
+                        (currentNumber > Integer.MAX_VALUE ? "A Miller-Rabin witness failed" : "Found a divisor") +
+                        " - " + currentNumber + " is NOT PRIME.\n\n" +
                         "Moving to next number...");
             }
         }
@@ -700,9 +1165,9 @@ public class PrimeNumberVisualizer extends JFrame {
         currentNumber++;
 
         // Update performance metrics
-        int checked = currentNumber - lowerBound;
-        int progress = (checked * 100) / (upperBound - lowerBound + 1);
-        performanceLabel.setText("<html><center>Time: " +
+        long checked = counters.numbersChecked;
+        long progress = (checked * 100) / (upperBound - lowerBound + 1);
+        if (!quiet) performanceLabel.setText("<html><center>Time: " +
                 (System.currentTimeMillis() - startTime) + "ms<br>" +
                 "Numbers Checked: " + checked + "/" + (upperBound - lowerBound + 1) + "<br>" +
                 "Primes Found: " + foundPrimes.size() + "<br>" +
@@ -711,15 +1176,32 @@ public class PrimeNumberVisualizer extends JFrame {
                 "🎯 Current: " + (currentNumber - 1) + "</center></html>");
     }
 
+    // Marks a number composite for the animated runs and queues it for the range plot,
+    // which repaints just its cell instead of the whole image
+    boolean markComposite(int index) {
+        if (!sieveStorage.markComposite(index)) return false;
+        if (plotImage != null) {
+            if (plotChangeCount == MAX_PLOT_CHANGES) {
+                plotImage = null;
+            } else {
+                if (plotChangeCount == plotChanges.length) plotChanges = Arrays.copyOf(plotChanges, plotChangeCount * 2);
+                plotChanges[plotChangeCount++] = index;
+            }
+        }
+        return true;
+    }
+
     void performSieveStep() {
-        if (sieveCurrentPrime * sieveCurrentPrime > upperBound) {
+        if (sieveBasePrimes == null) {
+            findSieveBasePrimes();
+            return;
+        }
+        if (sieveStep == 0 && basePrimeIndex == sieveBasePrimes.length) {
             // Mark remaining unmarked numbers as prime
-            for (int i = 0; i < numbers.length; i++) {
-                if (!isMarked[i] && numbers[i] >= 2) {
-                    isPrime[i] = true;
-                    if (!foundPrimes.contains(numbers[i])) {
-                        foundPrimes.add(numbers[i]);
-                    }
+            for (int i = 0; i < sieveStorage.size(); i++) {
+                if (sieveStorage.isPrime(i)) {
+                    // Primes found while sieving are skipped by add()
+                    if (foundPrimes.add(sieveStorage.numberAt(i))) counters.recordPrime();
                 }
             }
             completeAnalysis();
@@ -727,71 +1209,293 @@ public class PrimeNumberVisualizer extends JFrame {
         }
 
         if (sieveStep == 0) {
-            // Find next prime
-            int index = sieveCurrentPrime - lowerBound;
-            if (index >= 0 && index < numbers.length && !isMarked[index]) {
-                highlightedIndex = index;
-                isPrime[index] = true;
-                if (!foundPrimes.contains(sieveCurrentPrime)) {
-                    foundPrimes.add(sieveCurrentPrime);
-                }
-
-                updateStepsArea("SIEVE STEP: Found Prime " + sieveCurrentPrime + "\n\n" +
-                        "Now marking all multiples of " + sieveCurrentPrime + " as composite.\n" +
-                        "Starting from " + sieveCurrentPrime + "² = " + (sieveCurrentPrime * sieveCurrentPrime) + "\n\n" +
-                        "Multiples to mark: ");
-
-                currentMultiple = sieveCurrentPrime * sieveCurrentPrime;
-                sieveStep = 1;
-            } else {
-                sieveCurrentPrime++;
+            // Take the next base prime
+            sieveCurrentPrime = sieveBasePrimes[basePrimeIndex];
+            long p = sieveCurrentPrime;
+            if (p >= lowerBound && p <= upperBound) {
+                highlightedIndex = sieveStorage.indexOf(p);
+                if (foundPrimes.add(p)) counters.recordPrime();
             }
+
+            // Multiples below p² have a smaller factor, and the ones below lowerBound are not stored
+            long firstInRange = (lowerBound + p - 1) / p * p;
+            currentMultiple = Math.max(p * p, firstInRange);
+            updateStepsArea("SIEVE STEP: Base Prime " + p + "\n\n" +
+                    "Now marking all multiples of " + p + " as composite.\n" +
+                    "Starting from " + currentMultiple +
+                    (currentMultiple == p * p ? " = " + p + "²" : ", the first multiple in the range") + "\n\n" +
+                    "Multiples to mark: ");
+            sieveStep = 1;
         } else {
             // Mark multiples
             if (currentMultiple <= upperBound) {
-                int index = currentMultiple - lowerBound;
-                if (index >= 0 && index < numbers.length) {
-                    isMarked[index] = true;
-                    isPrime[index] = false;
-                    markingIndex = index;
-
-                    updateStepsArea("MARKING COMPOSITE: " + currentMultiple + "\n\n" +
-                            "Marking " + currentMultiple + " as composite (multiple of " + sieveCurrentPrime + ")\n" +
-                            "Next multiple: " + (currentMultiple + sieveCurrentPrime) + "\n\n" +
-                            "Primes found so far: " + foundPrimes.size());
-                }
+                int index = sieveStorage.indexOf(currentMultiple);
+                if (markComposite(index)) counters.recordComposite();
+                markingIndex = index;
+
+                updateStepsArea("MARKING COMPOSITE: " + currentMultiple + "\n\n" +
+                        "Marking " + currentMultiple + " as composite (multiple of " + sieveCurrentPrime + ")\n" +
+                        "Next multiple: " + (currentMultiple + sieveCurrentPrime) + "\n\n" +
+                        "Primes found so far: " + foundPrimes.size());
                 currentMultiple += sieveCurrentPrime;
             } else {
                 // Move to next prime
-                sieveCurrentPrime++;
+                basePrimeIndex++;
                 sieveStep = 0;
                 markingIndex = -1;
             }
         }
 
         // Update performance metrics
-        int totalProcessed = 0;
-        for (boolean marked : isMarked) {
-            if (marked) totalProcessed++;
-        }
-        totalProcessed += foundPrimes.size();
-
-        performanceLabel.setText("<html><center>Time: " +
+        if (!quiet) performanceLabel.setText("<html><center>Time: " +
                 (System.currentTimeMillis() - startTime) + "ms<br>" +
-                "Numbers Checked: " + totalProcessed + "<br>" +
+                "Numbers Checked: " + (counters.compositesMarked + counters.primesFound) + "<br>" +
                 "Primes Found: " + foundPrimes.size() + "<br>" +
                 "Progress: Current Prime: " + sieveCurrentPrime + "<br>" +
                 "Algorithm: " + currentAlgorithm + "<br>" +
-                "🎯 Marking: " + (markingIndex >= 0 ? numbers[markingIndex] : "--") + "</center></html>");
+                "🎯 Marking: " + (markingIndex >= 0 ? sieveStorage.numberAt(markingIndex) : "--") + "</center></html>");
+    }
+
+    // The primes that cross off the range are the ones up to √upperBound, wherever the range
+    // starts. Near MAX_RANGE_BOUND that is a sieve up to 10^8, so it runs on a worker thread
+    // with the timer stopped; done() hands them to the animation and starts the timer again.
+    void findSieveBasePrimes() {
+        if (engineWorker != null) return;
+        animationTimer.stop();
+        pauseButton.setEnabled(false);
+        statusLabel.setText("<html><center>Finding the base primes<br>up to √" + upperBound + "</center></html>");
+
+        long high = upperBound;
+        SwingWorker<int[], Void> worker = new SwingWorker<int[], Void>() {
+            @Override
+            protected int[] doInBackground() {
+                int[] odd = SegmentedSieve.basePrimesUpTo(SegmentedSieve.isqrt(high));
+                int[] primes = new int[odd.length + 1];
+                primes[0] = 2;
+                System.arraycopy(odd, 0, primes, 1, odd.length);
+                return primes;
+            }
+
+            @Override
+            protected void done() {
+                if (engineWorker != this) return; // reset while sieving
+                engineWorker = null;
+                try {
+                    sieveBasePrimes = get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    engineFailed("Finding the base primes", e.getCause());
+                    return;
+                }
+                pauseButton.setEnabled(true);
+                statusLabel.setText("<html><center>Analyzing range<br>" + lowerBound + " to " + upperBound + "</center></html>");
+                if (!isPaused) animationTimer.start();
+            }
+        };
+        engineWorker = worker;
+        worker.execute();
+    }
+
+    // Sieves the whole range on a worker thread, there is nothing to animate per window.
+    // The timer is stopped meanwhile; done() hands the primes to the list and the grid.
+    void performSegmentedSieve() {
+        if (engineWorker != null) return;
+        animationTimer.stop();
+        pauseButton.setEnabled(false);
+        statusLabel.setText("<html><center>Sieving in the background<br>" + lowerBound + " to " + upperBound + "</center></html>");
+
+        String algorithm = currentAlgorithm;
+        long low = lowerBound;
+        long high = upperBound;
+        // Only the plain segmented sieve answers from the disk cache, and not while it grows
+        boolean useCache = algorithm.equals("Segmented Sieve") && high < PrimeBitmapCache.MAX_LIMIT && !cacheGrowing;
+        boolean grow = diskCacheCheckBox.isSelected();
+        SwingWorker<String, Void> worker = new SwingWorker<String, Void>() {
+            final PrimeList primes = new PrimeList(low, 16);
+            PrimeStatistics statistics = new PrimeStatistics();
+            PrimeBitmapCache uncovered; // to be grown once the run is over
+
+            @Override
+            protected String doInBackground() {
+                if (useCache) {
+                    try {
+                        PrimeBitmapCache cache = grow ? PrimeBitmapCache.shared() : PrimeBitmapCache.sharedIfExists();
+                        if (cache != null && cache.covers(high)) return readFromDiskCache(cache, low, high, primes, statistics);
+                        if (grow) uncovered = cache;
+                    } catch (IOException | RuntimeException e) {
+                        // An unusable cache file should never stop the analysis, just sieve instead
+                        primes.clear();
+                        statistics = new PrimeStatistics();
+                    }
+                }
+                return sieveRange(algorithm, low, high, primes, statistics);
+            }
+
+            @Override
+            protected void done() {
+                if (engineWorker != this) return; // reset while sieving
+                engineWorker = null;
+                String engineDetails;
+                try {
+                    engineDetails = get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    engineFailed("Sieving", e.getCause());
+                    return;
+                }
+                if (uncovered != null && !cacheGrowing) growDiskCache(uncovered, high);
+
+                foundPrimes = primes;
+                engineStatistics = statistics;
+                if (sieveStorage != null) {
+                    sieveStorage.markAllComposite();
+                    for (int i = 0; i < foundPrimes.size(); i++) {
+                        sieveStorage.clearComposite(sieveStorage.indexOf(foundPrimes.get(i)));
+                    }
+                    plotImage = null;
+                }
+
+                updateStepsArea(algorithm.toUpperCase() + "\n\n" +
+                        engineDetails +
+                        "Primes found: " + foundPrimes.size());
+                completeAnalysis();
+            }
+        };
+        engineWorker = worker;
+        worker.execute();
+    }
+
+    // Counts the range on a worker thread: pi(upper) - pi(lower - 1), or a sieve for narrow
+    // ranges. Lucy_Hedgehog up to PrimeCounter.MAX_X takes seconds, so the EDT only waits
+    void performPrimeCounting() {
+        if (engineWorker != null) return;
+        animationTimer.stop();
+        pauseButton.setEnabled(false);
+        statusLabel.setText("<html><center>Counting in the background<br>" + lowerBound + " to " + upperBound + "</center></html>");
+
+        long low = lowerBound;
+        long high = upperBound;
+        SwingWorker<Long, Void> worker = new SwingWorker<Long, Void>() {
+            long nanos;
+
+            @Override
+            protected Long doInBackground() {
+                long start = System.nanoTime();
+                long count = PrimeCounter.countInRange(low, high);
+                nanos = System.nanoTime() - start;
+                return count;
+            }
+
+            @Override
+            protected void done() {
+                if (engineWorker != this) return; // reset while counting
+                engineWorker = null;
+                try {
+                    primeCount = get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    engineFailed("Counting", e.getCause());
+                    return;
+                }
+                countedBySieve = PrimeCounter.usesSieve(low, high);
+                countNanos = nanos;
+                counters.primesFound = primeCount;
+                completeAnalysis();
+            }
+        };
+        engineWorker = worker;
+        worker.execute();
+    }
+
+    // A background run of the range threw (most likely ran out of memory): report it and start over
+    void engineFailed(String what, Throwable cause) {
+        JOptionPane.showMessageDialog(this, what + " failed: " + cause,
+                "Analysis Error", JOptionPane.ERROR_MESSAGE);
+        resetVisualization();
+    }
+
+    // Sieves [low, high] with the named engine into 'primes' and 'statistics', and returns the
+    // details for the steps area. Touches no frame state, it runs on the engine worker.
+    // The parallel sieve merges the statistics of its chunks, the others stream every prime
+    // through a single accumulator.
+    static String sieveRange(String algorithm, long low, long high, PrimeList primes, PrimeStatistics statistics) {
+        LongConsumer collect = p -> {
+            primes.add(p);
+            statistics.accept(p);
+        };
+        String engineDetails;
+        if (algorithm.equals("Parallel Segmented Sieve")) {
+            ParallelSegmentedSieve sieve = new ParallelSegmentedSieve(low, high);
+            sieve.findPrimes(primes, statistics);
+            engineDetails = "Base primes up to √" + high + ": " + (sieve.basePrimes.length + 1) + "\n" +
+                    "Worker threads: " + sieve.parallelism + "\n" +
+                    "Chunks: " + sieve.chunkCount() + "\n\n";
+        } else if (algorithm.equals("Wheel Sieve (mod 30)")) {
+            WheelSieve sieve = new WheelSieve(low, high);
+            sieve.forEachPrime(collect);
+            engineDetails = "Wheel: mod 30, multiples of 2, 3 and 5 are never stored\n" +
+                    "Layout: 8 residues per byte (30 numbers per byte)\n" +
+                    "Base primes up to √" + high + ": " + (sieve.basePrimes.length + 3) + "\n" +
+                    "Window size: " + (30L * WheelSieve.SEGMENT_BYTES) + " numbers\n\n";
+        } else if (algorithm.equals("Sieve of Atkin")) {
+            AtkinSieve sieve = new AtkinSieve(low, high);
+            sieve.forEachPrime(collect);
+            engineDetails = "Quadratic forms 4x² + y², 3x² + y², 3x² - y² flip candidates\n" +
+                    "Squares of " + sieve.basePrimes.length + " base primes cleared afterwards\n" +
+                    "Window size: " + (128L * AtkinSieve.SEGMENT_WORDS) + " numbers, 1 bit per odd number\n\n";
+        } else {
+            SegmentedSieve sieve = new SegmentedSieve(low, high);
+            sieve.forEachPrime(collect);
+            engineDetails = "Base primes up to √" + high + ": " + (sieve.basePrimes.length + 1) + "\n" +
+                    "Window size: " + (2 * sieve.segmentSize) + " numbers\n\n";
+        }
+        return engineDetails;
+    }
+
+    // Fills 'primes' from the on-disk bitmap, which already covers [0, high], and returns
+    // the details for the steps area. Runs on the engine worker like sieveRange
+    static String readFromDiskCache(PrimeBitmapCache cache, long low, long high, PrimeList primes, PrimeStatistics statistics) {
+        cache.forEachPrime(low, high, p -> {
+            primes.add(p);
+            statistics.accept(p);
+        });
+        return "Disk cache: " + cache.file + "\n" +
+                "Cached numbers: 0 to " + (cache.limit() - 1) + "\n" +
+                "Range already cached - answered by lookup, no sieving\n\n";
+    }
+
+    // Extends the cache to upTo on a worker thread; until it is done the cache is not read
+    void growDiskCache(PrimeBitmapCache cache, long upTo) {
+        cacheGrowing = true;
+        new SwingWorker<Long, Void>() {
+            @Override
+            protected Long doInBackground() throws IOException {
+                return cache.ensureCovers(upTo);
+            }
+
+            @Override
+            protected void done() {
+                // A failed extension leaves the cache as it was, the next run sieves again
+                cacheGrowing = false;
+            }
+        }.execute();
     }
 
     void performSingleNumberStep() {
-        if (currentDivisor * currentDivisor > targetNumber) {
+        if (currentDivisor > targetNumber / currentDivisor) {
             // Completed check - number is prime
             completeAnalysis();
             return;
         }
 
+        counters.recordCheck();
+
         if (targetNumber % currentDivisor == 0) {
             // Found a divisor - not prime
             isPrimeResult = false;
@@ -816,29 +1520,547 @@ public class PrimeNumberVisualizer extends JFrame {
         currentDivisor++;
 
         // Update performance
-        int maxDivisor = (int) Math.sqrt(targetNumber) + 1;
-        int progress = Math.min(100, (currentDivisor - 2) * 100 / (maxDivisor - 2));
-        performanceLabel.setText("<html><center>Time: " +
+        long maxDivisor = (long) Math.sqrt(targetNumber) + 1;
+        int progress = (int) Math.min(100, (currentDivisor - 2) * 100 / Math.max(1, maxDivisor - 2));
+        if (!quiet) performanceLabel.setText("<html><center>Time: " +
                 (System.currentTimeMillis() - startTime) + "ms<br>" +
-                "Numbers Checked: Divisors Checked: " + (currentDivisor - 2) + "<br>" +
+                "Numbers Checked: Divisors Checked: " + counters.numbersChecked + "<br>" +
                 "Primes Found: 🎯 Testing: " + targetNumber + "<br>" +
                 "Progress: " + progress + "%<br>" +
                 "Algorithm: " + currentAlgorithm + "<br>" +
                 "🎯 Current Divisor: " + (currentDivisor - 1) + "</center></html>");
     }
 
-    boolean checkIfPrime(int number) {
+    // One tick per witness round; the first tick handles tiny factors and splits n - 1
+    void performMillerRabinStep() {
+        if (millerRabin == null) {
+            for (int p : MillerRabin64.SMALL_PRIMES) {
+                counters.recordCheck();
+                if (targetNumber % p == 0) {
+                    isPrimeResult = targetNumber == p;
+                    currentDivisor = p;
+                    completeAnalysis();
+                    return;
+                }
+            }
+            if (targetNumber < 41 * 41) {
+                // No factor up to 37 and below 41² means prime, no rounds needed
+                isPrimeResult = true;
+                completeAnalysis();
+                return;
+            }
+
+            millerRabin = new MillerRabin64(targetNumber);
+            updateStepsArea("MILLER-RABIN SETUP\n\n" +
+                    "No factor up to 37, so " + targetNumber + " goes to the witness rounds.\n\n" +
+                    "Write n - 1 = d × 2^s with d odd:\n" +
+                    (targetNumber - 1) + " = " + millerRabin.d + " × 2^" + millerRabin.s + "\n\n" +
+                    "For each witness a, n passes if a^d ≡ 1 or\n" +
+                    "a^(d·2^r) ≡ n - 1 (mod n) for some r < s.\n\n" +
+                    "Witnesses (enough for every 64-bit n):\n" +
+                    Arrays.toString(MillerRabin64.WITNESSES));
+            return;
+        }
+
+        if (witnessRound >= MillerRabin64.WITNESSES.length) {
+            isPrimeResult = true;
+            completeAnalysis();
+            return;
+        }
+
+        long witness = MillerRabin64.WITNESSES[witnessRound++];
+        counters.recordCheck();
+        witnessChain = millerRabin.witnessChain(witness);
+        boolean passed = millerRabin.passesRound(witness);
+
+        StringBuilder chainText = new StringBuilder();
+        if (witnessChain.length == 0) {
+            chainText.append("a ≡ 0 (mod n), this witness says nothing and is skipped.\n");
+        }
+        for (int r = 0; r < witnessChain.length; r++) {
+            chainText.append("a^(d·2^").append(r).append(") mod n = ").append(witnessChain[r]);
+            if (witnessChain[r] == targetNumber - 1) chainText.append("  (= n - 1)");
+            chainText.append("\n");
+        }
+
+        updateStepsArea("WITNESS ROUND " + witnessRound + "/" + MillerRabin64.WITNESSES.length + ": a = " + witness + "\n\n" +
+                chainText +
+                "\n" + (passed ?
+                        "Round passed - " + targetNumber + " is a strong probable prime to base " + witness + "." :
+                        "Round failed - " + witness + " is a witness that " + targetNumber + " is COMPOSITE."));
+
+        if (!quiet) performanceLabel.setText("<html><center>Time: " +
+                (System.currentTimeMillis() - startTime) + "ms<br>" +
+                "Numbers Checked: Rounds: " + witnessRound + "/" + MillerRabin64.WITNESSES.length + "<br>" +
+                "Primes Found: 🎯 Testing: " + targetNumber + "<br>" +
+                "Progress: " + (witnessRound * 100 / MillerRabin64.WITNESSES.length) + "%<br>" +
+                "Algorithm: " + currentAlgorithm + "<br>" +
+                "🎯 Current Witness: " + witness + "</center></html>");
+
+        if (!passed) {
+            isPrimeResult = false;
+            completeAnalysis();
+        }
+    }
+
+    void completeMillerRabin() {
+        String result = isPrimeResult ? "PRIME" : "NOT PRIME";
+        String emoji = isPrimeResult ? "✅" : "❌";
+
+        // Time the test on its own, without the animation
+        long engineStart = System.nanoTime();
+        MillerRabin64.isPrime(targetNumber);
+        engineNanos = System.nanoTime() - engineStart;
+
+        String reason;
+        if (millerRabin == null) {
+            reason = isPrimeResult ?
+                    targetNumber + " has no factor up to 37 and is below 41², so it is PRIME!" :
+                    "Found small factor " + currentDivisor + ", so " + targetNumber + " is NOT PRIME.";
+        } else {
+            reason = isPrimeResult ?
+                    "All " + MillerRabin64.WITNESSES.length + " witnesses passed. They leave no strong\n" +
+                            "pseudoprime below 2^64, so " + targetNumber + " is PRIME!" :
+                    "Witness " + MillerRabin64.WITNESSES[witnessRound - 1] + " proves " + targetNumber + " is NOT PRIME.";
+        }
+
+        resultsArea.setText("PRIME CHECK RESULT:\n\n" +
+                "Number tested: " + targetNumber + "\n" +
+                "Result: " + targetNumber + " is " + result + " " + emoji + "\n\n" +
+                "📊 ANALYSIS DETAILS:\n" +
+                "• Algorithm: " + currentAlgorithm + "\n" +
+                "• Witness rounds: " + witnessRound + "\n" +
+                "• Engine time: " + String.format("%.1f", engineNanos / 1000.0) + "µs\n" +
+                "• Animation time: " + (endTime - startTime) + "ms\n\n" +
+                reason);
+
+        statusLabel.setText("<html><center>" + result + "!<br>Check completed</center></html>");
+
+        updateStepsArea("PRIME CHECK COMPLETED!\n\n" +
+                "Number: " + targetNumber + "\n" +
+                "Result: " + result + " " + emoji + "\n\n" +
+                "EXPLANATION:\n" + reason + "\n\n" +
+                "• Time Complexity: O(k log³ n) for k witnesses\n" +
+                "• Deterministic for every 64-bit number");
+    }
+
+    // One tick per Baillie-PSW stage, each stage timed on its own
+    void performBailliePSWStep() {
+        if (bailliePSW == null) bailliePSW = new BailliePSW(bigTarget);
+        counters.recordCheck();
+
+        long stageStart = System.nanoTime();
+        String stageResult;
+        boolean done = false;
+        switch (bpswStage) {
+            case 0: {
+                int factor = bailliePSW.trialDivision();
+                if (factor != 0) {
+                    isPrimeResult = bigTarget.equals(BigInteger.valueOf(factor));
+                    bpswFailed = !isPrimeResult;
+                    stageResult = isPrimeResult ? "n is the small prime " + factor : "divisible by " + factor + " - COMPOSITE";
+                    done = true;
+                } else if (bigTarget.compareTo(BigInteger.valueOf((long) BailliePSW.TRIAL_LIMIT * BailliePSW.TRIAL_LIMIT)) < 0) {
+                    isPrimeResult = true;
+                    stageResult = "no factor below 1000 and n < 1000², so n is PRIME";
+                    done = true;
+                } else {
+                    stageResult = "no factor below " + BailliePSW.TRIAL_LIMIT + " - passed";
+                }
+                break;
+            }
+            case 1: {
+                boolean passed = bailliePSW.strongProbablePrimeBase2();
+                stageResult = passed ? "strong probable prime to base 2 - passed" : "2 is a witness - COMPOSITE";
+                if (!passed) {
+                    isPrimeResult = false;
+                    bpswFailed = true;
+                    done = true;
+                }
+                break;
+            }
+            default: {
+                boolean passed = bailliePSW.strongLucasProbablePrime();
+                stageResult = passed ?
+                        "strong Lucas probable prime (D = " + bailliePSW.lucasD + ", Q = " + bailliePSW.lucasQ + ") - passed" :
+                        "fails the strong Lucas test - COMPOSITE";
+                isPrimeResult = passed;
+                bpswFailed = !passed;
+                done = true;
+                break;
+            }
+        }
+        bpswStageNanos[bpswStage] = System.nanoTime() - stageStart;
+
+        bpswLog.append("STAGE ").append(bpswStage + 1).append(": ").append(BPSW_STAGES[bpswStage]).append("\n")
+                .append("  ").append(stageResult).append("\n")
+                .append("  time: ").append(String.format("%.3f", bpswStageNanos[bpswStage] / 1e6)).append("ms\n\n");
+        updateStepsArea("BAILLIE-PSW TEST (" + bigTarget.bitLength() + " bits)\n\n" + bpswLog);
+
+        bpswStage++;
+        if (!quiet) performanceLabel.setText("<html><center>Time: " +
+                (System.currentTimeMillis() - startTime) + "ms<br>" +
+                "Numbers Checked: Stages: " + bpswStage + "/" + BPSW_STAGES.length + "<br>" +
+                "Primes Found: 🎯 Testing: " + bigTarget.bitLength() + "-bit number<br>" +
+                "Progress: " + (bpswStage * 100 / BPSW_STAGES.length) + "%<br>" +
+                "Algorithm: " + currentAlgorithm + "<br>" +
+                "🎯 Last Stage: " + BPSW_STAGES[bpswStage - 1] + "</center></html>");
+
+        if (done) completeAnalysis();
+    }
+
+    void completeBailliePSW() {
+        String result = isPrimeResult ? "PROBABLE PRIME" : "NOT PRIME";
+        String emoji = isPrimeResult ? "✅" : "❌";
+
+        long engineTotal = 0;
+        StringBuilder stageTimes = new StringBuilder();
+        for (int i = 0; i < bpswStage; i++) {
+            engineTotal += bpswStageNanos[i];
+            stageTimes.append("• ").append(BPSW_STAGES[i]).append(": ")
+                    .append(String.format("%.3f", bpswStageNanos[i] / 1e6)).append("ms\n");
+        }
+
+        resultsArea.setText("PRIME CHECK RESULT:\n\n" +
+                "Number tested: " + targetText() + "\n" +
+                "Size: " + bigTarget.bitLength() + " bits, " + bigTarget.toString().length() + " digits\n" +
+                "Result: " + result + " " + emoji + "\n\n" +
+                "📊 STAGE TIMES:\n" + stageTimes +
+                "• Total engine time: " + String.format("%.3f", engineTotal / 1e6) + "ms\n\n" +
+                (isPrimeResult && bpswStage == BPSW_STAGES.length ?
+                        "No composite is known to pass both the base-2 and the strong Lucas test." : ""));
+
+        statusLabel.setText("<html><center>" + result + "!<br>Check completed</center></html>");
+
+        updateStepsArea("BAILLIE-PSW TEST COMPLETED!\n\n" + bpswLog +
+                "Result: " + result + " " + emoji + "\n\n" +
+                "• Time Complexity: O(log³ n) per stage\n" +
+                "• Works for numbers of any size");
+    }
+
+    // First tick strips the small primes; then every tick either proves a cofactor
+    // prime with Miller-Rabin or splits it in two with Pollard's rho
+    void performPollardRhoStep() {
+        if (!smallFactorsStripped) {
+            long rest = targetNumber;
+            for (int p : MillerRabin64.SMALL_PRIMES) {
+                while (rest % p == 0) {
+                    rest /= p;
+                    discoveredFactors.add((long) p);
+                    factorLog.append("Small factor: ").append(p).append("\n");
+                }
+            }
+            if (rest > 1) factorWorkStack.push(rest);
+            smallFactorsStripped = true;
+            factorLog.append("Trial division by primes ≤ 37 done, cofactor: ").append(rest).append("\n\n");
+        } else if (factorWorkStack.isEmpty()) {
+            isPrimeResult = discoveredFactors.size() == 1;
+            completeAnalysis();
+            return;
+        } else {
+            long value = factorWorkStack.pop();
+            counters.recordCheck();
+            if (MillerRabin64.isPrime(value)) {
+                discoveredFactors.add(value);
+                factorLog.append("PRIME FACTOR: ").append(value).append(" (Miller-Rabin)\n");
+            } else {
+                long start = System.nanoTime();
+                long divisor = PollardRho.findDivisor(value);
+                long elapsed = System.nanoTime() - start;
+                rhoNanos += elapsed;
+                factorWorkStack.push(divisor);
+                factorWorkStack.push(value / divisor);
+                factorLog.append("Split ").append(value).append(" = ").append(divisor).append(" × ").append(value / divisor)
+                        .append(" (rho, ").append(String.format("%.3f", elapsed / 1e6)).append("ms)\n");
+            }
+        }
+
+        updateStepsArea("POLLARD'S RHO FACTORIZATION OF " + targetNumber + "\n\n" + factorLog +
+                (factorWorkStack.isEmpty() ? "" : "\nStill to split: " + factorWorkStack));
+
+        if (!quiet) performanceLabel.setText("<html><center>Time: " +
+                (System.currentTimeMillis() - startTime) + "ms<br>" +
+                "Numbers Checked: Cofactors: " + counters.numbersChecked + "<br>" +
+                "Primes Found: " + discoveredFactors.size() + " factors<br>" +
+                "Progress: " + factorWorkStack.size() + " left<br>" +
+                "Algorithm: " + currentAlgorithm + "<br>" +
+                "🎯 Rho time: " + String.format("%.3f", rhoNanos / 1e6) + "ms</center></html>");
+    }
+
+    void completePollardRho() {
+        long[] factors = new long[discoveredFactors.size()];
+        for (int i = 0; i < factors.length; i++) factors[i] = discoveredFactors.get(i);
+        Arrays.sort(factors);
+
+        // Headless run of the whole factorization, for comparison with the animation
+        long engineStart = System.nanoTime();
+        PollardRho.factor(targetNumber);
+        engineNanos = System.nanoTime() - engineStart;
+
+        String result = isPrimeResult ? "PRIME" : "COMPOSITE";
+        String emoji = isPrimeResult ? "✅" : "❌";
+        resultsArea.setText("FACTORIZATION RESULT:\n\n" +
+                "Number: " + targetNumber + "\n" +
+                "Factors: " + formatFactorization(factors) + "\n" +
+                "Result: " + targetNumber + " is " + result + " " + emoji + "\n\n" +
+                "📊 ANALYSIS DETAILS:\n" +
+                "• Algorithm: " + currentAlgorithm + "\n" +
+                "• Prime factors (with multiplicity): " + factors.length + "\n" +
+                "• Engine time: " + String.format("%.3f", engineNanos / 1e6) + "ms\n" +
+                "• Animation time: " + (endTime - startTime) + "ms");
+
+        statusLabel.setText("<html><center>" + result + "!<br>" + factors.length + " prime factors</center></html>");
+
+        updateStepsArea("FACTORIZATION COMPLETED!\n\n" + factorLog + "\n" +
+                targetNumber + " = " + formatFactorization(factors) + "\n\n" +
+                "• Brent's cycle detection with one gcd per " + PollardRho.BATCH + " steps\n" +
+                "• About √p steps to find a factor p");
+    }
+
+    // Sorted factors as "2³ × 7 × 11"
+    String formatFactorization(long[] factors) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < factors.length; ) {
+            int j = i;
+            while (j < factors.length && factors[j] == factors[i]) j++;
+            if (text.length() > 0) text.append(" × ");
+            text.append(factors[i]);
+            if (j - i > 1) text.append(SmallestFactorTable.superscript(j - i));
+            i = j;
+        }
+        return text.toString();
+    }
+
+    String targetText() {
+        if (!currentAlgorithm.equals("Baillie-PSW (BigInteger)")) return String.valueOf(targetNumber);
+        String digits = bigTarget.toString();
+        if (digits.length() <= 24) return digits;
+        return digits.substring(0, 10) + "…" + digits.substring(digits.length() - 10) + " (" + digits.length() + " digits)";
+    }
+
+    // Factorizes every number in the range from the smallest-prime-factor table. Building
+    // the table (up to 80 MB) and the pass over the range run on a worker thread; done()
+    // shows the factorizations and swaps in the grid with the composites marked.
+    void factorizeRange() {
+        if (isAnimating || factorizing) return;
+        if (!isMode1) {
+            JOptionPane.showMessageDialog(this, "Factorize Range works in Range Mode.",
+                    "Algorithm Notice", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        if (isCountingAlgorithm()) {
+            JOptionPane.showMessageDialog(this, "Prime Counting only computes the count, pick a sieve to factorize a range.",
+                    "Algorithm Notice", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        initializeMode1();
+        if (upperBound > SmallestFactorTable.MAX_LIMIT) {
+            JOptionPane.showMessageDialog(this,
+                    "The factor table goes up to " + SmallestFactorTable.MAX_LIMIT + ".\n" +
+                            "Please choose a smaller upper bound.",
+                    "Range Too Large", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        // Both bounds are at most MAX_LIMIT from here on
+        int low = (int) lowerBound;
+        int high = (int) upperBound;
+        SmallestFactorTable existing = factorTable;
+        boolean rebuilt = existing == null || existing.limit < high;
+        PrimeSieveStorage grid = sieveStorage; // replaced in done() unless a run started meanwhile
+        factorizing = true;
+        statusLabel.setText("<html><center>Factorizing...<br>" + (high - low + 1) + " numbers</center></html>");
+
+        new SwingWorker<String, Void>() {
+            SmallestFactorTable table;
+            PrimeSieveStorage factored;
+            int total;
+
+            @Override
+            protected String doInBackground() {
+                long buildStart = System.nanoTime();
+                table = rebuilt ? new SmallestFactorTable(high) : existing;
+                long buildNanos = System.nanoTime() - buildStart;
+
+                long queryStart = System.nanoTime();
+                factored = grid != null ? new PrimeSieveStorage(low, high) : null;
+                StringBuilder listing = new StringBuilder();
+                long totalFactors = 0;
+                int primeCount = 0;
+                int maxFactors = 0;
+                int maxFactorsNumber = low;
+                for (int n = low; n <= high; n++) {
+                    int factors = table.countFactors(n);
+                    totalFactors += factors;
+                    if (factors == 1) {
+                        primeCount++;
+                    } else if (factored != null) {
+                        factored.markComposite(n - low);
+                    }
+                    if (factors > maxFactors) {
+                        maxFactors = factors;
+                        maxFactorsNumber = n;
+                    }
+                    if (n - low < MAX_LISTED_FACTORIZATIONS) {
+                        listing.append(n).append(" = ").append(table.format(n)).append("\n");
+                    }
+                }
+                long queryNanos = System.nanoTime() - queryStart;
+
+                total = high - low + 1;
+                if (total > MAX_LISTED_FACTORIZATIONS) {
+                    listing.append("... (first ").append(MAX_LISTED_FACTORIZATIONS).append(" of ").append(total).append(" shown)\n");
+                }
+
+                return "FACTORIZATIONS:\n\n" + listing +
+                        "\nSUMMARY:\n" +
+                        "• Range: " + low + " to " + high + "\n" +
+                        "• Primes: " + primeCount + ", composites: " + (total - primeCount) + "\n" +
+                        "• Average prime factors: " + String.format("%.3f", (double) totalFactors / total) + "\n" +
+                        "• Most prime factors: " + maxFactorsNumber + " = " + table.format(maxFactorsNumber) + "\n" +
+                        "• Table build: " + (rebuilt ? String.format("%.1f", buildNanos / 1e6) + "ms" : "reused") + "\n" +
+                        "• Factorizing: " + String.format("%.1f", queryNanos / 1e6) + "ms";
+            }
+
+            @Override
+            protected void done() {
+                factorizing = false;
+                String report;
+                try {
+                    report = get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    JOptionPane.showMessageDialog(PrimeNumberVisualizer.this, "Factorization failed: " + e.getCause(),
+                            "Factorize Error", JOptionPane.ERROR_MESSAGE);
+                    statusLabel.setText("<html><center>Ready<br>Factorize failed</center></html>");
+                    return;
+                }
+                // Kept for the tooltip and the next Factorize Range even if the grid moved on
+                if (factorTable == null || factorTable.limit < table.limit) factorTable = table;
+                if (sieveStorage != grid || isAnimating) return;
+
+                sieveStorage = factored;
+                resultsArea.setText(report);
+                resultsArea.setCaretPosition(0);
+                updateStepsArea("LINEAR SIEVE FACTORIZATION\n\n" +
+                        "The Euler sieve stores the smallest prime factor of every n up to " + table.limit + ".\n" +
+                        "Each composite is written exactly once, so the table takes O(n) time.\n\n" +
+                        "To factor n: divide by spf[n] until 1 is left - no trial division.\n\n" +
+                        "Hover any cell in the grid to see its factorization.");
+                statusLabel.setText("<html><center>Factorized!<br>" + total + " numbers</center></html>");
+                plotImage = null;
+                visualizationPanel.repaint();
+            }
+        }.execute();
+    }
+
+    // Runs the headless sieves on the range from the input fields and reports measured numbers.
+    // The warm-up and the timed runs happen on a worker thread; the report is posted when done.
+    void compareEngines() {
+        if (isAnimating || comparing) return;
+        long low;
+        long high;
+        try {
+            // Same limits as a range run of the compute-only engines
+            low = Math.min(MAX_RANGE_BOUND, Math.max(2, Long.parseLong(lowerBoundField.getText().trim())));
+            long requested = Math.min(MAX_RANGE_BOUND, Math.max(low, Long.parseLong(upperBoundField.getText().trim())));
+            high = Math.min(requested, low + MAX_RANGE_WIDTH - 1);
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Please enter a valid range to compare the engines on.",
+                    "Invalid Range", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        lowerBoundField.setText(String.valueOf(low));
+        upperBoundField.setText(String.valueOf(high));
+
+        String[] names = {"Eratosthenes (segmented, odd only)", "Wheel sieve (mod 30)", "Sieve of Atkin"};
+        long[] nanos = new long[names.length];
+        int[] fastest = {0};
+        comparing = true;
+        statusLabel.setText("<html><center>Comparing...<br>" + names.length + " engines</center></html>");
+
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                SegmentedSieve eratosthenes = new SegmentedSieve(low, high);
+                WheelSieve wheel = new WheelSieve(low, high);
+                AtkinSieve atkin = new AtkinSieve(low, high);
+                PrimeSieveBenchmark.Engine[] engines = {eratosthenes::countPrimes, wheel::countPrimes, atkin::countPrimes};
+                long[] memory = {eratosthenes.memoryBytes(), wheel.memoryBytes(), atkin.memoryBytes()};
+
+                // A short run of each engine first, so the JIT has compiled them before anything is timed
+                new SegmentedSieve(2, 1_000_000).countPrimes();
+                new WheelSieve(2, 1_000_000).countPrimes();
+                new AtkinSieve(2, 1_000_000).countPrimes();
+
+                StringBuilder report = new StringBuilder("ENGINE COMPARISON:\n\n");
+                report.append("Range: ").append(low).append(" to ").append(high).append("\n\n");
+                long count = -1;
+                for (int i = 0; i < engines.length; i++) {
+                    long start = System.nanoTime();
+                    long result = engines[i].countPrimes();
+                    nanos[i] = Math.max(1, System.nanoTime() - start);
+                    if (count >= 0 && result != count) {
+                        report.append("⚠ ").append(names[i]).append(" found ").append(result).append(" primes, expected ").append(count).append("\n");
+                    }
+                    count = result;
+                    if (nanos[i] < nanos[fastest[0]]) fastest[0] = i;
+
+                    report.append("• ").append(names[i]).append("\n")
+                            .append("    Wall time: ").append(String.format("%.1f", nanos[i] / 1e6)).append("ms\n")
+                            .append("    Memory: ").append(memory[i]).append(" bytes\n")
+                            .append("    Throughput: ").append(String.format("%,.0f", result * 1e9 / nanos[i])).append(" primes/sec\n\n");
+                }
+                report.append("Primes in range: ").append(count).append("\n")
+                        .append("Fastest: ").append(names[fastest[0]]);
+                return report.toString();
+            }
+
+            @Override
+            protected void done() {
+                comparing = false;
+                String report;
+                try {
+                    report = get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    JOptionPane.showMessageDialog(PrimeNumberVisualizer.this, "Engine comparison failed: " + e.getCause().getMessage(),
+                            "Compare Error", JOptionPane.ERROR_MESSAGE);
+                    statusLabel.setText("<html><center>Ready<br>Compare failed</center></html>");
+                    return;
+                }
+                resultsArea.setText(report);
+                resultsArea.setCaretPosition(0);
+                updateStepsArea("ENGINE COMPARISON\n\n" +
+                        "Each engine counted the primes from " + low + " to " + high + "\n" +
+                        "once, after a warm-up run on [2, 10^6].\n\n" +
+                        "Memory is the working set: one window plus the base-prime table.\n\n" +
+                        "Fastest here: " + names[fastest[0]] + " (" + String.format("%.1f", nanos[fastest[0]] / 1e6) + "ms)");
+                statusLabel.setText("<html><center>Compared!<br>" + names.length + " engines</center></html>");
+            }
+        }.execute();
+    }
+
+    // Trial division up to √number for the int range; past it that is up to 5·10^7
+    // divisions per tick near MAX_RANGE_BOUND, so the Miller-Rabin engine answers instead
+    boolean checkIfPrime(long number) {
+        if (number > Integer.MAX_VALUE) return MillerRabin64.isPrime(number);
         if (number < 2) return false;
         if (number == 2) return true;
         if (number % 2 == 0) return false;
 
-        for (int i = 3; i * i <= number; i += 2) {
+        for (long i = 3; i <= number / i; i += 2) {
             if (number % i == 0) return false;
         }
         return true;
     }
 
     void completeAnalysis() {
+        quiet = false; // a turbo tick may finish the run, the result is always shown
         animationTimer.stop();
         isAnimating = false;
         isPaused = false;
@@ -850,22 +2072,27 @@ public class PrimeNumberVisualizer extends JFrame {
         pauseButton.setText("Pause");
         pauseButton.setBackground(new Color(255, 165, 0));
 
-        if (isMode1) {
-            Collections.sort(foundPrimes);
-            StringBuilder primesText = new StringBuilder();
-            for (int i = 0; i < foundPrimes.size(); i++) {
-                if (i > 0) primesText.append(", ");
-                primesText.append(foundPrimes.get(i));
-                if ((i + 1) % 10 == 0) primesText.append("\n");
-            }
-
-            resultsArea.setText("PRIME NUMBERS FOUND:\n\n" + primesText.toString() +
-                    "\n\nSUMMARY:\n" +
+        if (isMode1 && isCountingAlgorithm()) {
+            completePrimeCounting();
+        } else if (isMode1) {
+            // The primes go to the virtual list below, the text area only gets the summary
+            showPrimeList(foundPrimes);
+            long statisticsStart = System.nanoTime();
+            PrimeStatistics statistics = rangeStatistics();
+            long statisticsNanos = System.nanoTime() - statisticsStart;
+            String statisticsSource = engineStatistics != null ? "collected while sieving" :
+                    "one pass, " + String.format("%.1f", statisticsNanos / 1e6) + "ms";
+            resultsArea.setText("PRIME NUMBERS FOUND: " + foundPrimes.size() + " (listed below)\n\n" +
+                    "SUMMARY:\n" +
                     "• Range: " + lowerBound + " to " + upperBound + "\n" +
                     "• Total numbers: " + (upperBound - lowerBound + 1) + "\n" +
                     "• Prime numbers: " + foundPrimes.size() + "\n" +
+                    (sieveStorage != null ? "• Sieve storage: " + sieveStorage.memoryBytes() + " bytes\n" : "") +
                     "• Algorithm: " + currentAlgorithm + "\n" +
-                    "• Execution time: " + (endTime - startTime) + "ms");
+                    "• Execution time: " + (endTime - startTime) + "ms\n\n" +
+                    "STATISTICS (" + statisticsSource + "):\n" +
+                    statistics.format());
+            resultsArea.setCaretPosition(0);
 
             statusLabel.setText("<html><center>Complete!<br>" + foundPrimes.size() + " primes found</center></html>");
 
@@ -879,8 +2106,16 @@ public class PrimeNumberVisualizer extends JFrame {
                     "ALGORITHM EFFICIENCY:\n" +
                     (currentAlgorithm.equals("Sieve of Eratosthenes") ?
                             "• Time Complexity: O(n log log n)\n• Very efficient for finding all primes in a range" :
+                     isComputeOnlyAlgorithm() ?
+                            "• Time Complexity: O(n log log n)\n• Memory: O(√n + window size), cache friendly" :
                             "• Time Complexity: O(n√n)\n• Good for checking individual numbers") + "\n\n" +
                     "Check the results panel for the complete list of prime numbers!");
+        } else if (currentAlgorithm.equals("Miller-Rabin (64-bit)")) {
+            completeMillerRabin();
+        } else if (currentAlgorithm.equals("Baillie-PSW (BigInteger)")) {
+            completeBailliePSW();
+        } else if (currentAlgorithm.equals("Pollard's Rho Factorization")) {
+            completePollardRho();
         } else {
             String result = isPrimeResult ? "PRIME" : "NOT PRIME";
             String emoji = isPrimeResult ? "✅" : "❌";
@@ -890,7 +2125,7 @@ public class PrimeNumberVisualizer extends JFrame {
                     "Result: " + targetNumber + " is " + result + " " + emoji + "\n\n" +
                     "📊 ANALYSIS DETAILS:\n" +
                     "• Algorithm: " + currentAlgorithm + "\n" +
-                    "• Divisors checked: " + (currentDivisor - 2) + "\n" +
+                    "• Divisors checked: " + counters.numbersChecked + "\n" +
                     "• Execution time: " + (endTime - startTime) + "ms\n\n" +
                     (isPrimeResult ?
                             "✅ No divisors found between 2 and √" + targetNumber + "\n" +
@@ -905,7 +2140,7 @@ public class PrimeNumberVisualizer extends JFrame {
                     "Result: " + result + " " + emoji + "\n\n" +
                     "ANALYSIS SUMMARY:\n" +
                     "• Algorithm: " + currentAlgorithm + "\n" +
-                    "• Divisors tested: " + (currentDivisor - 2) + "\n" +
+                    "• Divisors tested: " + counters.numbersChecked + "\n" +
                     "• Range tested: 2 to " + (currentDivisor - 1) + "\n" +
                     "• Execution time: " + (endTime - startTime) + "ms\n\n" +
                     "EXPLANATION:\n" +
@@ -918,7 +2153,7 @@ public class PrimeNumberVisualizer extends JFrame {
 
         performanceLabel.setText("<html><center>Total: " + (endTime - startTime) + "ms<br>" +
                 "Numbers Checked: Analysis: Complete<br>" +
-                "Primes Found: Status: " + (isMode1 ? foundPrimes.size() + " primes found" :
+                "Primes Found: Status: " + (isMode1 ? (isCountingAlgorithm() ? primeCount : foundPrimes.size()) + " primes found" :
                 (isPrimeResult ? "Prime" : "Not Prime")) + "<br>" +
                 "Progress: 100%<br>" +
                 "Algorithm: " + currentAlgorithm + "<br>" +
@@ -929,6 +2164,52 @@ public class PrimeNumberVisualizer extends JFrame {
         visualizationPanel.repaint();
     }
 
+    // The compute-only engines hand over the statistics they collected while sieving; the
+    // animated sieves are streamed once from the bitmap
+    PrimeStatistics rangeStatistics() {
+        PrimeStatistics statistics = engineStatistics != null ? engineStatistics : PrimeStatistics.of(sieveStorage);
+        if (sieveStorage == null) return statistics;
+
+        // Goldbach pairs need every prime below E, so only a range from the start has them all
+        long even = upperBound & ~1L;
+        if (lowerBound <= 3 && even >= 4) {
+            statistics.countGoldbachPairs(even, n -> n >= lowerBound && n <= upperBound && sieveStorage.isPrime(sieveStorage.indexOf(n)));
+        }
+        return statistics;
+    }
+
+    void completePrimeCounting() {
+        long width = upperBound - lowerBound + 1;
+        String method = countedBySieve ?
+                "Segmented sieve over the range (narrower than upper^(3/4))" :
+                "π(" + upperBound + ") - π(" + (lowerBound - 1) + ") with Lucy_Hedgehog";
+
+        resultsArea.setText("PRIME COUNT:\n\n" +
+                "π(" + lowerBound + " .. " + upperBound + ") = " + primeCount + "\n\n" +
+                "SUMMARY:\n" +
+                "• Range: " + lowerBound + " to " + upperBound + "\n" +
+                "• Total numbers: " + width + "\n" +
+                "• Prime numbers: " + primeCount + "\n" +
+                "• Density: " + String.format("%.6f", (double) primeCount / width) +
+                " (1 / ln x ≈ " + String.format("%.6f", 1 / Math.log(upperBound)) + ")\n" +
+                "• Method: " + method + "\n" +
+                "• Counting time: " + String.format("%.3f", countNanos / 1e6) + "ms");
+
+        statusLabel.setText("<html><center>Complete!<br>" + primeCount + " primes counted</center></html>");
+
+        updateStepsArea("PRIME COUNTING COMPLETED!\n\n" +
+                "Counted all primes from " + lowerBound + " to " + upperBound + "\n\n" +
+                "RESULTS SUMMARY:\n" +
+                "• Algorithm used: " + currentAlgorithm + "\n" +
+                "• Prime numbers counted: " + primeCount + "\n" +
+                "• Method: " + method + "\n\n" +
+                "ALGORITHM EFFICIENCY:\n" +
+                (countedBySieve ?
+                        "• Time Complexity: O(width + √x)\n• Cheaper than counting twice from 0 for a narrow range" :
+                        "• Time Complexity: O(x^(3/4))\n• Memory: O(√x) - only the values S(x / i) are kept") + "\n\n" +
+                "No list of primes is built, see the results panel for the count.");
+    }
+
     void togglePause() {
         if (!isAnimating) return;
 
@@ -946,42 +2227,83 @@ public class PrimeNumberVisualizer extends JFrame {
             if (isMode1) {
                 statusLabel.setText("<html><center>▶️ Analysis Resumed<br>Finding primes...</center></html>");
             } else {
-                statusLabel.setText("<html><center>▶️ Analysis Resumed<br>Checking " + targetNumber + "</center></html>");
+                statusLabel.setText("<html><center>▶️ Analysis Resumed<br>Checking " + targetText() + "</center></html>");
             }
         }
     }
 
     void drawRangeVisualization(Graphics2D g2d) {
-        if (numbers == null) return;
-
         int panelWidth = visualizationPanel.getWidth();
         int panelHeight = visualizationPanel.getHeight();
 
+        if (sieveStorage == null) {
+            g2d.setFont(rangeMessageFont);
+            g2d.setColor(darkTextColor);
+            String message = isCountingAlgorithm() ?
+                    "Counting primes from " + lowerBound + " to " + upperBound + " - see the results panel" :
+                    "Range " + lowerBound + " to " + upperBound + " is too large to draw - see the results panel";
+            FontMetrics fm = g2d.getFontMetrics();
+            g2d.drawString(message, (panelWidth - fm.stringWidth(message)) / 2, 40);
+            return;
+        }
+
         // Draw title
-        g2d.setFont(new Font("Segoe UI", Font.BOLD, 22));
-        g2d.setColor(new Color(44, 62, 80));
+        g2d.setFont(rangeTitleFont);
+        g2d.setColor(darkTextColor);
         String title = "" + currentAlgorithm + " - Range: " + lowerBound + " to " + upperBound;
         FontMetrics fm = g2d.getFontMetrics();
         int titleX = (panelWidth - fm.stringWidth(title)) / 2;
         g2d.drawString(title, titleX, 40);
 
-        // Calculate grid layout (10 numbers per row)
-        int cols = Math.min(10, numbers.length); // Changed from 20 to 10
-        int rows = (numbers.length + cols - 1) / cols;
-        int cellSize = Math.min(70, (panelWidth - 100) / cols); // Slightly larger cells
-        int startX = (panelWidth - (cols * cellSize + (cols - 1) * 10)) / 2; // Increased spacing
-        int startY = 80;
+        if (!rangeView.equals("Grid")) {
+            drawRangePlot(g2d);
+            return;
+        }
+
+        // Calculate grid layout (10 numbers per row at full zoom, as many as fit below that)
+        int size = sieveStorage.size();
+        int cols = gridColumns();
+        int rows = gridRows();
+        int cellSize = gridCellSize();
+        int startX = gridStartX();
+        int startY = GRID_START_Y;
+        int pitch = cellSize + gridGap();
+
+        if (isHeatmap()) {
+            drawHeatmap(g2d, startX, startY, cols, rows);
+            drawRangeLegend(g2d, startY + rows * pitch + 40);
+            return;
+        }
+
+        int fontSize = Math.max(14, cellSize / 4);
+        if (cellFont == null || cellFont.getSize() != fontSize) {
+            cellFont = new Font("Segoe UI", Font.BOLD, fontSize);
+        }
+        g2d.setStroke(cellBorderStroke);
+        g2d.setFont(cellFont);
+        FontMetrics numberFm = g2d.getFontMetrics();
+
+        // Only the rows inside the clip are painted; the scroll pane clips to the viewport
+        Rectangle clip = g2d.getClipBounds();
+        int firstRow = 0;
+        int lastRow = rows - 1;
+        if (clip != null && pitch > 0) {
+            firstRow = Math.max(0, (clip.y - startY - 2) / pitch);
+            lastRow = Math.min(rows - 1, (clip.y + clip.height - startY) / pitch);
+        }
 
         // Draw numbers grid
-        for (int i = 0; i < numbers.length; i++) {
+        int firstIndex = Math.min(size, firstRow * cols);
+        int endIndex = Math.min(size, (lastRow + 1) * cols);
+        for (int i = firstIndex; i < endIndex; i++) {
             int row = i / cols;
             int col = i % cols;
-            int x = startX + col * (cellSize + 10); // Increased spacing from 8 to 10
-            int y = startY + row * (cellSize + 10); // Increased spacing from 8 to 10
+            int x = startX + col * pitch;
+            int y = startY + row * pitch;
 
             // Determine color
             Color cellColor = neutralColor;
-            Color textColor = new Color(44, 62, 80);
+            Color textColor = darkTextColor;
 
             if (i == highlightedIndex) {
                 cellColor = currentColor;
@@ -989,16 +2311,16 @@ public class PrimeNumberVisualizer extends JFrame {
             } else if (i == markingIndex) {
                 cellColor = markingColor;
                 textColor = Color.WHITE;
-            } else if (isMarked[i] || !isPrime[i]) {
+            } else if (sieveStorage.isComposite(i)) {
                 cellColor = compositeColor;
                 textColor = Color.WHITE;
-            } else if (isPrime[i] && numbers[i] >= 2) {
+            } else {
                 cellColor = primeColor;
                 textColor = Color.WHITE;
             }
 
             // Draw cell shadow
-            g2d.setColor(new Color(0, 0, 0, 30));
+            g2d.setColor(cellShadowColor);
             g2d.fillRoundRect(x + 2, y + 2, cellSize, cellSize, 10, 10);
 
             // Draw cell
@@ -1006,22 +2328,199 @@ public class PrimeNumberVisualizer extends JFrame {
             g2d.fillRoundRect(x, y, cellSize, cellSize, 10, 10);
 
             // Draw border
-            g2d.setColor(new Color(44, 62, 80));
-            g2d.setStroke(new BasicStroke(2));
+            g2d.setColor(darkTextColor);
             g2d.drawRoundRect(x, y, cellSize, cellSize, 10, 10);
 
             // Draw number
             g2d.setColor(textColor);
-            g2d.setFont(new Font("Segoe UI", Font.BOLD, Math.max(14, cellSize / 4)));
-            String numberText = String.valueOf(numbers[i]);
-            FontMetrics numberFm = g2d.getFontMetrics();
+            String numberText = String.valueOf(sieveStorage.numberAt(i));
             int textX = x + (cellSize - numberFm.stringWidth(numberText)) / 2;
             int textY = y + (cellSize + numberFm.getAscent()) / 2 - 2;
             g2d.drawString(numberText, textX, textY);
         }
 
         // Draw legend
-        drawRangeLegend(g2d, startY + rows * (cellSize + 10) + 40);
+        drawRangeLegend(g2d, startY + rows * pitch + 40);
+    }
+
+    // Writes the visible part of the grid straight into the pixels of a reused image and
+    // blits it, so the cost follows the viewport size and not the number of cells
+    void drawHeatmap(Graphics2D g2d, int startX, int startY, int cols, int rows) {
+        int cellSize = gridCellSize();
+        int perCell = numbersPerCell();
+        Rectangle area = new Rectangle(startX, startY, cols * cellSize, rows * cellSize);
+        Rectangle clip = g2d.getClipBounds();
+        if (clip != null) area = area.intersection(clip);
+        if (area.isEmpty()) return;
+
+        if (heatmapImage == null || heatmapImage.getWidth() < area.width || heatmapImage.getHeight() < area.height) {
+            heatmapImage = new BufferedImage(area.width, area.height, BufferedImage.TYPE_INT_RGB);
+        }
+        int[] pixels = ((DataBufferInt) heatmapImage.getRaster().getDataBuffer()).getData();
+        int stride = heatmapImage.getWidth();
+        double expectedDensity = 1 / Math.log(Math.max(3, upperBound));
+
+        for (int py = 0; py < area.height; py++) {
+            int gy = area.y - startY + py;
+            int lineStart = py * stride;
+            if (py > 0 && gy % cellSize != 0) {
+                // Same row of cells as the line above
+                System.arraycopy(pixels, lineStart - stride, pixels, lineStart, area.width);
+                continue;
+            }
+            long rowStart = (long) (gy / cellSize) * cols;
+            for (int px = 0; px < area.width; ) {
+                int gx = area.x - startX + px;
+                int run = Math.min(area.width - px, cellSize - gx % cellSize);
+                int rgb = heatmapColor((rowStart + gx / cellSize) * perCell, perCell, expectedDensity);
+                Arrays.fill(pixels, lineStart + px, lineStart + px + run, rgb);
+                px += run;
+            }
+        }
+        g2d.drawImage(heatmapImage, area.x, area.y, area.x + area.width, area.y + area.height,
+                0, 0, area.width, area.height, null);
+    }
+
+    // Ulam spiral or gap scatter, re-rendered only when the storage, view, zoom or width
+    // changed. Numbers marked since the last repaint are drawn into the image as it is.
+    void drawRangePlot(Graphics2D g2d) {
+        String key = rangeView + "/" + zoomLevel + "/" + gridAreaWidth();
+        if (plotImage != null && key.equals(plotKey) && plotChangeCount > 0) {
+            if (rangeView.equals("Ulam Spiral")) {
+                PrimePlots.updateUlamSpiral(plotImage, sieveStorage, ZOOM_CELL_PIXELS[zoomLevel], plotChanges, plotChangeCount,
+                        primeColor.getRGB(), Color.WHITE.getRGB());
+            } else if (!PrimePlots.updateGapScatter(plotImage, sieveStorage, plotMaxGap, plotChanges, plotChangeCount,
+                    currentColor.getRGB(), Color.WHITE.getRGB())) {
+                plotImage = null; // a merged gap outgrew the scale
+            }
+            plotChangeCount = 0;
+        }
+        if (plotImage == null || !key.equals(plotKey)) {
+            plotChangeCount = 0;
+            if (rangeView.equals("Ulam Spiral")) {
+                plotImage = PrimePlots.ulamSpiral(sieveStorage, ZOOM_CELL_PIXELS[zoomLevel],
+                        primeColor.getRGB(), Color.WHITE.getRGB(), neutralColor.getRGB());
+            } else {
+                plotMaxGap = PrimePlots.maxGap(sieveStorage);
+                plotImage = PrimePlots.gapScatter(sieveStorage, gridAreaWidth(), GAP_PLOT_HEIGHT, plotMaxGap,
+                        currentColor.getRGB(), Color.WHITE.getRGB());
+            }
+            plotKey = key;
+        }
+
+        int x = Math.max(50, (visualizationPanel.getWidth() - plotImage.getWidth()) / 2);
+        int y = GRID_START_Y;
+        g2d.drawImage(plotImage, x, y, null);
+        g2d.setColor(darkTextColor);
+        g2d.setStroke(cellBorderStroke);
+        g2d.drawRect(x, y, plotImage.getWidth(), plotImage.getHeight());
+
+        if (rangeView.equals("Prime Gaps")) {
+            g2d.setFont(legendLabelFont);
+            int bottom = y + plotImage.getHeight();
+            g2d.drawString("gap " + plotMaxGap, x - 45, y + 12);
+            g2d.drawString("0", x - 15, bottom);
+            g2d.drawString(String.valueOf(lowerBound), x, bottom + 20);
+            String last = String.valueOf(upperBound);
+            g2d.drawString(last, x + plotImage.getWidth() - g2d.getFontMetrics().stringWidth(last), bottom + 20);
+            g2d.drawString("Gap to the next prime (largest gap: " + plotMaxGap + ")", x, bottom + 45);
+        } else {
+            drawRangeLegend(g2d, y + plotImage.getHeight() + 20);
+        }
+    }
+
+    Dimension rangePlotSize() {
+        if (rangeView.equals("Ulam Spiral")) {
+            int size = sieveStorage.size();
+            int side = PrimePlots.spiralSide(size) * PrimePlots.spiralCellPixels(size, ZOOM_CELL_PIXELS[zoomLevel]);
+            return new Dimension(side, side);
+        }
+        return new Dimension(gridAreaWidth(), GAP_PLOT_HEIGHT);
+    }
+
+    // Color of the cell holding the numbers at [first, first + count)
+    int heatmapColor(long first, int count, double expectedDensity) {
+        int size = sieveStorage.size();
+        if (first >= size) return Color.WHITE.getRGB();
+        int end = (int) Math.min(size, first + count);
+        int primes = 0;
+        for (int i = (int) first; i < end; i++) {
+            if (i == highlightedIndex) return currentColor.getRGB();
+            if (i == markingIndex) return markingColor.getRGB();
+            if (!sieveStorage.isComposite(i)) primes++;
+        }
+        if (count == 1) return primes == 1 ? primeColor.getRGB() : compositeColor.getRGB();
+
+        // Folded cells shade from composite to prime as their density goes past twice 1 / ln n
+        double t = Math.min(1, primes / ((end - first) * expectedDensity * 2));
+        int red = (int) (compositeColor.getRed() + t * (primeColor.getRed() - compositeColor.getRed()));
+        int green = (int) (compositeColor.getGreen() + t * (primeColor.getGreen() - compositeColor.getGreen()));
+        int blue = (int) (compositeColor.getBlue() + t * (primeColor.getBlue() - compositeColor.getBlue()));
+        return (red << 16) | (green << 8) | blue;
+    }
+
+    // Grid layout shared by drawing and hit testing
+    boolean isHeatmap() {
+        return ZOOM_CELL_PIXELS[zoomLevel] < LABELED_CELL_MIN;
+    }
+
+    int numbersPerCell() {
+        return ZOOM_NUMBERS_PER_CELL[zoomLevel];
+    }
+
+    int gridAreaWidth() {
+        int width = visualizationPanel.getWidth();
+        return Math.max(100, (width > 0 ? width : 900) - 100);
+    }
+
+    int gridColumns() {
+        return gridColumns(zoomLevel);
+    }
+
+    int gridColumns(int level) {
+        int cellPixels = ZOOM_CELL_PIXELS[level];
+        long cells = ((long) sieveStorage.size() + ZOOM_NUMBERS_PER_CELL[level] - 1) / ZOOM_NUMBERS_PER_CELL[level];
+        if (cellPixels < LABELED_CELL_MIN) return (int) Math.max(1, Math.min(cells, gridAreaWidth() / cellPixels));
+        return (int) Math.min(cells, Math.max(10, gridAreaWidth() / (cellPixels + GRID_GAP)));
+    }
+
+    int gridRows() {
+        return gridRows(zoomLevel);
+    }
+
+    int gridRows(int level) {
+        long cells = ((long) sieveStorage.size() + ZOOM_NUMBERS_PER_CELL[level] - 1) / ZOOM_NUMBERS_PER_CELL[level];
+        int cols = gridColumns(level);
+        return (int) ((cells + cols - 1) / cols);
+    }
+
+    int gridCellSize() {
+        if (isHeatmap()) return ZOOM_CELL_PIXELS[zoomLevel];
+        return Math.min(ZOOM_CELL_PIXELS[zoomLevel], gridAreaWidth() / gridColumns());
+    }
+
+    int gridGap() {
+        return isHeatmap() ? 0 : GRID_GAP;
+    }
+
+    int gridStartX() {
+        int cols = gridColumns();
+        return (visualizationPanel.getWidth() - (cols * gridCellSize() + (cols - 1) * gridGap())) / 2;
+    }
+
+    // Index of the (first number in the) cell under (x, y), or -1 for the gaps and the area outside the grid
+    int gridCellAt(int x, int y) {
+        if (!rangeView.equals("Grid")) return -1;
+        int gap = gridGap();
+        int pitch = gridCellSize() + gap;
+        if (pitch <= gap) return -1;
+        int dx = x - gridStartX();
+        int dy = y - GRID_START_Y;
+        if (dx < 0 || dy < 0 || dx % pitch >= pitch - gap || dy % pitch >= pitch - gap) return -1;
+        int col = dx / pitch;
+        if (col >= gridColumns()) return -1;
+        long index = ((long) (dy / pitch) * gridColumns() + col) * numbersPerCell();
+        return index < sieveStorage.size() ? (int) index : -1;
     }
 
     void drawSingleNumberVisualization(Graphics2D g2d) {
@@ -1031,7 +2530,7 @@ public class PrimeNumberVisualizer extends JFrame {
         // Draw title
         g2d.setFont(new Font("Segoe UI", Font.BOLD, 28));
         g2d.setColor(new Color(44, 62, 80));
-        String title = "Checking if " + targetNumber + " is Prime";
+        String title = "Checking if " + targetText() + " is Prime";
         FontMetrics fm = g2d.getFontMetrics();
         int titleX = (panelWidth - fm.stringWidth(title)) / 2;
         g2d.drawString(title, titleX, 60);
@@ -1060,15 +2559,27 @@ public class PrimeNumberVisualizer extends JFrame {
 
         // Draw target number
         g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Segoe UI", Font.BOLD, 42));
-        String numberText = String.valueOf(targetNumber);
+        String numberText = targetText();
+        // Shrink long (64-bit or BigInteger) numbers so they do not run far past the circle
+        int fontSize = 42;
+        g2d.setFont(new Font("Segoe UI", Font.BOLD, fontSize));
+        while (fontSize > 10 && g2d.getFontMetrics().stringWidth(numberText) > numberSize + 200) {
+            fontSize -= 2;
+            g2d.setFont(new Font("Segoe UI", Font.BOLD, fontSize));
+        }
         FontMetrics numberFm = g2d.getFontMetrics();
         int numberX = centerX - numberFm.stringWidth(numberText) / 2;
         int numberY = centerY + numberFm.getAscent() / 2 - 5;
         g2d.drawString(numberText, numberX, numberY);
 
         // Draw divisor testing visualization
-        if (isAnimating) {
+        if (isAnimating && currentAlgorithm.equals("Miller-Rabin (64-bit)")) {
+            drawWitnessRound(g2d, centerX, centerY + 250);
+        } else if (currentAlgorithm.equals("Baillie-PSW (BigInteger)")) {
+            drawBailliePSWStages(g2d, centerX, centerY + 110);
+        } else if (currentAlgorithm.equals("Pollard's Rho Factorization")) {
+            drawFactorProgress(g2d, centerX, centerY + 130);
+        } else if (isAnimating) {
             drawDivisorTesting(g2d, centerX, centerY + 250);
         }
 
@@ -1079,7 +2590,9 @@ public class PrimeNumberVisualizer extends JFrame {
             String resultText = isPrimeResult ? "✅ PRIME" : "❌ NOT PRIME";
             FontMetrics resultFm = g2d.getFontMetrics();
             int resultX = centerX - resultFm.stringWidth(resultText) / 2;
-            g2d.drawString(resultText, resultX, centerY + 250);
+            int resultY = currentAlgorithm.equals("Baillie-PSW (BigInteger)") ||
+                    currentAlgorithm.equals("Pollard's Rho Factorization") ? centerY + 340 : centerY + 250;
+            g2d.drawString(resultText, resultX, resultY);
         }
     }
 
@@ -1101,8 +2614,8 @@ public class PrimeNumberVisualizer extends JFrame {
         g2d.drawString(divisionText, divX, divisionY);
 
         // Draw progress bar
-        int maxDivisor = (int) Math.sqrt(targetNumber) + 1;
-        int progress = Math.min(100, (currentDivisor - 2) * 100 / (maxDivisor - 2));
+        long maxDivisor = (long) Math.sqrt(targetNumber) + 1;
+        int progress = (int) Math.min(100, (currentDivisor - 2) * 100 / Math.max(1, maxDivisor - 2));
 
         int barWidth = 400;
         int barHeight = 25;
@@ -1130,6 +2643,102 @@ public class PrimeNumberVisualizer extends JFrame {
         g2d.drawString(progressText, progX, barY + barHeight + 25);
     }
 
+    void drawWitnessRound(Graphics2D g2d, int centerX, int centerY) {
+        g2d.setFont(new Font("Segoe UI", Font.BOLD, 20));
+        g2d.setColor(new Color(44, 62, 80));
+        String roundText = millerRabin == null ? "Checking small prime factors..." :
+                "Witness round " + witnessRound + " of " + MillerRabin64.WITNESSES.length;
+        FontMetrics fm = g2d.getFontMetrics();
+        g2d.drawString(roundText, centerX - fm.stringWidth(roundText) / 2, centerY - 40);
+
+        if (witnessChain == null) return;
+
+        // One box per value in the squaring chain, green once it reaches n - 1
+        g2d.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        FontMetrics chainFm = g2d.getFontMetrics();
+        int boxHeight = 28;
+        int y = centerY;
+        for (int r = 0; r < witnessChain.length; r++) {
+            String text = "a^(d·2^" + r + ") mod n = " + witnessChain[r];
+            int boxWidth = chainFm.stringWidth(text) + 20;
+            boolean reached = witnessChain[r] == targetNumber - 1 || (r == 0 && witnessChain[r] == 1);
+            g2d.setColor(reached ? primeColor : neutralColor);
+            g2d.fillRoundRect(centerX - boxWidth / 2, y, boxWidth, boxHeight, 10, 10);
+            g2d.setColor(new Color(44, 62, 80));
+            g2d.setStroke(new BasicStroke(2));
+            g2d.drawRoundRect(centerX - boxWidth / 2, y, boxWidth, boxHeight, 10, 10);
+            g2d.drawString(text, centerX - chainFm.stringWidth(text) / 2, y + boxHeight / 2 + chainFm.getAscent() / 2 - 2);
+            y += boxHeight + 6;
+        }
+    }
+
+    void drawBailliePSWStages(Graphics2D g2d, int centerX, int startY) {
+        int boxWidth = 420;
+        int boxHeight = 50;
+        int y = startY;
+        g2d.setStroke(new BasicStroke(2));
+
+        for (int i = 0; i < BPSW_STAGES.length; i++) {
+            Color boxColor = neutralColor;
+            String status = "waiting";
+            if (i < bpswStage) {
+                boolean failed = bpswFailed && i == bpswStage - 1;
+                boxColor = failed ? compositeColor : primeColor;
+                status = (failed ? "failed" : "passed") + " in " + String.format("%.3f", bpswStageNanos[i] / 1e6) + "ms";
+            } else if (i == bpswStage && isAnimating) {
+                boxColor = currentColor;
+                status = "next";
+            }
+
+            g2d.setColor(boxColor);
+            g2d.fillRoundRect(centerX - boxWidth / 2, y, boxWidth, boxHeight, 12, 12);
+            g2d.setColor(new Color(44, 62, 80));
+            g2d.drawRoundRect(centerX - boxWidth / 2, y, boxWidth, boxHeight, 12, 12);
+
+            g2d.setColor(boxColor == neutralColor ? new Color(44, 62, 80) : Color.WHITE);
+            g2d.setFont(new Font("Segoe UI", Font.BOLD, 14));
+            g2d.drawString((i + 1) + ". " + BPSW_STAGES[i], centerX - boxWidth / 2 + 15, y + 22);
+            g2d.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+            g2d.drawString(status, centerX - boxWidth / 2 + 15, y + 40);
+            y += boxHeight + 10;
+        }
+    }
+
+    // Discovered prime factors as green chips, cofactors still to split as blue ones
+    void drawFactorProgress(Graphics2D g2d, int centerX, int startY) {
+        g2d.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        g2d.setColor(new Color(44, 62, 80));
+        String header = "Prime factors found: " + discoveredFactors.size();
+        FontMetrics fm = g2d.getFontMetrics();
+        g2d.drawString(header, centerX - fm.stringWidth(header) / 2, startY);
+
+        List<Long> chips = new ArrayList<>(discoveredFactors);
+        int primeChips = chips.size();
+        chips.addAll(factorWorkStack);
+
+        g2d.setFont(new Font("Segoe UI", Font.BOLD, 13));
+        FontMetrics chipFm = g2d.getFontMetrics();
+        int maxWidth = visualizationPanel.getWidth() - 80;
+        int x = 40;
+        int y = startY + 20;
+        g2d.setStroke(new BasicStroke(2));
+        for (int i = 0; i < chips.size(); i++) {
+            String text = String.valueOf(chips.get(i));
+            int chipWidth = chipFm.stringWidth(text) + 20;
+            if (x + chipWidth > 40 + maxWidth) {
+                x = 40;
+                y += 36;
+            }
+            g2d.setColor(i < primeChips ? primeColor : currentColor);
+            g2d.fillRoundRect(x, y, chipWidth, 28, 10, 10);
+            g2d.setColor(new Color(44, 62, 80));
+            g2d.drawRoundRect(x, y, chipWidth, 28, 10, 10);
+            g2d.setColor(Color.WHITE);
+            g2d.drawString(text, x + 10, y + 19);
+            x += chipWidth + 8;
+        }
+    }
+
     void drawRangeLegend(Graphics2D g2d, int startY) {
         String[] labels = {"Unchecked", "Current", "Prime", "Composite", "Marking"};
         Color[] colors = {neutralColor, currentColor, primeColor, compositeColor, markingColor};
@@ -1137,19 +2746,17 @@ public class PrimeNumberVisualizer extends JFrame {
         int legendX = 60;
         int legendY = startY;
 
-        g2d.setFont(new Font("Segoe UI", Font.BOLD, 16));
-        g2d.setColor(new Color(44, 62, 80));
+        g2d.setFont(legendLabelFont);
 
         legendY += 30;
         for (int i = 0; i < labels.length; i++) {
             // Draw color box
             g2d.setColor(colors[i]);
             g2d.fillRoundRect(legendX, legendY - 15, 25, 18, 6, 6);
-            g2d.setColor(new Color(44, 62, 80));
+            g2d.setColor(darkTextColor);
             g2d.drawRoundRect(legendX, legendY - 15, 25, 18, 6, 6);
 
             // Draw label
-            g2d.setFont(new Font("Segoe UI", Font.PLAIN, 14));
             g2d.drawString(labels[i], legendX + 35, legendY);
 
             legendY += 25;
@@ -1157,6 +2764,7 @@ public class PrimeNumberVisualizer extends JFrame {
     }
 
     void updateStepsArea(String text) {
+        if (quiet) return;
         stepsArea.setText(text);
         stepsArea.setCaretPosition(0);
     }
@@ -0,0 +1,190 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+// Off-screen renderers for the prime range views other than the grid.
+// Both read the sieve result straight from a PrimeSieveStorage and write colors
+// into the int[] raster of a BufferedImage, so a 4M-number plot is one pass over
+// the storage with no Swing shapes. The caller keeps the image and only asks for
+// a new one when the range, the zoom or the panel width changes; the numbers an
+// animation step marks are repainted into the image it already has.
+public class PrimePlots {
+    // Plots wider or taller than this get a smaller cell size
+    static final int MAX_PLOT_PIXELS = 4000;
+
+    // Side of the square an Ulam spiral of 'size' numbers fills
+    static int spiralSide(int size) {
+        return (int) Math.ceil(Math.sqrt(size));
+    }
+
+    // Cell size in pixels for a spiral of 'size' numbers when cellPixels is wanted
+    static int spiralCellPixels(int size, int cellPixels) {
+        return Math.max(1, Math.min(cellPixels, MAX_PLOT_PIXELS / Math.max(1, spiralSide(size))));
+    }
+
+    // Ulam spiral: the first number of the range in the middle, then right, up, left,
+    // down in growing square rings. Primes line up along diagonals.
+    public static BufferedImage ulamSpiral(PrimeSieveStorage storage, int cellPixels, int primeRgb, int compositeRgb, int emptyRgb) {
+        int size = storage.size();
+        int side = spiralSide(size);
+        int cell = spiralCellPixels(size, cellPixels);
+        int width = side * cell;
+        BufferedImage image = new BufferedImage(width, width, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        Arrays.fill(pixels, emptyRgb);
+
+        // The ring walk stays inside side x side when it starts here (see the even/odd cases)
+        int x = (side - 1) / 2;
+        int y = side / 2;
+        int[] dx = {1, 0, -1, 0};
+        int[] dy = {0, -1, 0, 1};
+        int direction = 0;
+        int legLength = 1;
+        int legDone = 0;
+        int legsAtLength = 0;
+        for (int i = 0; i < size; i++) {
+            paintCell(pixels, width, cell, x, y, storage.isComposite(i) ? compositeRgb : primeRgb);
+
+            x += dx[direction];
+            y += dy[direction];
+            if (++legDone == legLength) {
+                legDone = 0;
+                direction = (direction + 1) & 3;
+                if (++legsAtLength == 2) {
+                    legsAtLength = 0;
+                    legLength++;
+                }
+            }
+        }
+        return image;
+    }
+
+    // Repaints the cells of the given numbers in a spiral drawn earlier from the same
+    // storage, for the few numbers an animation step changed
+    public static void updateUlamSpiral(BufferedImage image, PrimeSieveStorage storage, int cellPixels,
+                                        int[] indices, int count, int primeRgb, int compositeRgb) {
+        int size = storage.size();
+        int side = spiralSide(size);
+        int cell = spiralCellPixels(size, cellPixels);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        for (int k = 0; k < count; k++) {
+            int i = indices[k];
+            // The walk above as a closed form: pair p of legs has two legs of p + 1 cells,
+            // right then up for even p, left then down for odd p, and starts after p(p + 1) cells
+            int p = (int) ((Math.sqrt(4.0 * i + 1) - 1) / 2);
+            while ((long) p * (p + 1) > i) p--;
+            while ((long) (p + 1) * (p + 2) <= i) p++;
+            int sign = (p & 1) == 0 ? 1 : -1;
+            int x = (side - 1) / 2 + ((p & 1) == 0 ? -p / 2 : (p + 1) / 2);
+            int y = side / 2 - ((p & 1) == 0 ? -p / 2 : (p + 1) / 2);
+            int t = i - p * (p + 1);
+            if (t <= p + 1) {
+                x += sign * t;
+            } else {
+                x += sign * (p + 1);
+                y -= sign * (t - p - 1);
+            }
+            paintCell(pixels, side * cell, cell, x, y, storage.isComposite(i) ? compositeRgb : primeRgb);
+        }
+    }
+
+    static void paintCell(int[] pixels, int width, int cell, int x, int y, int rgb) {
+        int offset = y * cell * width + x * cell;
+        for (int row = 0; row < cell; row++) {
+            Arrays.fill(pixels, offset, offset + cell, rgb);
+            offset += width;
+        }
+    }
+
+    // Largest difference between consecutive primes in the storage, 0 with fewer than two primes
+    static int maxGap(PrimeSieveStorage storage) {
+        int previous = -1;
+        int max = 0;
+        for (int i = 0; i < storage.size(); i++) {
+            if (!storage.isPrime(i)) continue;
+            if (previous >= 0) max = Math.max(max, i - previous);
+            previous = i;
+        }
+        return max;
+    }
+
+    // Scatter of (p, gap to the next prime): x is the position in the range, y the gap
+    // scaled so maxGap reaches the top. Each point is a 2 x 2 block.
+    public static BufferedImage gapScatter(PrimeSieveStorage storage, int width, int height, int maxGap, int pointRgb, int backgroundRgb) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        Arrays.fill(pixels, backgroundRgb);
+        if (maxGap == 0) return image;
+
+        double xScale = (width - 2) / (double) Math.max(1, storage.size() - 1);
+        double yScale = (height - 2) / (double) maxGap;
+        int previous = -1;
+        for (int i = 0; i < storage.size(); i++) {
+            if (!storage.isPrime(i)) continue;
+            if (previous >= 0) {
+                paintPoint(pixels, width, (int) (previous * xScale), height - 2 - (int) ((i - previous) * yScale), pointRgb);
+            }
+            previous = i;
+        }
+        return image;
+    }
+
+    // Brings a scatter drawn earlier from the same storage up to date after the given
+    // numbers turned composite. The gap they closed is merged into the one of the prime
+    // before them, so the pixel columns of both points are cleared and redrawn from the
+    // storage. Returns false, leaving the image as it is, when the largest gap may no
+    // longer be maxGap (a merged gap outgrew it, or gaps at an end of the range are
+    // gone): the scale has changed and the caller renders the scatter anew.
+    public static boolean updateGapScatter(BufferedImage image, PrimeSieveStorage storage, int maxGap,
+                                           int[] indices, int count, int pointRgb, int backgroundRgb) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int size = storage.size();
+        double xScale = (width - 2) / (double) Math.max(1, size - 1);
+        boolean[] dirty = new boolean[width];
+        for (int k = 0; k < count; k++) {
+            int i = indices[k];
+            int previous = i - 1;
+            while (previous >= 0 && !storage.isPrime(previous)) previous--;
+            int next = i + 1;
+            while (next < size && !storage.isPrime(next)) next++;
+            if (previous >= 0 && next < size) {
+                if (next - previous > maxGap) return false;
+            } else if (previous < 0 && next == size || (previous >= 0 ? i - previous : next - i) >= maxGap) {
+                return false; // a gap at an end of the range is gone, the largest may be among it
+            }
+            dirty[(int) (i * xScale)] = true;
+            if (previous >= 0) dirty[(int) (previous * xScale)] = true;
+        }
+        if (maxGap == 0) return true;
+
+        // A point at column x covers x and x + 1, so clearing those two means redrawing
+        // every point from x - 1 to x + 1
+        double yScale = (height - 2) / (double) maxGap;
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        for (int column = 0; column < width; column++) {
+            if (!dirty[column]) continue;
+            for (int y = 0; y < height; y++) {
+                pixels[y * width + column] = backgroundRgb;
+                pixels[y * width + column + 1] = backgroundRgb;
+            }
+            int first = Math.max(0, (int) ((column - 1) / xScale) - 1);
+            for (int i = first; i < size && (int) (i * xScale) <= column + 1; i++) {
+                if ((int) (i * xScale) < column - 1 || !storage.isPrime(i)) continue;
+                int next = i + 1;
+                while (next < size && !storage.isPrime(next)) next++;
+                if (next == size) break;
+                paintPoint(pixels, width, (int) (i * xScale), height - 2 - (int) ((next - i) * yScale), pointRgb);
+            }
+        }
+        return true;
+    }
+
+    static void paintPoint(int[] pixels, int width, int px, int py, int rgb) {
+        int offset = py * width + px;
+        pixels[offset] = rgb;
+        pixels[offset + 1] = rgb;
+        pixels[offset + width] = rgb;
+        pixels[offset + width + 1] = rgb;
+    }
+}
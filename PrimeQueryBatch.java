@@ -0,0 +1,213 @@
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// Headless batch of "is x prime?" and "primes in [a, b]" queries.
+// Queries are only recorded until run(). Then the union of all query ranges is
+// worked out from the sorted starts and ends (ranges closer than MERGE_GAP are
+// joined), every piece of that union is sieved exactly once into a
+// PrimeSieveStorage, and a running count of primes per bitset word is kept next
+// to it. Afterwards a point query is one bit lookup and a range count is two
+// lookups plus two popcounts, so a large batch costs about one sieve pass.
+public class PrimeQueryBatch {
+    // Sieving a gap this small is cheaper than starting a separate interval
+    static final long MERGE_GAP = 1 << 16;
+    // PrimeSieveStorage indices are ints, so longer unions are cut into pieces
+    static final long MAX_INTERVAL = 1L << 30;
+
+    long[] queryLow = new long[16];
+    long[] queryHigh = new long[16];
+    boolean[] pointQuery = new boolean[16];
+    int queryCount;
+
+    // Filled by run(): disjoint sieved intervals in increasing order
+    long[] intervalLow;
+    PrimeSieveStorage[] storages;
+    int[][] wordRanks; // wordRanks[k][w] = odd primes in words < w of storages[k]
+    long[] answers;    // 1/0 for point queries, the prime count for range queries
+    long sievedNumbers;
+
+    // Returns the id of the query, used to read the answer after run()
+    public int addIsPrime(long x) {
+        return add(x, x, true);
+    }
+
+    public int addRange(long low, long high) {
+        if (high < low) throw new IllegalArgumentException("high must be >= low");
+        return add(low, high, false);
+    }
+
+    int add(long low, long high, boolean point) {
+        if (answers != null) throw new IllegalStateException("Batch already ran");
+        if (low < 0) throw new IllegalArgumentException("Negative query: " + low);
+        if (queryCount == queryLow.length) {
+            int capacity = queryCount * 2;
+            queryLow = Arrays.copyOf(queryLow, capacity);
+            queryHigh = Arrays.copyOf(queryHigh, capacity);
+            pointQuery = Arrays.copyOf(pointQuery, capacity);
+        }
+        queryLow[queryCount] = low;
+        queryHigh[queryCount] = high;
+        pointQuery[queryCount] = point;
+        return queryCount++;
+    }
+
+    public int size() {
+        return queryCount;
+    }
+
+    public boolean isPrime(int id) {
+        checkAnswered(id);
+        return answers[id] != 0;
+    }
+
+    public long count(int id) {
+        checkAnswered(id);
+        return answers[id];
+    }
+
+    // Every prime of a range query, in increasing order, read back from the shared bitmap
+    public void forEachPrime(int id, LongConsumer action) {
+        checkAnswered(id);
+        long high = queryHigh[id];
+        for (int k = intervalContaining(queryLow[id]); k < storages.length && intervalLow[k] <= high; k++) {
+            PrimeSieveStorage storage = storages[k];
+            long from = Math.max(queryLow[id], storage.lowerBound);
+            long to = Math.min(high, storage.upperBound);
+            for (long n = from; n <= to; n++) {
+                if (storage.isPrime(storage.indexOf(n))) action.accept(n);
+            }
+        }
+    }
+
+    public long sievedNumbers() {
+        return sievedNumbers;
+    }
+
+    public int intervalCount() {
+        return storages == null ? 0 : storages.length;
+    }
+
+    // Sieves the covering intervals once and answers every query
+    public void run() {
+        if (answers != null) return;
+        coalesce();
+
+        long maxHigh = 0;
+        for (PrimeSieveStorage storage : storages) maxHigh = Math.max(maxHigh, storage.upperBound);
+        int[] basePrimes = SegmentedSieve.basePrimesUpTo(SegmentedSieve.isqrt(maxHigh));
+
+        wordRanks = new int[storages.length][];
+        for (int k = 0; k < storages.length; k++) {
+            PrimeSieveStorage storage = storages[k];
+            storage.markAllComposite();
+            new SegmentedSieve(storage.lowerBound, storage.upperBound, SegmentedSieve.DEFAULT_SEGMENT_SIZE, basePrimes)
+                    .forEachPrime(p -> storage.clearComposite(storage.indexOf(p)));
+            wordRanks[k] = rank(storage);
+            sievedNumbers += storage.size();
+        }
+
+        answers = new long[queryCount];
+        for (int id = 0; id < queryCount; id++) {
+            answers[id] = pointQuery[id] ? (isPrimeInBitmap(queryLow[id]) ? 1 : 0) : countInBitmap(queryLow[id], queryHigh[id]);
+        }
+    }
+
+    // Union of the query ranges from the sorted starts and ends: a sweep over the two
+    // arrays sees where the number of open queries drops to zero
+    void coalesce() {
+        long[] starts = Arrays.copyOf(queryLow, queryCount);
+        long[] ends = Arrays.copyOf(queryHigh, queryCount);
+        Arrays.sort(starts);
+        Arrays.sort(ends);
+
+        long[] lows = new long[16];
+        long[] highs = new long[16];
+        int intervals = 0;
+        int s = 0;
+        int e = 0;
+        while (s < starts.length) {
+            long low = starts[s];
+            int open = 0;
+            long high;
+            while (true) {
+                // Starts at a position open before ends at the same position close
+                if (s < starts.length && starts[s] <= ends[e]) {
+                    open++;
+                    s++;
+                } else {
+                    open--;
+                    high = ends[e++];
+                    if (open == 0 && (s == starts.length || starts[s] > high + MERGE_GAP)) break;
+                }
+            }
+            if (intervals == lows.length) {
+                lows = Arrays.copyOf(lows, intervals * 2);
+                highs = Arrays.copyOf(highs, intervals * 2);
+            }
+            lows[intervals] = low;
+            highs[intervals++] = high;
+        }
+
+        // Cut very wide intervals so each fits one storage
+        int pieces = 0;
+        for (int i = 0; i < intervals; i++) pieces += (int) ((highs[i] - lows[i]) / MAX_INTERVAL) + 1;
+        intervalLow = new long[pieces];
+        storages = new PrimeSieveStorage[pieces];
+        int k = 0;
+        for (int i = 0; i < intervals; i++) {
+            for (long low = lows[i]; low <= highs[i]; low += MAX_INTERVAL) {
+                long high = Math.min(highs[i], low + MAX_INTERVAL - 1);
+                intervalLow[k] = low;
+                storages[k++] = new PrimeSieveStorage(low, high);
+                if (high == highs[i]) break;
+            }
+        }
+    }
+
+    static int[] rank(PrimeSieveStorage storage) {
+        long[] bits = storage.compositeBits;
+        int[] ranks = new int[bits.length + 1];
+        for (int w = 0; w < bits.length; w++) {
+            ranks[w + 1] = ranks[w] + Long.bitCount(~bits[w]);
+        }
+        return ranks;
+    }
+
+    // Index of the interval whose range contains n (every queried number is covered)
+    int intervalContaining(long n) {
+        int k = Arrays.binarySearch(intervalLow, n);
+        return k >= 0 ? k : -k - 2;
+    }
+
+    boolean isPrimeInBitmap(long n) {
+        PrimeSieveStorage storage = storages[intervalContaining(n)];
+        return storage.isPrime(storage.indexOf(n));
+    }
+
+    long countInBitmap(long low, long high) {
+        long total = 0;
+        for (int k = intervalContaining(low); k < storages.length && intervalLow[k] <= high; k++) {
+            PrimeSieveStorage storage = storages[k];
+            long from = Math.max(low, storage.lowerBound);
+            long to = Math.min(high, storage.upperBound);
+            total += oddPrimesUpTo(storage, wordRanks[k], to) - oddPrimesUpTo(storage, wordRanks[k], from - 1);
+            if (from <= 2 && to >= 2) total++;
+        }
+        return total;
+    }
+
+    // Odd primes in [storage.firstOdd, n]; bits past upperBound are always set (composite)
+    static long oddPrimesUpTo(PrimeSieveStorage storage, int[] ranks, long n) {
+        if (n < storage.firstOdd) return 0;
+        long bit = (n - storage.firstOdd) >>> 1;
+        int word = (int) (bit >>> 6);
+        if (word >= storage.compositeBits.length) return ranks[storage.compositeBits.length];
+        long open = ~storage.compositeBits[word] & (-1L >>> (63 - (bit & 63)));
+        return ranks[word] + Long.bitCount(open);
+    }
+
+    void checkAnswered(int id) {
+        if (answers == null) throw new IllegalStateException("Call run() first");
+        if (id < 0 || id >= queryCount) throw new IndexOutOfBoundsException("Query " + id + ", size " + queryCount);
+    }
+}
@@ -0,0 +1,85 @@
+// Command line benchmark for the prime engines.
+// Usage: java PrimeSieveBenchmark [upperBound] [rounds]
+// Compares the plain single-threaded sieve against the segmented sieve, the mod 30
+// wheel sieve, the Sieve of Atkin and the parallel segmented sieve at 1, 2, 4 and
+// N threads, then a batch of 10^6 mixed queries. Each engine is warmed up
+// once before it is timed and the best of the timed rounds is reported.
+public class PrimeSieveBenchmark {
+
+    interface Engine {
+        long countPrimes();
+    }
+
+    public static void main(String[] args) {
+        long upperBound = args.length > 0 ? Long.parseLong(args[0]) : 100_000_000L;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("Counting primes in [2, " + upperBound + "], best of " + rounds + " rounds, " + cores + " cores");
+        System.out.println();
+
+        // The plain sieve is the baseline; past 2^31 it cannot run, so the segmented one takes over
+        double baseline = 0;
+        if (upperBound <= Integer.MAX_VALUE - 1) {
+            baseline = time("Plain boolean[] sieve", rounds, () -> plainSieveCount((int) upperBound), 0);
+        }
+        double segmented = time("Segmented sieve (1 thread)", rounds, () -> new SegmentedSieve(2, upperBound).countPrimes(), baseline);
+        if (baseline == 0) baseline = segmented;
+        time("Wheel sieve mod 30 (1 thread)", rounds, () -> new WheelSieve(2, upperBound).countPrimes(), baseline);
+        time("Sieve of Atkin (1 thread)", rounds, () -> new AtkinSieve(2, upperBound).countPrimes(), baseline);
+
+        int[] threadCounts = java.util.stream.IntStream.of(1, 2, 4, cores).distinct().toArray();
+        for (int threads : threadCounts) {
+            time("Parallel sieve (" + threads + " threads)", rounds,
+                    () -> new ParallelSegmentedSieve(2, upperBound, threads).countPrimes(), baseline);
+        }
+
+        System.out.println();
+        time("Query batch (10^6 queries)", rounds, () -> queryBatch(upperBound, 1_000_000), 0);
+    }
+
+    // Half point queries, half ranges of up to 10^4 numbers; returns the sum of the answers
+    static long queryBatch(long upperBound, int queries) {
+        java.util.Random random = new java.util.Random(42);
+        PrimeQueryBatch batch = new PrimeQueryBatch();
+        for (int i = 0; i < queries; i++) {
+            long low = (long) (random.nextDouble() * upperBound);
+            if ((i & 1) == 0) {
+                batch.addIsPrime(low);
+            } else {
+                batch.addRange(low, Math.min(upperBound, low + random.nextInt(10_000)));
+            }
+        }
+        batch.run();
+        long total = 0;
+        for (int id = 0; id < queries; id++) total += batch.count(id);
+        return total;
+    }
+
+    // Returns the best time in milliseconds and prints it with the speedup against baseline
+    static double time(String name, int rounds, Engine engine, double baseline) {
+        long count = engine.countPrimes(); // warm-up
+        double best = Double.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            long result = engine.countPrimes();
+            best = Math.min(best, (System.nanoTime() - start) / 1e6);
+            if (result != count) throw new IllegalStateException(name + " is not deterministic");
+        }
+        String speedup = baseline > 0 ? String.format("  %.2fx", baseline / best) : "";
+        System.out.printf("%-32s %10.1f ms  %,12d primes%s%n", name, best, count, speedup);
+        return best;
+    }
+
+    // The classic one-array sieve, the same idea the animated range mode uses
+    static long plainSieveCount(int n) {
+        boolean[] composite = new boolean[n + 1];
+        long count = 0;
+        for (int i = 2; i <= n; i++) {
+            if (composite[i]) continue;
+            count++;
+            for (long m = (long) i * i; m <= n; m += i) composite[(int) m] = true;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,89 @@
+import java.util.Arrays;
+
+// Compact prime/composite storage for the numbers in [lowerBound, upperBound].
+// Only odd numbers get a bit in a long[] bitset (1 bit per 2 numbers), the number
+// at index i is simply lowerBound + i, and even numbers are derived: every even
+// number up to evenFrontier has been crossed off. Compared to int[] + 2 x boolean[]
+// this is about 1/16 of a byte per candidate instead of 6 bytes.
+public class PrimeSieveStorage {
+    final long lowerBound;
+    final long upperBound;
+    final int size;
+    final long firstOdd;
+    final long[] compositeBits; // bit k = odd number firstOdd + 2k is composite
+    long evenFrontier;          // even numbers in (2, evenFrontier] are composite
+
+    public PrimeSieveStorage(long lowerBound, long upperBound) {
+        if (upperBound < lowerBound) {
+            throw new IllegalArgumentException("upperBound must be >= lowerBound");
+        }
+        if (upperBound - lowerBound >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Range too wide: " + lowerBound + " to " + upperBound);
+        }
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.size = (int) (upperBound - lowerBound + 1);
+        this.firstOdd = lowerBound | 1;
+
+        long oddCount = upperBound < firstOdd ? 0 : (upperBound - firstOdd) / 2 + 1;
+        this.compositeBits = new long[(int) ((oddCount + 63) >>> 6)];
+        this.evenFrontier = Long.MIN_VALUE;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long numberAt(int index) {
+        return lowerBound + index;
+    }
+
+    public int indexOf(long number) {
+        return (int) (number - lowerBound);
+    }
+
+    public boolean isComposite(int index) {
+        long n = lowerBound + index;
+        if (n < 2) return true;
+        if ((n & 1) == 0) return n != 2 && n <= evenFrontier;
+        int bit = (int) ((n - firstOdd) >>> 1);
+        return (compositeBits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    public boolean isPrime(int index) {
+        return !isComposite(index);
+    }
+
+    // Returns true if the number was not already known to be composite
+    public boolean markComposite(int index) {
+        long n = lowerBound + index;
+        if ((n & 1) == 0) {
+            // Evens are only ever crossed off in increasing order, so a frontier is enough
+            if (n == 2 || n <= evenFrontier) return false;
+            evenFrontier = n;
+            return true;
+        }
+        int bit = (int) ((n - firstOdd) >>> 1);
+        long mask = 1L << bit;
+        if ((compositeBits[bit >>> 6] & mask) != 0) return false;
+        compositeBits[bit >>> 6] |= mask;
+        return true;
+    }
+
+    public void clearComposite(int index) {
+        long n = lowerBound + index;
+        if ((n & 1) == 0) return;
+        int bit = (int) ((n - firstOdd) >>> 1);
+        compositeBits[bit >>> 6] &= ~(1L << bit);
+    }
+
+    // Used by the non-animated engines: mark everything, then clear the primes they report
+    public void markAllComposite() {
+        Arrays.fill(compositeBits, -1L);
+        evenFrontier = upperBound;
+    }
+
+    public long memoryBytes() {
+        return 8L * compositeBits.length;
+    }
+}
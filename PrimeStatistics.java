@@ -0,0 +1,130 @@
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+// Statistics over a stream of primes in increasing order, collected in one pass:
+// count, twin prime pairs, the largest gap and how the primes spread over the
+// residues mod a few small k. Everything is a primitive accumulator, and two
+// partials over neighbouring ranges merge by looking only at the seam between
+// them, so every chunk of a parallel sieve can keep its own and combine at the end.
+public class PrimeStatistics implements LongConsumer {
+    static final int[] MODULI = {3, 4, 6, 10, 12};
+
+    long count;
+    long first = -1;
+    long last = -1;
+    long twinPairs;     // pairs (p, p + 2)
+    long maxGap;        // largest difference between consecutive primes
+    long maxGapStart;   // the prime that gap starts at
+    final long[][] residues = new long[MODULI.length][]; // residues[m][r]: primes = r mod MODULI[m]
+
+    // Filled by countGoldbachPairs
+    long goldbachEven = -1;
+    long goldbachPairs;
+
+    public PrimeStatistics() {
+        for (int m = 0; m < MODULI.length; m++) {
+            residues[m] = new long[MODULI[m]];
+        }
+    }
+
+    @Override
+    public void accept(long prime) {
+        if (last >= 0) {
+            long gap = prime - last;
+            if (gap == 2) twinPairs++;
+            if (gap > maxGap) {
+                maxGap = gap;
+                maxGapStart = last;
+            }
+        } else {
+            first = prime;
+        }
+        last = prime;
+        count++;
+        for (int m = 0; m < MODULI.length; m++) {
+            residues[m][(int) (prime % MODULI[m])]++;
+        }
+    }
+
+    // Adds the statistics of the primes that come right after these; returns this
+    public PrimeStatistics merge(PrimeStatistics next) {
+        if (next.count == 0) return this;
+        if (count == 0) {
+            first = next.first;
+        } else {
+            // The pair of primes on either side of the seam
+            long gap = next.first - last;
+            if (gap == 2) twinPairs++;
+            if (gap > maxGap) {
+                maxGap = gap;
+                maxGapStart = last;
+            }
+        }
+        if (next.maxGap > maxGap) {
+            maxGap = next.maxGap;
+            maxGapStart = next.maxGapStart;
+        }
+        twinPairs += next.twinPairs;
+        count += next.count;
+        last = next.last;
+        for (int m = 0; m < MODULI.length; m++) {
+            for (int r = 0; r < MODULI[m]; r++) {
+                residues[m][r] += next.residues[m][r];
+            }
+        }
+        return this;
+    }
+
+    // One pass over the bitset of the storage, 64 odd numbers per word
+    public static PrimeStatistics of(PrimeSieveStorage storage) {
+        PrimeStatistics statistics = new PrimeStatistics();
+        if (storage.lowerBound <= 2 && storage.upperBound >= 2 && storage.isPrime(storage.indexOf(2))) {
+            statistics.accept(2);
+        }
+        long[] bits = storage.compositeBits;
+        for (int w = 0; w < bits.length; w++) {
+            long open = ~bits[w];
+            while (open != 0) {
+                long n = storage.firstOdd + 2 * (64L * w + Long.numberOfTrailingZeros(open));
+                open &= open - 1;
+                if (n > storage.upperBound) break;
+                if (n >= 3) statistics.accept(n);
+            }
+        }
+        return statistics;
+    }
+
+    // Ways to write 'even' as p + q with p <= q both prime, looked up with isPrime
+    public void countGoldbachPairs(long even, LongPredicate isPrime) {
+        goldbachEven = even;
+        goldbachPairs = 0;
+        if (even == 4) {
+            goldbachPairs = isPrime.test(2) ? 1 : 0;
+            return;
+        }
+        for (long p = 3; p <= even / 2; p += 2) {
+            if (isPrime.test(p) && isPrime.test(even - p)) goldbachPairs++;
+        }
+    }
+
+    public String format() {
+        StringBuilder text = new StringBuilder();
+        text.append("• Twin prime pairs: ").append(twinPairs).append("\n");
+        if (count > 1) {
+            text.append("• Largest gap: ").append(maxGap).append(" (").append(maxGapStart)
+                    .append(" to ").append(maxGapStart + maxGap).append(")\n");
+            text.append("• Average gap: ").append(String.format("%.2f", (double) (last - first) / (count - 1))).append("\n");
+        }
+        if (goldbachEven >= 0) {
+            text.append("• Goldbach pairs for ").append(goldbachEven).append(": ").append(goldbachPairs).append("\n");
+        }
+        for (int m = 0; m < MODULI.length; m++) {
+            text.append("• mod ").append(MODULI[m]).append(":");
+            for (int r = 0; r < MODULI[m]; r++) {
+                if (residues[m][r] > 0) text.append(" ").append(r).append("→").append(residues[m][r]);
+            }
+            text.append("\n");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,189 @@
+// QuickSortVisualizer's player, see SortStepper. A tick plays events up to the next
+// one worth a frame: the pivot of a new partition, or a swap inside the current one.
+// Comparisons only move the scan pointers. Introsort ranges sorted another way get a
+// tick of their own when they start, then one per heapsort swap or per inserted key.
+// The completion tick counts as a step too, and so do events left after the last
+// of those, as the sift-down that closes a heapsort can leave.
+public class QuickSortStepper implements SortStepper {
+    // What a tick did
+    static final int PARTITION_STARTED = 1;
+    static final int POINTERS_SWAPPED = 2;
+    static final int PIVOT_PLACED = 3;
+    static final int RANGE_STARTED = 4; // an Introsort range that is not partitioned
+    static final int HEAP_SWAPPED = 5;
+    static final int KEY_PLACED = 6;
+    static final int TRACE_ENDED = 7;   // the sift-down closing a heapsort left events after its last swap
+
+    // Techniques an Introsort range can be sorted with
+    static final int PARTITION = 0;
+    static final int HEAPSORT = 1;
+    static final int INSERTION = 2;
+
+    final int[] array;
+    int traceStep = 0;
+    int currentStep = 0;
+    int currentLow;
+    int currentHigh;
+    int pivotIndex = -1;
+    int pivotValue = -1;
+    int leftPointer = -1;
+    int rightPointer = -1;
+    boolean isPartitioning = false;
+    int swapIndex1 = -1;
+    int swapIndex2 = -1;
+    int pendingPartitions = 1; // partitions still waiting, mirrors the engine's call stack
+    int recursionDepth = 0;
+    int technique = PARTITION; // how the current range is sorted, Introsort switches per range
+    int placedAt = -1;         // where the last PIVOT_PLACED tick put the pivot
+
+    QuickSortStepper(int[] array) {
+        this.array = array;
+        currentHigh = array.length - 1;
+    }
+
+    public int step(SortTracer.Events trace) {
+        currentStep++;
+        if (traceStep >= trace.size()) {
+            pivotIndex = -1;
+            leftPointer = -1;
+            rightPointer = -1;
+            currentLow = -1;
+            currentHigh = -1;
+            return DONE;
+        }
+
+        int keyIndex = -1;
+        while (traceStep < trace.size()) {
+            int op = trace.op(traceStep);
+            int a = trace.a(traceStep);
+            int b = trace.b(traceStep);
+            traceStep++;
+
+            if (op == SortTrace.RANGE) {
+                currentLow = a;
+                currentHigh = b;
+                isPartitioning = false;
+                swapIndex1 = -1;
+                swapIndex2 = -1;
+                technique = techniqueAt(trace, traceStep);
+                if (technique != PARTITION) {
+                    // Sorted here in one go, so the range leaves the call stack as it starts
+                    recursionDepth = pendingPartitions;
+                    pendingPartitions--;
+                    return RANGE_STARTED;
+                }
+            } else if (technique == HEAPSORT) {
+                if (op == SortTrace.SWAP) {
+                    swapIndex1 = a;
+                    swapIndex2 = b;
+                    SortTrace.apply(array, op, a, b);
+                    return HEAP_SWAPPED;
+                }
+            } else if (technique == INSERTION) {
+                if (op == SortTrace.MARK) {
+                    keyIndex = a;
+                } else if (op == SortTrace.WRITE) {
+                    array[a] = b;
+                    if (keyPlaced(trace, traceStep)) {
+                        swapIndex1 = a;
+                        swapIndex2 = keyIndex;
+                        return KEY_PLACED;
+                    }
+                }
+            } else if (op == SortTrace.SWAP && !isPartitioning) {
+                // Chosen pivot parked at the high end before partitioning
+                SortTrace.apply(array, op, a, b);
+            } else if (op == SortTrace.MARK && b == SortTrace.PIVOT) {
+                pivotIndex = a;
+                pivotValue = array[a];
+                leftPointer = currentLow;
+                rightPointer = currentHigh - 1;
+                isPartitioning = true;
+                recursionDepth = pendingPartitions;
+                return PARTITION_STARTED;
+            } else if (op == SortTrace.MARK && b == SortTrace.LEFT) {
+                leftPointer = a;
+            } else if (op == SortTrace.MARK && b == SortTrace.RIGHT) {
+                rightPointer = a;
+            } else if (op == SortTrace.SWAP) {
+                if (b == currentHigh) {
+                    placePivot(a);
+                    return PIVOT_PLACED;
+                }
+                swapIndex1 = a;
+                swapIndex2 = b;
+                SortTrace.apply(array, op, a, b);
+                leftPointer = a + 1;
+                rightPointer = b - 1;
+                return POINTERS_SWAPPED;
+            }
+        }
+        return TRACE_ENDED;
+    }
+
+    void placePivot(int finalPivotPos) {
+        SortTrace.apply(array, SortTrace.SWAP, pivotIndex, finalPivotPos);
+        placedAt = finalPivotPos;
+
+        // This call is done; sub-arrays of two or more elements are queued
+        pendingPartitions--;
+        if (finalPivotPos + 1 < currentHigh) pendingPartitions++;
+        if (currentLow < finalPivotPos - 1) pendingPartitions++;
+
+        isPartitioning = false;
+        pivotIndex = -1;
+        leftPointer = -1;
+        rightPointer = -1;
+        swapIndex1 = -1;
+        swapIndex2 = -1;
+    }
+
+    // Technique of the range whose RANGE event comes right before 'step'
+    static int techniqueAt(SortTracer.Events trace, int step) {
+        if (step < trace.size() && trace.op(step) == SortTrace.MARK) {
+            if (trace.b(step) == SortTrace.HEAPIFY) return HEAPSORT;
+            if (trace.b(step) == SortTrace.KEY) return INSERTION;
+        }
+        return PARTITION;
+    }
+
+    // An insertion write places its key when no further compare or shift follows it
+    static boolean keyPlaced(SortTracer.Events trace, int step) {
+        return step >= trace.size() || (trace.op(step) != SortTrace.COMPARE && trace.op(step) != SortTrace.WRITE);
+    }
+
+    public int traceStep() {
+        return traceStep;
+    }
+
+    public int tick() {
+        return currentStep;
+    }
+
+    public int[] array() {
+        return array;
+    }
+
+    public int[] cursor() {
+        return new int[] {traceStep, currentStep, currentLow, currentHigh, pivotIndex, pivotValue,
+                leftPointer, rightPointer, isPartitioning ? 1 : 0, swapIndex1, swapIndex2,
+                pendingPartitions, recursionDepth, technique};
+    }
+
+    public void restore(int[] cursor) {
+        traceStep = cursor[0];
+        currentStep = cursor[1];
+        currentLow = cursor[2];
+        currentHigh = cursor[3];
+        pivotIndex = cursor[4];
+        pivotValue = cursor[5];
+        leftPointer = cursor[6];
+        rightPointer = cursor[7];
+        isPartitioning = cursor[8] == 1;
+        swapIndex1 = cursor[9];
+        swapIndex2 = cursor[10];
+        pendingPartitions = cursor[11];
+        recursionDepth = cursor[12];
+        technique = cursor[13];
+    }
+}
@@ -1,13 +1,15 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.Stack;
+import java.io.IOException;
+import java.util.function.IntBinaryOperator;
 
 public class QuickSortVisualizer extends JFrame {
     int[] array;
     int arraySize;
     JPanel arrayPanel, explanationPanel, pivotPanel;
-    JButton startButton, resetButton, customInputButton, pauseButton;
+    JButton startButton, resetButton, customInputButton, pauseButton, loadTraceButton;
+    JButton stepBackButton, seekButton;
     JSlider speedSlider;
     JLabel speedLabel, statusLabel, stepLabel, recursionLabel;
     JTextArea explanationArea;
@@ -17,25 +19,24 @@ public class QuickSortVisualizer extends JFrame {
     // Animation variables
     boolean isAnimating = false;
     boolean isPaused = false;
-    int currentLow = 0;
-    int currentHigh = 0;
-    int pivotIndex = -1;
-    int pivotValue = -1;
-    int leftPointer = -1;
-    int rightPointer = -1;
-    boolean isPartitioning = false;
-    boolean isSwapping = false;
-    int swapIndex1 = -1;
-    int swapIndex2 = -1;
-    int currentStep = 0;
     int totalSteps = 0;
-    int recursionDepth = 0;
 
-    // Stack for managing recursive calls
-    Stack<PartitionCall> callStack;
-
-    // Pivot selection modes
-    String[] pivotModes = {"First Element", "Last Element", "Middle Element", "Random Element", "Custom Index"};
+    // Recorded run being played back, and the player's position in it along with the
+    // partition, pointers and call stack on screen; the array it plays on is 'array'
+    SortTracer.Events trace;
+    QuickSortStepper player;
+    // Trace file opened with Load Trace; played instead of recording a new run
+    SortTraceFile loadedTrace;
+    // Snapshots taken during playback for seeking, and whether steps are being played
+    // unseen (replayed by a seek, or run ahead of the visible one in a turbo tick)
+    SortCheckpoints checkpoints;
+    boolean seeking = false;
+    // Turbo plays as many steps per frame as fit, see TurboPacer
+    JCheckBox turboCheckBox;
+    TurboPacer turbo = new TurboPacer();
+
+    // Pivot selection modes; Introsort picks its own (median of three)
+    String[] pivotModes = {"First Element", "Last Element", "Middle Element", "Random Element", "Custom Index", "Introsort"};
     String currentPivotMode = "Last Element";
     int customPivotIndex = -1;
 
@@ -47,19 +48,10 @@ public class QuickSortVisualizer extends JFrame {
     Color swapColor = new Color(255, 193, 7);
     Color sortedColor = new Color(155, 89, 182);
     Color partitionColor = new Color(108, 117, 125, 100);
+    Color heapsortRangeColor = new Color(230, 126, 34, 100);
+    Color insertionRangeColor = new Color(26, 188, 156, 100);
     Color borderColor = new Color(44, 62, 80);
 
-    class PartitionCall {
-        int low, high;
-        boolean isProcessed;
-
-        PartitionCall(int low, int high) {
-            this.low = low;
-            this.high = high;
-            this.isProcessed = false;
-        }
-    }
-
     public QuickSortVisualizer() {
         initializeGUI();
         generateRandomArray(12);
@@ -130,12 +122,16 @@ public class QuickSortVisualizer extends JFrame {
         customInputButton = createStyledButton("Custom Input", new Color(155, 89, 182));
         pauseButton = createStyledButton("Pause", new Color(255, 165, 0));
         pauseButton.setEnabled(false);
+        loadTraceButton = createStyledButton("Load Trace", new Color(52, 73, 94));
+        stepBackButton = createStyledButton("◀ Step Back", new Color(108, 117, 125));
+        seekButton = createStyledButton("Go to Step", new Color(108, 117, 125));
 
         // Add back button after customInputButton
         JButton backButton = createStyledButton("Back to Hub", new Color(100, 149, 237));
         backButton.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
                 if (animationTimer != null) animationTimer.stop();
+                if (trace != loadedTrace) SortTraceFile.closeQuietly(trace);
                 dispose(); // Close this window
             }
         });
@@ -159,6 +155,11 @@ public class QuickSortVisualizer extends JFrame {
         speedSlider.setBackground(new Color(248, 249, 250)); // FIX: Changed from 750 to 250
         speedSlider.setPreferredSize(new Dimension(200, 50));
 
+        turboCheckBox = new JCheckBox("Turbo");
+        turboCheckBox.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        turboCheckBox.setForeground(new Color(44, 62, 80));
+        turboCheckBox.setBackground(new Color(248, 249, 250));
+
         stepLabel = new JLabel("Step: 0 / 0");
         stepLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
         stepLabel.setForeground(new Color(44, 62, 80));
@@ -170,9 +171,13 @@ public class QuickSortVisualizer extends JFrame {
         controlPanel.add(startButton);
         controlPanel.add(resetButton);
         controlPanel.add(customInputButton);
+        controlPanel.add(loadTraceButton);
+        controlPanel.add(stepBackButton);
+        controlPanel.add(seekButton);
         controlPanel.add(Box.createHorizontalStrut(30));
         controlPanel.add(speedLabel);
         controlPanel.add(speedSlider);
+        controlPanel.add(turboCheckBox);
         controlPanel.add(Box.createHorizontalStrut(30));
         controlPanel.add(stepLabel);
         controlPanel.add(recursionLabel);
@@ -271,6 +276,24 @@ public class QuickSortVisualizer extends JFrame {
             }
         });
 
+        loadTraceButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                loadTraceFile();
+            }
+        });
+
+        stepBackButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                if (checkpoints != null) seekTo(player.currentStep - 1);
+            }
+        });
+
+        seekButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                showSeekDialog();
+            }
+        });
+
         // FIX: Create timer with dynamic delay based on speed slider
         animationTimer = new Timer(getAnimationDelay(), new ActionListener() {
             public void actionPerformed(ActionEvent e) {
@@ -285,6 +308,13 @@ public class QuickSortVisualizer extends JFrame {
             }
         });
 
+        turboCheckBox.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                turbo.reset();
+                animationTimer.setDelay(getAnimationDelay());
+            }
+        });
+
         updateInitialExplanation();
         pack();
         setLocationRelativeTo(null);
@@ -293,6 +323,7 @@ public class QuickSortVisualizer extends JFrame {
 
     // FIX: Add method to calculate animation delay based on slider value
     private int getAnimationDelay() {
+        if (turboCheckBox.isSelected()) return TurboPacer.FRAME_MILLIS;
         // Convert slider value (1-10) to delay (1000ms-100ms)
         // Higher slider value = faster animation = lower delay
         int sliderValue = speedSlider.getValue();
@@ -322,6 +353,7 @@ public class QuickSortVisualizer extends JFrame {
     }
 
     void generateRandomArray(int size) {
+        closeLoadedTrace();
         arraySize = size;
         array = new int[arraySize];
         for (int i = 0; i < arraySize; i++) {
@@ -340,21 +372,11 @@ public class QuickSortVisualizer extends JFrame {
     void resetSortingVariables() {
         isAnimating = false;
         isPaused = false;
-        currentLow = 0;
-        currentHigh = arraySize - 1;
-        pivotIndex = -1;
-        pivotValue = -1;
-        leftPointer = -1;
-        rightPointer = -1;
-        isPartitioning = false;
-        isSwapping = false;
-        swapIndex1 = -1;
-        swapIndex2 = -1;
-        currentStep = 0;
-        recursionDepth = 0;
-
-        callStack = new Stack<>();
-        callStack.push(new PartitionCall(0, arraySize - 1));
+
+        if (trace != loadedTrace) SortTraceFile.closeQuietly(trace); // a long run recorded to disk
+        trace = null;
+        player = new QuickSortStepper(array); // whole array as the first partition, one call pending
+        checkpoints = null;
 
         statusLabel.setText("<html><center>Ready to sort!<br>Select pivot strategy and click 'Start'</center></html>");
         stepLabel.setText("Step: 0 / " + totalSteps);
@@ -365,7 +387,14 @@ public class QuickSortVisualizer extends JFrame {
         if (animationTimer.isRunning()) {
             animationTimer.stop();
         }
-        generateRandomArray(arraySize);
+        if (loadedTrace != null) {
+            // A loaded trace can only be replayed from its own starting array
+            array = loadedTrace.initialArray().clone();
+            resetSortingVariables();
+            repaint();
+        } else {
+            generateRandomArray(arraySize);
+        }
         startButton.setText("Start Quick Sort");
         startButton.setEnabled(true);
         startButton.setBackground(new Color(46, 204, 113));
@@ -380,11 +409,11 @@ public class QuickSortVisualizer extends JFrame {
         JPanel inputPanel = new JPanel(new GridLayout(3, 2, 10, 10));
         inputPanel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
 
-        JLabel sizeLabel = new JLabel("Array Size (5-20):");
+        JLabel sizeLabel = new JLabel("Array Size (5-5000):");
         sizeLabel.setFont(new Font("Segoe UI", Font.BOLD, 12));
         JTextField sizeField = new JTextField("12");
 
-        JLabel elementsLabel = new JLabel("Elements (space-separated):");
+        JLabel elementsLabel = new JLabel("Elements (space-separated, empty for random):");
         elementsLabel.setFont(new Font("Segoe UI", Font.BOLD, 12));
         JTextField elementsField = new JTextField("64 34 25 12 22 11 90 88 76 50 42 30");
 
@@ -399,8 +428,14 @@ public class QuickSortVisualizer extends JFrame {
         if (result == JOptionPane.OK_OPTION) {
             try {
                 int size = Integer.parseInt(sizeField.getText().trim());
-                if (size < 5 || size > 20) {
-                    JOptionPane.showMessageDialog(this, "Size must be between 5 and 20");
+                if (size < 5 || size > 5000) {
+                    JOptionPane.showMessageDialog(this, "Size must be between 5 and 5000");
+                    return;
+                }
+
+                // Sizes past what anyone types in are filled with random values
+                if (elementsField.getText().trim().isEmpty()) {
+                    generateRandomArray(size);
                     return;
                 }
 
@@ -410,6 +445,7 @@ public class QuickSortVisualizer extends JFrame {
                     return;
                 }
 
+                closeLoadedTrace();
                 arraySize = size;
                 array = new int[arraySize];
                 for (int i = 0; i < arraySize; i++) {
@@ -430,6 +466,80 @@ public class QuickSortVisualizer extends JFrame {
         }
     }
 
+    // Opens a trace written by SortTraceFile and plays it from its starting array.
+    // Events are decoded from the mapped file a chunk at a time, so the file can be
+    // far larger than anything that would be recorded in memory here.
+    void loadTraceFile() {
+        if (isAnimating) return;
+
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        SortTraceFile loaded;
+        try {
+            loaded = SortTraceFile.open(chooser.getSelectedFile().toPath());
+        } catch (IOException | RuntimeException e) {
+            JOptionPane.showMessageDialog(this, "❌ Could not read trace file: " + e.getMessage());
+            return;
+        }
+        if (!loaded.algorithm.equals("Quick Sort") && !loaded.algorithm.equals("Introsort")) {
+            JOptionPane.showMessageDialog(this, "❌ This is a " + loaded.algorithm + " trace, not a Quick Sort or Introsort trace");
+            try {
+                loaded.close();
+            } catch (IOException ignored) {
+            }
+            return;
+        }
+
+        closeLoadedTrace();
+        loadedTrace = loaded;
+        array = loaded.initialArray().clone();
+        arraySize = array.length;
+        calculateTotalSteps();
+        resetSortingVariables();
+        repaint();
+        startQuickSort();
+    }
+
+    // Recording or preparing the trace failed: report it and hand the controls back
+    // with the array as it was
+    void traceFailed(Throwable cause) {
+        JOptionPane.showMessageDialog(this, "❌ Could not prepare the sort: " + cause,
+                "Sort Error", JOptionPane.ERROR_MESSAGE);
+        closeLoadedTrace();
+        resetSortingVariables();
+        startButton.setText("Start Quick Sort");
+        startButton.setEnabled(true);
+        startButton.setBackground(new Color(46, 204, 113));
+        pauseButton.setText("Pause");
+        pauseButton.setEnabled(false);
+        pauseButton.setBackground(new Color(255, 165, 0));
+        repaint();
+    }
+
+    void closeLoadedTrace() {
+        if (loadedTrace == null) return;
+        try {
+            loadedTrace.close();
+        } catch (IOException ignored) {
+        }
+        loadedTrace = null;
+    }
+
+    // The pivots of a loaded trace were chosen when it was written, not by the selector
+    String pivotStrategyName() {
+        return loadedTrace != null ? "recorded (" + loadedTrace.file.getFileName() + ")" : currentPivotMode;
+    }
+
+    boolean isIntrosort() {
+        return loadedTrace != null ? loadedTrace.algorithm.equals("Introsort") : currentPivotMode.equals("Introsort");
+    }
+
+    // Partition depth at which Introsort falls back to heapsort, as in SortTracer.intro
+    int introDepthLimit() {
+        return 2 * (31 - Integer.numberOfLeadingZeros(Math.max(1, arraySize)));
+    }
+
     void showCustomPivotDialog() {
         if (isAnimating) return;
 
@@ -468,15 +578,38 @@ public class QuickSortVisualizer extends JFrame {
         startButton.setBackground(new Color(231, 76, 60));
         pauseButton.setEnabled(true);
 
-        // FIX: Update timer delay when starting animation
-        animationTimer.setDelay(getAnimationDelay());
-        animationTimer.start();
+        // The whole sort is recorded off the EDT first; the timer only replays it.
+        // The pivot strategy is evaluated while recording, so random pivots are fixed here.
+        // Bad pivots make quick sort quadratic, so long runs are recorded to disk.
+        int[] input = array;
+        SortTraceFile file = loadedTrace;
+        String algorithm = isIntrosort() ? "Introsort" : "Quick Sort";
+        IntBinaryOperator pivotStrategy = pivotStrategy();
+        SortTracer.traceInBackground(() -> {
+            SortTracer.Events events = file != null ? file : SortTraceFile.recordOnHeapOrDisk(algorithm, input, pivotStrategy);
+            return new SortCheckpoints(events).take(new QuickSortStepper(events.initialArray().clone()));
+        }, prepared -> {
+            if (array != input || !isAnimating) { // array was replaced while tracing
+                if (prepared.trace != file) SortTraceFile.closeQuietly(prepared.trace);
+                return;
+            }
+            trace = prepared.trace;
+            totalSteps = prepared.ticks;
+            checkpoints = prepared;
+            turbo.reset();
+            stepLabel.setText("Step: 0 / " + totalSteps);
+            animationTimer.setDelay(getAnimationDelay());
+            if (!isPaused) animationTimer.start();
+        }, cause -> {
+            if (array != input || !isAnimating) return; // array was replaced while tracing
+            traceFailed(cause);
+        });
 
-        statusLabel.setText("<html><center>Starting Quick Sort...<br>Using " + currentPivotMode + " strategy</center></html>");
+        statusLabel.setText("<html><center>Starting Quick Sort...<br>Using " + pivotStrategyName() + " strategy</center></html>");
         updateExplanation("QUICK SORT STARTED!\n\n" +
                 "Quick Sort is a divide-and-conquer algorithm that works by selecting a 'pivot' element " +
                 "and partitioning the array around it.\n\n" +
-                "PIVOT STRATEGY: " + currentPivotMode + "\n\n" +
+                "PIVOT STRATEGY: " + pivotStrategyName() + "\n\n" +
                 "ALGORITHM STEPS:\n" +
                 "1. Choose a pivot element\n" +
                 "2. Partition: rearrange array so elements smaller than pivot come before it, " +
@@ -491,7 +624,7 @@ public class QuickSortVisualizer extends JFrame {
                 isPaused = false;
                 animationTimer.start();
                 pauseButton.setText("Pause");
-                statusLabel.setText("<html><center>Resumed Quick Sort...<br>Using " + currentPivotMode + " strategy</center></html>");
+                statusLabel.setText("<html><center>Resumed Quick Sort...<br>Using " + pivotStrategyName() + " strategy</center></html>");
             } else {
                 isPaused = true;
                 animationTimer.stop();
@@ -502,12 +635,35 @@ public class QuickSortVisualizer extends JFrame {
     }
 
     void performQuickSortStep() {
-        if (isPaused) return;
+        if (isPaused || trace == null) return;
+        if (turboCheckBox.isSelected()) {
+            playTurboTick();
+        } else {
+            playStep();
+        }
+    }
+
+    // Plays the steps of one turbo tick unseen, then the last one as usual
+    void playTurboTick() {
+        long start = System.nanoTime();
+        int steps = turbo.steps();
+        int played = 1;
+        seeking = true;
+        while (played < steps && player.traceStep < trace.size()) {
+            playStep();
+            played++;
+        }
+        seeking = false;
+        playStep();
+        turbo.tickDone(played, System.nanoTime() - start);
+    }
 
-        currentStep++;
-        stepLabel.setText("Step: " + currentStep + " / " + totalSteps);
+    // Plays one step. While seeking only the state moves on; nothing is drawn.
+    void playStep() {
+        int played = player.step(trace);
+        if (!seeking) stepLabel.setText("Step: " + player.currentStep + " / " + totalSteps);
 
-        if (callStack.isEmpty()) {
+        if (played == SortStepper.DONE) {
             // Sorting complete
             animationTimer.stop();
             isAnimating = false;
@@ -518,7 +674,7 @@ public class QuickSortVisualizer extends JFrame {
             updateExplanation("QUICK SORT COMPLETED!\n\n" +
                     "Congratulations! The quick sort algorithm has successfully sorted the array.\n\n" +
                     "SUMMARY:\n" +
-                    "• Used " + currentPivotMode + " pivot selection strategy\n" +
+                    "• Used " + pivotStrategyName() + " pivot selection strategy\n" +
                     "• Divided the problem into smaller sub-problems\n" +
                     "• Conquered each sub-problem recursively\n" +
                     "• Combined results to get the final sorted array\n\n" +
@@ -529,142 +685,215 @@ public class QuickSortVisualizer extends JFrame {
                     "• Space Complexity: O(log n) - for recursion stack\n\n" +
                     "Quick sort is widely used due to its excellent average-case performance!");
 
-            // Reset visual indicators
-            pivotIndex = -1;
-            leftPointer = -1;
-            rightPointer = -1;
-            currentLow = -1;
-            currentHigh = -1;
+            // The player has cleared the visual indicators
             repaint();
             return;
         }
+        if (seeking) return;
+
+        if (played == QuickSortStepper.PARTITION_STARTED) {
+            explainPartition();
+        } else if (played == QuickSortStepper.POINTERS_SWAPPED) {
+            explainPointerSwap();
+        } else if (played == QuickSortStepper.PIVOT_PLACED) {
+            explainPivotPlaced(player.placedAt);
+        } else if (played == QuickSortStepper.RANGE_STARTED) {
+            explainFallbackRange();
+        } else if (played == QuickSortStepper.HEAP_SWAPPED) {
+            explainHeapSwap(player.swapIndex1, player.swapIndex2);
+        } else if (played == QuickSortStepper.KEY_PLACED) {
+            explainKey(player.swapIndex1, player.swapIndex2);
+        }
+        repaint();
+    }
 
-        PartitionCall currentCall = callStack.peek();
-
-        if (!currentCall.isProcessed) {
-            // Start new partition
-            currentLow = currentCall.low;
-            currentHigh = currentCall.high;
+    void explainPartition() {
+        recursionLabel.setText("Recursion Depth: " + player.recursionDepth);
+
+        statusLabel.setText("<html><center>Partitioning [" + player.currentLow + ", " + player.currentHigh + "]<br>" +
+                "Pivot: " + player.pivotValue + " at index " + player.pivotIndex + "</center></html>");
+        updateExplanation("NEW PARTITION CALL\n\n" +
+                "Range: [" + player.currentLow + ", " + player.currentHigh + "]\n" +
+                "Pivot selected: " + player.pivotValue + " (index " + player.pivotIndex + ")\n" +
+                "Strategy: " + currentPivotMode + "\n\n" +
+                "PARTITIONING PROCESS:\n" +
+                "We'll use two pointers - left pointer starts at " + player.leftPointer +
+                ", right pointer starts at " + player.rightPointer + ".\n\n" +
+                "Goal: Move all elements ≤ " + player.pivotValue + " to the left side, " +
+                "and all elements > " + player.pivotValue + " to the right side.\n\n" +
+                "Current recursion depth: " + player.recursionDepth);
+    }
 
-            if (currentLow < currentHigh) {
-                // Choose pivot
-                pivotIndex = choosePivot(currentLow, currentHigh);
-                pivotValue = array[pivotIndex];
+    void explainPointerSwap() {
+        statusLabel.setText("<html><center>Swapping elements<br>" +
+                array[player.swapIndex2] + " ↔ " + array[player.swapIndex1] + "</center></html>");
+        updateExplanation("SWAPPING ELEMENTS\n\n" +
+                "Found " + array[player.swapIndex2] + " at index " + player.swapIndex1 + " (should be on right)\n" +
+                "Found " + array[player.swapIndex1] + " at index " + player.swapIndex2 + " (should be on left)\n\n" +
+                "Swapping these elements to maintain partition property:\n" +
+                "• Left side: elements ≤ " + player.pivotValue + "\n" +
+                "• Right side: elements > " + player.pivotValue + "\n\n" +
+                "Continuing partition process...");
+    }
 
-                // Move pivot to end for partitioning
-                if (pivotIndex != currentHigh) {
-                    swap(pivotIndex, currentHigh);
-                    pivotIndex = currentHigh;
-                }
+    // Partitioning complete - the pivot is in its correct position
+    void explainPivotPlaced(int finalPivotPos) {
+        statusLabel.setText("<html><center>Partition complete!<br>" +
+                "Pivot " + player.pivotValue + " placed at index " + finalPivotPos + "</center></html>");
+        updateExplanation("PARTITION COMPLETED!\n\n" +
+                "Pivot " + player.pivotValue + " is now in its final sorted position at index " + finalPivotPos + ".\n\n" +
+                "PARTITION RESULT:\n" +
+                "• Elements at indices [" + player.currentLow + ", " + (finalPivotPos-1) + "] are ≤ " + player.pivotValue + "\n" +
+                "• Elements at indices [" + (finalPivotPos+1) + ", " + player.currentHigh + "] are > " + player.pivotValue + "\n\n" +
+                "RECURSIVE CALLS:\n" +
+                "Now we'll recursively sort the two sub-arrays:\n" +
+                "1. Left sub-array: [" + player.currentLow + ", " + (finalPivotPos-1) + "]\n" +
+                "2. Right sub-array: [" + (finalPivotPos+1) + ", " + player.currentHigh + "]\n\n" +
+                "Adding these calls to the stack...");
+    }
 
-                // Initialize pointers
-                leftPointer = currentLow;
-                rightPointer = currentHigh - 1;
-                isPartitioning = true;
-
-                recursionDepth = callStack.size();
-                recursionLabel.setText("Recursion Depth: " + recursionDepth);
-
-                statusLabel.setText("<html><center>Partitioning [" + currentLow + ", " + currentHigh + "]<br>" +
-                        "Pivot: " + pivotValue + " at index " + pivotIndex + "</center></html>");
-                updateExplanation("NEW PARTITION CALL\n\n" +
-                        "Range: [" + currentLow + ", " + currentHigh + "]\n" +
-                        "Pivot selected: " + pivotValue + " (index " + pivotIndex + ")\n" +
-                        "Strategy: " + currentPivotMode + "\n\n" +
-                        "PARTITIONING PROCESS:\n" +
-                        "We'll use two pointers - left pointer starts at " + leftPointer +
-                        ", right pointer starts at " + rightPointer + ".\n\n" +
-                        "Goal: Move all elements ≤ " + pivotValue + " to the left side, " +
-                        "and all elements > " + pivotValue + " to the right side.\n\n" +
-                        "Current recursion depth: " + recursionDepth);
-            } else {
-                // Base case - single element or empty
-                callStack.pop();
-                statusLabel.setText("<html><center>Base case reached<br>Range [" + currentLow + ", " + currentHigh + "] complete</center></html>");
-            }
+    // An Introsort range that is not partitioned: it is sorted here in one go, so it
+    // leaves the call stack as it starts
+    void explainFallbackRange() {
+        recursionLabel.setText("Recursion Depth: " + player.recursionDepth);
+
+        int size = player.currentHigh - player.currentLow + 1;
+        if (player.technique == QuickSortStepper.HEAPSORT) {
+            statusLabel.setText("<html><center>Depth limit reached<br>Heapsorting [" + player.currentLow + ", " + player.currentHigh + "]</center></html>");
+            updateExplanation("INTROSORT: HEAPSORT FALLBACK\n\n" +
+                    "Range: [" + player.currentLow + ", " + player.currentHigh + "] (" + size + " elements)\n\n" +
+                    "This range sits below " + introDepthLimit() + " levels of partitions (2·log₂ " + arraySize + "). " +
+                    "Partitioning that deep means the pivots keep splitting badly, which is how quick sort " +
+                    "drifts towards O(n²).\n\n" +
+                    "Introsort stops partitioning here and heap sorts the range in place instead:\n" +
+                    "1. Build a max heap inside the range\n" +
+                    "2. Swap the maximum to the end of the range and sift the new root down\n" +
+                    "3. Repeat until the heap is empty\n\n" +
+                    "Heapsort is O(n log n) on any input, so the whole sort stays O(n log n).");
+        } else {
+            statusLabel.setText("<html><center>Small range<br>Insertion sorting [" + player.currentLow + ", " + player.currentHigh + "]</center></html>");
+            updateExplanation("INTROSORT: INSERTION SORT\n\n" +
+                    "Range: [" + player.currentLow + ", " + player.currentHigh + "] (" + size + " elements)\n\n" +
+                    "Ranges of " + SortTracer.INTRO_INSERTION_SIZE + " elements or fewer are not worth a pivot " +
+                    "and two more calls. Introsort finishes them with insertion sort: each element is shifted " +
+                    "left past the larger ones before it until it reaches its place.");
+        }
+    }
 
-            currentCall.isProcessed = true;
+    void explainHeapSwap(int i, int j) {
+        // An extraction is followed by the sift-down of the new root, a sift-down swap
+        // by the next level of the same sift-down
+        boolean extraction = player.traceStep < trace.size() && trace.op(player.traceStep) == SortTrace.MARK
+                && trace.a(player.traceStep) == player.currentLow;
+        if (extraction) {
+            statusLabel.setText("<html><center>Heapsort: maximum " + array[j] + "<br>moved to index " + j + "</center></html>");
+            updateExplanation("HEAPSORT EXTRACTION\n\n" +
+                    "The root of the heap at index " + player.currentLow + " holds the largest value left in the heap.\n" +
+                    "Swapping it to index " + j + " puts " + array[j] + " in its final place; the heap shrinks " +
+                    "by one and the new root is sifted down.");
         } else {
-            // Continue partitioning
-            if (isPartitioning) {
-                performPartitionStep();
-            }
+            statusLabel.setText("<html><center>Heapsort: sifting down<br>" +
+                    array[j] + " ↔ " + array[i] + "</center></html>");
+            updateExplanation("HEAPSORT SIFT-DOWN\n\n" +
+                    "The larger child " + array[i] + " moves up to index " + i + " and " + array[j] +
+                    " moves down to index " + j + ", restoring the max heap property inside [" +
+                    player.currentLow + ", " + player.currentHigh + "].");
         }
+    }
 
-        repaint();
+    void explainKey(int position, int keyIndex) {
+        statusLabel.setText("<html><center>Insertion sort: " + array[position] + "<br>inserted at index " + position + "</center></html>");
+        updateExplanation("INSERTION SORT STEP\n\n" +
+                "Key " + array[position] + " taken from index " + keyIndex + " and inserted at index " + position + ".\n" +
+                "Elements [" + player.currentLow + ", " + keyIndex + "] of this range are now in order.");
     }
 
-    void performPartitionStep() {
-        // Find element from left that should be on right
-        while (leftPointer <= rightPointer && array[leftPointer] <= pivotValue) {
-            leftPointer++;
+    // Shows the state after the given number of steps. The nearest checkpoint at or
+    // before the step before it is restored (unless the player is already between the
+    // two), the steps in between are replayed unseen and the last one is shown as usual.
+    void seekTo(int step) {
+        step = Math.max(0, Math.min(step, totalSteps));
+        int target = Math.max(0, step - 1);
+        SortCheckpoints.Checkpoint nearest = checkpoints.floor(target);
+        boolean restore = player.currentStep > target || nearest.tick > player.currentStep;
+        if (restore && !checkpoints.restorable(nearest)) {
+            JOptionPane.showMessageDialog(this, "Step " + step + " is too far from the saved states of this trace to jump to.\n" +
+                    "Let the sort play forward to it instead.");
+            return;
         }
+        pausePlayback();
 
-        // Find element from right that should be on left
-        while (leftPointer <= rightPointer && array[rightPointer] > pivotValue) {
-            rightPointer--;
+        if (restore) {
+            checkpoints.restore(nearest, player);
+        }
+        seeking = true;
+        while (player.currentStep < target && player.traceStep < trace.size()) {
+            playStep();
         }
+        seeking = false;
 
-        if (leftPointer < rightPointer) {
-            // Swap elements
-            swapIndex1 = leftPointer;
-            swapIndex2 = rightPointer;
-            swap(leftPointer, rightPointer);
-
-            statusLabel.setText("<html><center>Swapping elements<br>" +
-                    array[swapIndex2] + " ↔ " + array[swapIndex1] + "</center></html>");
-            updateExplanation("SWAPPING ELEMENTS\n\n" +
-                    "Found " + array[swapIndex2] + " at index " + swapIndex1 + " (should be on right)\n" +
-                    "Found " + array[swapIndex1] + " at index " + swapIndex2 + " (should be on left)\n\n" +
-                    "Swapping these elements to maintain partition property:\n" +
-                    "• Left side: elements ≤ " + pivotValue + "\n" +
-                    "• Right side: elements > " + pivotValue + "\n\n" +
-                    "Continuing partition process...");
-
-            leftPointer++;
-            rightPointer--;
+        if (step > 0) {
+            playStep();
         } else {
-            // Partitioning complete - place pivot in correct position
-            int finalPivotPos = leftPointer;
-            swap(pivotIndex, finalPivotPos);
-
-            statusLabel.setText("<html><center>Partition complete!<br>" +
-                    "Pivot " + pivotValue + " placed at index " + finalPivotPos + "</center></html>");
-            updateExplanation("PARTITION COMPLETED!\n\n" +
-                    "Pivot " + pivotValue + " is now in its final sorted position at index " + finalPivotPos + ".\n\n" +
-                    "PARTITION RESULT:\n" +
-                    "• Elements at indices [" + currentLow + ", " + (finalPivotPos-1) + "] are ≤ " + pivotValue + "\n" +
-                    "• Elements at indices [" + (finalPivotPos+1) + ", " + currentHigh + "] are > " + pivotValue + "\n\n" +
-                    "RECURSIVE CALLS:\n" +
-                    "Now we'll recursively sort the two sub-arrays:\n" +
-                    "1. Left sub-array: [" + currentLow + ", " + (finalPivotPos-1) + "]\n" +
-                    "2. Right sub-array: [" + (finalPivotPos+1) + ", " + currentHigh + "]\n\n" +
-                    "Adding these calls to the stack...");
-
-            // Remove current call and add sub-problems
-            callStack.pop();
-
-            // Add right sub-array first (will be processed after left)
-            if (finalPivotPos + 1 < currentHigh) {
-                callStack.push(new PartitionCall(finalPivotPos + 1, currentHigh));
-            }
+            stepLabel.setText("Step: 0 / " + totalSteps);
+            statusLabel.setText("<html><center>Back at the start<br>Click Resume to play</center></html>");
+            updateExplanation("Rewound to the unsorted array. Step forward with Resume, or jump with Go to Step.");
+            repaint();
+        }
+        recursionLabel.setText("Recursion Depth: " + player.recursionDepth);
+    }
 
-            // Add left sub-array
-            if (currentLow < finalPivotPos - 1) {
-                callStack.push(new PartitionCall(currentLow, finalPivotPos - 1));
-            }
+    void showSeekDialog() {
+        if (checkpoints == null) return;
 
-            isPartitioning = false;
-            pivotIndex = -1;
-            leftPointer = -1;
-            rightPointer = -1;
-            swapIndex1 = -1;
-            swapIndex2 = -1;
+        String input = JOptionPane.showInputDialog(this,
+                "Go to step (0 to " + totalSteps + "):", String.valueOf(player.currentStep));
+        if (input == null) return;
+        try {
+            int step = Integer.parseInt(input.trim());
+            if (step < 0 || step > totalSteps) {
+                JOptionPane.showMessageDialog(this, "Step must be between 0 and " + totalSteps);
+                return;
+            }
+            seekTo(step);
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Please enter a valid step number");
         }
     }
 
-    int choosePivot(int low, int high) {
-        switch (currentPivotMode) {
+    // Seeking stops the timer; a finished run becomes a paused one again
+    void pausePlayback() {
+        animationTimer.stop();
+        isAnimating = true;
+        isPaused = true;
+        startButton.setText("⏸ Sorting...");
+        startButton.setEnabled(false);
+        startButton.setBackground(new Color(231, 76, 60));
+        pauseButton.setEnabled(true);
+        pauseButton.setText("Resume");
+    }
+
+    Color rangeColor() {
+        if (player.technique == QuickSortStepper.HEAPSORT) return heapsortRangeColor;
+        if (player.technique == QuickSortStepper.INSERTION) return insertionRangeColor;
+        return partitionColor;
+    }
+
+    String rangeLabel() {
+        if (player.technique == QuickSortStepper.HEAPSORT) return "Heapsort Range [" + player.currentLow + ", " + player.currentHigh + "]";
+        if (player.technique == QuickSortStepper.INSERTION) return "Insertion Sort Range [" + player.currentLow + ", " + player.currentHigh + "]";
+        return "Current Partition [" + player.currentLow + ", " + player.currentHigh + "]";
+    }
+
+    // The selected pivot rule with its settings copied, safe to call from the tracing thread
+    IntBinaryOperator pivotStrategy() {
+        String mode = currentPivotMode;
+        int custom = customPivotIndex;
+        return (low, high) -> choosePivot(mode, custom, low, high);
+    }
+
+    static int choosePivot(String mode, int customPivotIndex, int low, int high) {
+        switch (mode) {
             case "First Element":
                 return low;
             case "Last Element":
@@ -692,6 +921,10 @@ public class QuickSortVisualizer extends JFrame {
 
     void drawArray(Graphics2D g2d) {
         if (array == null) return;
+        if (arraySize > SortPlots.MAX_BOX_ELEMENTS) {
+            drawCompactArray(g2d);
+            return;
+        }
 
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
@@ -704,17 +937,16 @@ public class QuickSortVisualizer extends JFrame {
         int startY = (panelHeight - boxHeight) / 2;
 
         // Draw partition background
-        if (isAnimating && currentLow >= 0 && currentHigh >= 0) {
-            int partitionStartX = startX + currentLow * (boxWidth + 12);
-            int partitionWidth = (currentHigh - currentLow + 1) * (boxWidth + 12) - 12;
-            g2d.setColor(partitionColor);
+        if (isAnimating && player.currentLow >= 0 && player.currentHigh >= 0) {
+            int partitionStartX = startX + player.currentLow * (boxWidth + 12);
+            int partitionWidth = (player.currentHigh - player.currentLow + 1) * (boxWidth + 12) - 12;
+            g2d.setColor(rangeColor());
             g2d.fillRoundRect(partitionStartX - 5, startY - 10, partitionWidth + 10, boxHeight + 20, 10, 10);
 
             // Draw partition label
             g2d.setColor(new Color(44, 62, 80));
             g2d.setFont(new Font("Segoe UI", Font.BOLD, 12));
-            g2d.drawString("Current Partition [" + currentLow + ", " + currentHigh + "]",
-                    partitionStartX, startY - 15);
+            g2d.drawString(rangeLabel(), partitionStartX, startY - 15);
         }
 
         // Draw array elements
@@ -728,19 +960,19 @@ public class QuickSortVisualizer extends JFrame {
             boolean isHighlighted = false;
 
             if (isAnimating) {
-                if (i == pivotIndex) {
+                if (i == player.pivotIndex) {
                     boxColor = pivotColor;
                     textColor = Color.WHITE;
                     isHighlighted = true;
-                } else if (i == leftPointer) {
+                } else if (i == player.leftPointer) {
                     boxColor = leftPointerColor;
                     textColor = Color.WHITE;
                     isHighlighted = true;
-                } else if (i == rightPointer) {
+                } else if (i == player.rightPointer) {
                     boxColor = rightPointerColor;
                     textColor = Color.WHITE;
                     isHighlighted = true;
-                } else if (i == swapIndex1 || i == swapIndex2) {
+                } else if (i == player.swapIndex1 || i == player.swapIndex2) {
                     boxColor = swapColor;
                     textColor = new Color(44, 62, 80);
                     isHighlighted = true;
@@ -786,13 +1018,13 @@ public class QuickSortVisualizer extends JFrame {
             // Draw pointer labels
             if (isAnimating) {
                 g2d.setFont(new Font("Segoe UI", Font.BOLD, 10));
-                if (i == leftPointer) {
+                if (i == player.leftPointer) {
                     g2d.setColor(leftPointerColor);
                     g2d.drawString("LEFT", x + (boxWidth - g2d.getFontMetrics().stringWidth("LEFT")) / 2, y - 5);
-                } else if (i == rightPointer) {
+                } else if (i == player.rightPointer) {
                     g2d.setColor(rightPointerColor);
                     g2d.drawString("RIGHT", x + (boxWidth - g2d.getFontMetrics().stringWidth("RIGHT")) / 2, y - 5);
-                } else if (i == pivotIndex) {
+                } else if (i == player.pivotIndex) {
                     g2d.setColor(pivotColor);
                     g2d.drawString("PIVOT", x + (boxWidth - g2d.getFontMetrics().stringWidth("PIVOT")) / 2, y - 5);
                 }
@@ -803,14 +1035,53 @@ public class QuickSortVisualizer extends JFrame {
         drawLegend(g2d);
     }
 
+    // Bars for arrays too long for one box per element, with the partition shaded and
+    // the pivot and scan pointers as vertical lines
+    void drawCompactArray(Graphics2D g2d) {
+        int width = arrayPanel.getWidth() - 200;
+        int height = arrayPanel.getHeight() - 80;
+        int left = 160;
+        int top = 40;
+        if (width <= 0 || height <= 0) return;
+
+        g2d.drawImage(SortPlots.valueBars(array, width, height, defaultColor.darker().darker().getRGB(), Color.WHITE.getRGB()), left, top, null);
+        if (isAnimating && player.currentLow >= 0 && player.currentHigh >= 0) {
+            int x1 = left + SortPlots.columnOf(player.currentLow, arraySize, width);
+            int x2 = left + SortPlots.columnOf(player.currentHigh, arraySize, width);
+            g2d.setColor(rangeColor());
+            g2d.fillRect(x1, top, x2 - x1 + 1, height);
+            g2d.setColor(new Color(44, 62, 80));
+            g2d.setFont(new Font("Segoe UI", Font.BOLD, 12));
+            g2d.drawString(rangeLabel(), x1, top + height + 18);
+
+            int[] marked = {player.swapIndex1, player.swapIndex2, player.leftPointer, player.rightPointer, player.pivotIndex};
+            Color[] markColors = {swapColor, swapColor, leftPointerColor, rightPointerColor, pivotColor};
+            for (int k = 0; k < marked.length; k++) {
+                if (marked[k] < 0) continue;
+                int x = left + SortPlots.columnOf(marked[k], arraySize, width);
+                g2d.setColor(markColors[k]);
+                g2d.drawLine(x, top, x, top + height);
+            }
+        }
+        g2d.setColor(borderColor);
+        g2d.drawRect(left, top, width, height);
+        drawLegend(g2d);
+    }
+
     boolean isSorted(int index) {
         // Simple heuristic - if element is not in current partition range, consider it sorted
-        return isAnimating && (index < currentLow || index > currentHigh);
+        return isAnimating && (index < player.currentLow || index > player.currentHigh);
     }
 
     void drawLegend(Graphics2D g2d) {
         String[] labels = {"Unsorted", "Pivot", "Left Pointer", "Right Pointer", "Swapping", "Sorted"};
         Color[] colors = {defaultColor, pivotColor, leftPointerColor, rightPointerColor, swapColor, sortedColor};
+        if (isIntrosort()) {
+            labels = new String[] {"Unsorted", "Pivot", "Left Pointer", "Right Pointer", "Swapping", "Sorted",
+                    "Partition Range", "Heapsort Range", "Insertion Range"};
+            colors = new Color[] {defaultColor, pivotColor, leftPointerColor, rightPointerColor, swapColor, sortedColor,
+                    partitionColor, heapsortRangeColor, insertionRangeColor};
+        }
 
         int legendX = 20;
         int legendY = 20;
@@ -844,7 +1115,9 @@ public class QuickSortVisualizer extends JFrame {
                 "• Last Element: Most common implementation\n" +
                 "• Middle Element: Often provides better balance\n" +
                 "• Random Element: Helps avoid worst-case scenarios\n" +
-                "• Custom Index: Choose your own pivot position\n\n" +
+                "• Custom Index: Choose your own pivot position\n" +
+                "• Introsort: Median-of-three pivots, heapsort once partitions get 2·log₂ n deep, " +
+                "insertion sort for ranges of " + SortTracer.INTRO_INSERTION_SIZE + " or fewer - O(n log n) on any input\n\n" +
                 "ALGORITHM STEPS:\n" +
                 "1. Choose a pivot element from the array\n" +
                 "2. Partition: rearrange array so elements ≤ pivot come before it, " +
@@ -0,0 +1,171 @@
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// Segmented Sieve of Eratosthenes.
+// Instead of one array covering [lowerBound, upperBound], the range is walked in
+// small windows that fit in the CPU cache. Every window is crossed off using a
+// shared table of base primes up to sqrt(upperBound), so memory stays proportional
+// to the window size no matter how wide the range is. Next to the table sits the
+// next odd multiple of every base prime, carried from one window to the next, so
+// a window far up the number line (10^15 and beyond) costs no division per prime.
+// Base primes of at least segmentSize hit a window once at most, so they wait in
+// the bucket of the window they hit next instead of being looked at every time.
+public class SegmentedSieve {
+    // 32K odd candidates per window (a 64K wide slice of the number line)
+    static final int DEFAULT_SEGMENT_SIZE = 32 * 1024;
+
+    final long lowerBound;
+    final long upperBound;
+    final int segmentSize;
+    final int[] basePrimes; // odd primes <= sqrt(upperBound)
+
+    public SegmentedSieve(long lowerBound, long upperBound) {
+        this(lowerBound, upperBound, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public SegmentedSieve(long lowerBound, long upperBound, int segmentSize) {
+        this(lowerBound, upperBound, segmentSize, basePrimesUpTo(isqrt(upperBound)));
+    }
+
+    // Lets several sieves over sub-ranges share one read-only base-prime table
+    SegmentedSieve(long lowerBound, long upperBound, int segmentSize, int[] basePrimes) {
+        if (upperBound < lowerBound) {
+            throw new IllegalArgumentException("upperBound must be >= lowerBound");
+        }
+        this.lowerBound = Math.max(0, lowerBound);
+        this.upperBound = upperBound;
+        this.segmentSize = Math.max(64, segmentSize);
+        this.basePrimes = basePrimes;
+    }
+
+    // Calls action once for every prime in [lowerBound, upperBound], in increasing order
+    public void forEachPrime(LongConsumer action) {
+        if (upperBound < 2) return;
+        if (lowerBound <= 2) action.accept(2);
+
+        // Only odd numbers are stored: slot j of a window starting at 'low' is low + 2j
+        long first = Math.max(3, lowerBound | 1);
+        long span = 2L * segmentSize;
+        long[] nextMultiple = firstMultiples(first);
+        int small = 0;
+        while (small < basePrimes.length && basePrimes[small] < segmentSize) small++;
+
+        // bucketHead[w % buckets] starts a linked list (through nextInBucket) of the large
+        // primes whose next multiple is in window w; a multiple is at most 2p windows ahead
+        int buckets = small == basePrimes.length ? 1 : (int) (2L * basePrimes[basePrimes.length - 1] / span) + 2;
+        int[] bucketHead = new int[buckets];
+        int[] nextInBucket = new int[basePrimes.length];
+        Arrays.fill(bucketHead, -1);
+        for (int k = small; k < basePrimes.length; k++) {
+            if (nextMultiple[k] <= upperBound) {
+                int slot = (int) ((nextMultiple[k] - first) / span % buckets);
+                nextInBucket[k] = bucketHead[slot];
+                bucketHead[slot] = k;
+            }
+        }
+
+        boolean[] composite = new boolean[segmentSize];
+        long window = 0;
+        for (long low = first; low <= upperBound; low += span, window++) {
+            long high = Math.min(upperBound, low + span - 2);
+            int count = (int) ((high - low) / 2) + 1;
+            sieveSegment(low, high, composite, count, nextMultiple, small);
+
+            int slot = (int) (window % buckets);
+            int k = bucketHead[slot];
+            bucketHead[slot] = -1;
+            while (k >= 0) {
+                int following = nextInBucket[k];
+                long m = nextMultiple[k];
+                // The first multiple can be p*p, more than a full turn of the buckets away
+                if (m <= high) {
+                    composite[(int) ((m - low) / 2)] = true;
+                    m += 2L * basePrimes[k];
+                    nextMultiple[k] = m;
+                }
+                if (m <= upperBound) {
+                    int target = (int) ((m - first) / span % buckets);
+                    nextInBucket[k] = bucketHead[target];
+                    bucketHead[target] = k;
+                }
+                k = following;
+            }
+            for (int j = 0; j < count; j++) {
+                if (!composite[j]) action.accept(low + 2L * j);
+            }
+        }
+    }
+
+    public long countPrimes() {
+        long[] count = new long[1];
+        forEachPrime(p -> count[0]++);
+        return count[0];
+    }
+
+    // Bytes of window plus the base-prime table, its next multiples and bucket links
+    public long memoryBytes() {
+        return segmentSize + basePrimes.length * 16L;
+    }
+
+    // First odd multiple of every base prime that is >= first (and never below p*p)
+    long[] firstMultiples(long first) {
+        long[] nextMultiple = new long[basePrimes.length];
+        for (int k = 0; k < basePrimes.length; k++) {
+            long p = basePrimes[k];
+            long start = Math.max(p * p, ((first + p - 1) / p) * p);
+            if ((start & 1) == 0) start += p;
+            nextMultiple[k] = start;
+        }
+        return nextMultiple;
+    }
+
+    // Crosses off the multiples of the first 'primes' base primes in [low, high]; low
+    // must be odd and the windows must come in increasing order, nextMultiple is moved
+    // past high as it goes
+    void sieveSegment(long low, long high, boolean[] composite, int count, long[] nextMultiple, int primes) {
+        Arrays.fill(composite, 0, count, false);
+        for (int k = 0; k < primes; k++) {
+            long start = nextMultiple[k];
+            if (start > high) {
+                // Base primes are increasing, so once p*p is past the window every later one is too
+                if ((long) basePrimes[k] * basePrimes[k] > high) break;
+                continue;
+            }
+            int p = basePrimes[k];
+            long j = (start - low) / 2;
+            for (; j < count; j += p) {
+                composite[(int) j] = true;
+            }
+            nextMultiple[k] = low + 2 * j;
+        }
+    }
+
+    // Simple sieve used to build the base-prime table (2 is left out on purpose)
+    static int[] basePrimesUpTo(long limit) {
+        if (limit < 3) return new int[0];
+        if (limit > Integer.MAX_VALUE - 1) {
+            throw new IllegalArgumentException("Base prime table too large: " + limit);
+        }
+        int n = (int) limit;
+        boolean[] composite = new boolean[n + 1];
+        int[] primes = new int[Math.max(16, (int) (1.3 * n / Math.max(1, Math.log(n))))];
+        int found = 0;
+        for (int i = 3; i <= n; i += 2) {
+            if (composite[i]) continue;
+            if (found == primes.length) primes = Arrays.copyOf(primes, found * 2);
+            primes[found++] = i;
+            for (long m = (long) i * i; m <= n; m += 2L * i) {
+                composite[(int) m] = true;
+            }
+        }
+        return Arrays.copyOf(primes, found);
+    }
+
+    static long isqrt(long n) {
+        if (n < 0) throw new IllegalArgumentException("negative: " + n);
+        long r = (long) Math.sqrt((double) n);
+        while (r > 0 && r > n / r) r--;
+        while (r + 1 <= n / (r + 1)) r++;
+        return r;
+    }
+}
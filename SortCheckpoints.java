@@ -0,0 +1,163 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// Snapshots of a sort player, so any step can be reached without replaying from the
+// start: restore the nearest snapshot at or before it and play forward from there.
+// A snapshot is the cursor of the frame's SortStepper (trace position, ranges,
+// pointers, ...). They are all taken before playback starts: take() walks a stepper
+// of the frame's kind over the finished trace in the background pass, so a seek never
+// depends on how much of the run has been watched.
+// Snapshots are taken at tick boundaries at least 'interval' events apart, which
+// keeps the unseen replay of a seek to about one interval. Copying the whole array
+// that often would not fit, so only snapshots 'copyInterval' events apart carry a
+// copy, as many as fit the memory budget. The array of any other snapshot is rebuilt
+// from the copy before it by applying the swaps and writes in between, which costs
+// far less than playing them. A trace too large for the budget ends up with copies
+// more than MAX_REBUILD events apart; snapshots beyond that distance are not
+// restored, and the frames refuse seeks that would need one.
+public class SortCheckpoints {
+    static final long MIN_MEMORY_BUDGET = 64L << 20;
+    static final int MAX_SNAPSHOTS = 1 << 16;
+    static final int MIN_INTERVAL = 128;
+    static final int MAX_REBUILD = 1 << 25;
+
+    static class Checkpoint {
+        final int step; // trace events played
+        final int tick; // player steps shown
+        final int[] array; // copy of the array, or null when rebuilt from an earlier one
+        final int[] cursor;
+
+        Checkpoint(int step, int tick, int[] array, int[] cursor) {
+            this.step = step;
+            this.tick = tick;
+            this.array = array;
+            this.cursor = cursor;
+        }
+    }
+
+    final SortTracer.Events trace;
+    final int interval;
+    final int copyInterval;
+    final List<Checkpoint> checkpoints = new ArrayList<>();
+    final List<Checkpoint> copies = new ArrayList<>();
+    int ticks; // player steps in the whole trace, counted by the walk that took the snapshots
+
+    SortCheckpoints(SortTracer.Events trace) {
+        this(trace, memoryBudget());
+    }
+
+    SortCheckpoints(SortTracer.Events trace, long budgetBytes) {
+        this.trace = trace;
+        int length = trace.initialArray().length;
+        interval = intervalFor(trace.size());
+        copyInterval = Math.max(interval, copyIntervalFor(trace.size(), length, budgetBytes));
+    }
+
+    // An eighth of the heap, but never less than the old fixed budget
+    static long memoryBudget() {
+        return Math.max(MIN_MEMORY_BUDGET, Runtime.getRuntime().maxMemory() / 8);
+    }
+
+    // Events between snapshots so that at most MAX_SNAPSHOTS cursors are kept
+    static int intervalFor(long events) {
+        long interval = (events + MAX_SNAPSHOTS - 1) / MAX_SNAPSHOTS;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_INTERVAL, interval));
+    }
+
+    // Events between array copies so that events / interval copies fit the budget
+    static int copyIntervalFor(long events, int length, long budgetBytes) {
+        long copyBytes = length * 4L + 64; // the array plus the cursor and bookkeeping
+        long copies = Math.max(1, budgetBytes / copyBytes);
+        long interval = (events + copies - 1) / copies;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_INTERVAL, interval));
+    }
+
+    // Plays a fresh stepper through the whole trace, snapshotting it on the way, and
+    // counts the steps it shows. Runs in the background pass before playback starts.
+    SortCheckpoints take(SortStepper stepper) {
+        while (true) {
+            if (due(stepper.traceStep())) {
+                add(stepper.traceStep(), stepper.tick(), stepper.array(), stepper.cursor());
+            }
+            if (stepper.step(trace) == SortStepper.DONE) break;
+        }
+        ticks = stepper.tick();
+        return this;
+    }
+
+    // True when the walk, having played 'step' events, should hand over a snapshot
+    boolean due(int step) {
+        return checkpoints.isEmpty() || step >= checkpoints.get(checkpoints.size() - 1).step + interval;
+    }
+
+    void add(int step, int tick, int[] array, int[] cursor) {
+        boolean copy = copies.isEmpty() || step >= copies.get(copies.size() - 1).step + copyInterval;
+        Checkpoint checkpoint = new Checkpoint(step, tick, copy ? array.clone() : null, cursor);
+        checkpoints.add(checkpoint);
+        if (copy) copies.add(checkpoint);
+    }
+
+    // Latest snapshot taken at or before the given player step, or null before the first
+    Checkpoint floor(int tick) {
+        int low = 0;
+        int high = checkpoints.size() - 1;
+        Checkpoint best = null;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Checkpoint checkpoint = checkpoints.get(mid);
+            if (checkpoint.tick <= tick) {
+                best = checkpoint;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return best;
+    }
+
+    // Latest snapshot carrying an array copy at or before the given one
+    Checkpoint copyFor(Checkpoint checkpoint) {
+        int low = 0;
+        int high = copies.size() - 1;
+        Checkpoint best = copies.get(0);
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Checkpoint copy = copies.get(mid);
+            if (copy.step <= checkpoint.step) {
+                best = copy;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return best;
+    }
+
+    boolean restorable(Checkpoint checkpoint) {
+        return checkpoint.step - copyFor(checkpoint).step <= MAX_REBUILD;
+    }
+
+    // Puts the stepper, array included, in the state it had at the snapshot
+    void restore(Checkpoint checkpoint, SortStepper stepper) {
+        restoreArray(checkpoint, stepper.array());
+        stepper.restore(checkpoint.cursor);
+    }
+
+    // Puts the array as it was at the snapshot into 'array'
+    void restoreArray(Checkpoint checkpoint, int[] array) {
+        Checkpoint copy = copyFor(checkpoint);
+        System.arraycopy(copy.array, 0, array, 0, array.length);
+        for (int step = copy.step; step < checkpoint.step; step++) {
+            SortTrace.apply(array, trace.op(step), trace.a(step), trace.b(step));
+        }
+    }
+
+    long memoryBytes() {
+        long bytes = 0;
+        for (Checkpoint checkpoint : checkpoints) {
+            bytes += checkpoint.cursor.length * 4L;
+            if (checkpoint.array != null) bytes += checkpoint.array.length * 4L;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,57 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+// Off-screen renderer for arrays too long to draw as one box per element, such as
+// the ones in trace files. Each pixel column covers a slice of the array and is
+// painted from the smallest to the largest value in that slice, so a sorted run
+// reads as a clean ramp and an unsorted one as noise. One pass over the array and
+// one over the raster, no Swing shapes.
+public class SortPlots {
+    // Arrays longer than this are drawn as bars by the sorting frames
+    static final int MAX_BOX_ELEMENTS = 64;
+
+    // Pixel column an array index falls into
+    static int columnOf(int index, int length, int width) {
+        return (int) ((long) index * width / Math.max(1, length));
+    }
+
+    public static BufferedImage valueBars(int[] array, int width, int height, int barRgb, int backgroundRgb) {
+        width = Math.max(1, width);
+        height = Math.max(1, height);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        Arrays.fill(pixels, backgroundRgb);
+        if (array.length == 0) return image;
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int value : array) {
+            if (value < min) min = value;
+            if (value > max) max = value;
+        }
+        double scale = (height - 1) / Math.max(1.0, (double) max - min);
+
+        int[] low = new int[width];
+        int[] high = new int[width];
+        Arrays.fill(low, Integer.MAX_VALUE);
+        Arrays.fill(high, Integer.MIN_VALUE);
+        for (int i = 0; i < array.length; i++) {
+            int column = columnOf(i, array.length, width);
+            if (array[i] < low[column]) low[column] = array[i];
+            if (array[i] > high[column]) high[column] = array[i];
+        }
+
+        for (int x = 0; x < width; x++) {
+            if (low[x] > high[x]) continue; // more columns than elements
+            // Bars grow from the bottom; a column spans from its smallest to its largest value
+            int top = height - 1 - (int) ((high[x] - (double) min) * scale);
+            int bottom = height - 1 - (int) ((low[x] - (double) min) * scale);
+            if (low[x] == min) bottom = height - 1;
+            for (int y = top; y <= bottom; y++) {
+                pixels[y * width + x] = barRgb;
+            }
+        }
+        return image;
+    }
+}
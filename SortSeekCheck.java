@@ -0,0 +1,80 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Function;
+
+// Command line check for seeking in the sort frames.
+// Usage: java SortSeekCheck [length] [seeks]
+// Records heap, merge, quick and Introsort runs, takes their checkpoints with the
+// frames' steppers under a small memory budget (so most snapshots are rebuilt rather
+// than copied) and seeks to the first and last ticks and to random ones in between.
+// Each seek restores the nearest checkpoint and steps forward; its cursor and array
+// must match a stepper played straight from the start. Throws on the first mismatch.
+public class SortSeekCheck {
+    static final long BUDGET_BYTES = 1 << 16;
+
+    public static void main(String[] args) {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int seeks = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        Random random = new Random(42);
+
+        // Random values, and few distinct ones: the latter drive the Lomuto partitions
+        // deep enough for Introsort to fall back to heapsort. Plain quick sort is
+        // quadratic on them, so that input is kept short.
+        int[] spread = new int[length];
+        for (int i = 0; i < length; i++) spread[i] = random.nextInt(1000);
+        int[] repeated = new int[Math.min(length, 2000)];
+        for (int i = 0; i < repeated.length; i++) repeated[i] = random.nextInt(3);
+
+        for (int[] input : new int[][] {spread, repeated}) {
+            check("Heap Sort", SortTracer.record("Heap Sort", input, null), HeapSortStepper::new, seeks, random);
+            check("Merge Sort", SortTracer.record("Merge Sort", input, null), MergeSortStepper::new, seeks, random);
+            check("Quick Sort", SortTracer.record("Quick Sort", input, (low, high) -> high), QuickSortStepper::new, seeks, random);
+            check("Introsort", SortTracer.record("Introsort", input, null), QuickSortStepper::new, seeks, random);
+        }
+        System.out.println("All seeks matched");
+    }
+
+    static void check(String name, SortTracer.Events trace, Function<int[], SortStepper> stepperFor, int seeks, Random random) {
+        SortCheckpoints checkpoints = new SortCheckpoints(trace, BUDGET_BYTES).take(stepperFor.apply(trace.initialArray().clone()));
+
+        int[] targets = new int[seeks + 3];
+        targets[0] = 0;
+        targets[1] = 1;
+        targets[2] = checkpoints.ticks;
+        for (int i = 3; i < targets.length; i++) targets[i] = random.nextInt(checkpoints.ticks + 1);
+        Arrays.sort(targets);
+
+        // One straight replay, compared with a fresh seek at every target on the way
+        SortStepper straight = stepperFor.apply(trace.initialArray().clone());
+        for (int target : targets) {
+            while (straight.tick() < target) {
+                if (straight.step(trace) == SortStepper.DONE && straight.tick() < target) {
+                    throw new IllegalStateException(name + ": the trace ended at tick " + straight.tick() + ", before " + target);
+                }
+            }
+            SortCheckpoints.Checkpoint nearest = checkpoints.floor(target);
+            if (!checkpoints.restorable(nearest)) {
+                throw new IllegalStateException(name + ": no restorable checkpoint for tick " + target);
+            }
+            SortStepper seeker = stepperFor.apply(new int[trace.initialArray().length]);
+            checkpoints.restore(nearest, seeker);
+            while (seeker.tick() < target) seeker.step(trace);
+
+            if (!Arrays.equals(seeker.cursor(), straight.cursor())) {
+                throw new IllegalStateException(name + ": cursor at tick " + target + " is " + Arrays.toString(seeker.cursor())
+                        + ", straight replay has " + Arrays.toString(straight.cursor()));
+            }
+            if (!Arrays.equals(seeker.array(), straight.array())) {
+                throw new IllegalStateException(name + ": array at tick " + target + " differs from the straight replay");
+            }
+        }
+
+        // The last target is the walk's tick count, where a straight replay has played every event
+        if (straight.traceStep() != trace.size()) {
+            throw new IllegalStateException(name + ": " + checkpoints.ticks + " ticks counted, but a straight replay is at event "
+                    + straight.traceStep() + " of " + trace.size() + " by then");
+        }
+        System.out.println(name + ": " + trace.size() + " events, " + checkpoints.ticks + " ticks, "
+                + targets.length + " seeks matched");
+    }
+}
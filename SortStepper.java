@@ -0,0 +1,22 @@
+// A sort frame's player as a plain state machine, without Swing: the array as played
+// so far and the frame's cursor into the trace (position, ranges, pointers, ...).
+// step() plays what one timer tick of the frame shows and returns a code for what
+// happened, which the frame turns into its explanation. The frame draws straight from
+// its stepper, and SortCheckpoints walks another one over the finished trace to take
+// the seek snapshots, so a restored snapshot is exactly what playing would have left.
+public interface SortStepper {
+    int DONE = 0; // the trace had already been played through: the completion tick
+
+    int step(SortTracer.Events trace);
+
+    int traceStep(); // trace events played
+
+    int tick();      // player steps shown
+
+    int[] array();
+
+    // State beyond the array, packed into an int[] for a snapshot
+    int[] cursor();
+
+    void restore(int[] cursor);
+}
@@ -0,0 +1,110 @@
+import java.util.Arrays;
+
+// Everything a sort did to its array, as a flat list of primitive events:
+//   COMPARE i j   the values at i and j were compared
+//   SWAP    i j   the values at i and j were exchanged
+//   WRITE   i v   v was stored at i (merge and insertion sort copy instead of swap)
+//   RANGE   lo hi the algorithm moved on to [lo, hi]: a pass, a partition, a merge
+//   MARK    i k   index i now plays role k (pivot, pointer, midpoint, heap root, ...)
+// Events live in three parallel primitive arrays, so a trace of millions of steps
+// is a few bytes per event and no objects. Only SWAP and WRITE change the array:
+// replaying them from the initial array in order gives the array after any step.
+// SortTraceFile stores the same events on disk; players read either through
+// SortTracer.Events.
+public class SortTrace implements SortTracer.Events, SortTracer.Sink {
+    static final int COMPARE = 0;
+    static final int SWAP = 1;
+    static final int WRITE = 2;
+    static final int RANGE = 3;
+    static final int MARK = 4;
+
+    // Roles for MARK events
+    static final int PIVOT = 0;
+    static final int LEFT = 1;    // left scan pointer of a partition
+    static final int RIGHT = 2;   // right scan pointer of a partition
+    static final int MID = 3;     // last index of the left run of a merge
+    static final int HEAPIFY = 4; // root of the subtree being sifted down
+    static final int KEY = 5;     // slot the insertion key was taken from
+    static final int MIN = 6;     // smallest value found so far
+
+    final int[] initial;
+    byte[] ops = new byte[64];
+    int[] first = new int[64];
+    int[] second = new int[64];
+    int size;
+
+    long comparisons;
+    long swaps;
+    long writes;
+    int ranges;
+
+    public SortTrace(int[] initial) {
+        this.initial = initial.clone();
+    }
+
+    public void add(int op, int a, int b) {
+        if (size == ops.length) {
+            int capacity = size + (size >> 1);
+            ops = Arrays.copyOf(ops, capacity);
+            first = Arrays.copyOf(first, capacity);
+            second = Arrays.copyOf(second, capacity);
+        }
+        ops[size] = (byte) op;
+        first[size] = a;
+        second[size] = b;
+        size++;
+        if (op == COMPARE) comparisons++;
+        else if (op == SWAP) swaps++;
+        else if (op == WRITE) writes++;
+        else if (op == RANGE) ranges++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int op(int step) {
+        return ops[step];
+    }
+
+    public int a(int step) {
+        return first[step];
+    }
+
+    public int b(int step) {
+        return second[step];
+    }
+
+    public int[] initialArray() {
+        return initial;
+    }
+
+    public long comparisons() {
+        return comparisons;
+    }
+
+    // Applies one event to the array; only swaps and writes change anything
+    static void apply(int[] array, int op, int a, int b) {
+        if (op == SWAP) {
+            int temp = array[a];
+            array[a] = array[b];
+            array[b] = temp;
+        } else if (op == WRITE) {
+            array[a] = b;
+        }
+    }
+
+    // The array after the first 'steps' events, replayed from the initial array
+    public int[] arrayAt(int steps) {
+        int[] array = initial.clone();
+        for (int step = 0; step < steps; step++) {
+            apply(array, ops[step], first[step], second[step]);
+        }
+        return array;
+    }
+
+    // Bytes held by the event arrays
+    public long memoryBytes() {
+        return ops.length * 9L + initial.length * 4L;
+    }
+}
@@ -0,0 +1,388 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntBinaryOperator;
+
+// A SortTrace stored on disk, for runs too long to keep on the heap.
+// File layout (little endian):
+//   header  magic "SORTTRC1" (8), version (4), array length (4), events (8),
+//           comparisons (8), swaps (8), writes (8), ranges (8), chunks (4), reserved (4),
+//           index offset (8), algorithm name (32, US-ASCII, zero padded), reserved (24)
+//   array   the initial array, one int per element
+//   chunks  CHUNK_EVENTS events each, every chunk decodable on its own
+//   index   one long per chunk: the file offset the chunk starts at
+// An event is a tag byte (op, and for MARK the role in the upper bits) followed by
+// zigzag varints: a as the difference from the previous event's a, then b as b - a
+// for COMPARE, SWAP and RANGE, or as the difference from the previous written value
+// for WRITE. Sorts mostly touch neighbouring indices, so the typical event is three
+// bytes instead of the nine an in-memory SortTrace spends.
+// Reading maps one chunk at a time and decodes it into a small cache, so playing or
+// scrubbing through a trace of 10^8 events holds one chunk on the heap, not the file.
+public class SortTraceFile implements SortTracer.Events, Closeable {
+    static final long MAGIC = 0x3143525454524f53L; // "SORTTRC1" read as a little endian long
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 128;
+    static final int NAME_BYTES = 32;
+    static final int CHUNK_EVENTS = 1 << 16;
+    // Arrays past this length are recorded to disk by recordOnHeapOrDisk: the frames
+    // whose sorts can take n^2 events would need hundreds of MB to hold them in memory
+    static final int STREAM_LENGTH = 1000;
+
+    final Path file;
+    final FileChannel channel;
+    final String algorithm;
+    final int[] initial;
+    final int size;
+    final long comparisons;
+    final long swaps;
+    final long writes;
+    final long ranges;
+    final long[] chunkStarts; // one extra entry: where the last chunk ends
+    boolean temporary; // written by recordTemporary, deleted on close
+
+    // Decoded copy of one chunk
+    int cachedChunk = -1;
+    final byte[] ops = new byte[CHUNK_EVENTS];
+    final int[] first = new int[CHUNK_EVENTS];
+    final int[] second = new int[CHUNK_EVENTS];
+
+    SortTraceFile(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getLong(0) != MAGIC) {
+                throw new IOException("Not a sort trace file: " + file);
+            }
+            if (header.getInt(8) != VERSION) {
+                throw new IOException("Unsupported sort trace version " + header.getInt(8) + ": " + file);
+            }
+            int length = header.getInt(12);
+            long events = header.getLong(16);
+            if (events > Integer.MAX_VALUE) {
+                throw new IOException("Trace has more than " + Integer.MAX_VALUE + " events: " + file);
+            }
+            size = (int) events;
+            comparisons = header.getLong(24);
+            swaps = header.getLong(32);
+            writes = header.getLong(40);
+            ranges = header.getLong(48);
+            int chunks = header.getInt(56);
+            long indexOffset = header.getLong(64);
+            byte[] name = new byte[NAME_BYTES];
+            header.position(72);
+            header.get(name);
+            int nameLength = 0;
+            while (nameLength < NAME_BYTES && name[nameLength] != 0) nameLength++;
+            algorithm = new String(name, 0, nameLength, StandardCharsets.US_ASCII);
+
+            initial = new int[length];
+            channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, length * 4L)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(initial);
+
+            chunkStarts = new long[chunks + 1];
+            channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, chunks * 8L)
+                    .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(chunkStarts, 0, chunks);
+            chunkStarts[chunks] = indexOffset;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static SortTraceFile open(Path file) throws IOException {
+        return new SortTraceFile(file);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int op(int step) {
+        return ops[load(step)];
+    }
+
+    public int a(int step) {
+        return first[load(step)];
+    }
+
+    public int b(int step) {
+        return second[load(step)];
+    }
+
+    public int[] initialArray() {
+        return initial;
+    }
+
+    public long comparisons() {
+        return comparisons;
+    }
+
+    // Position of 'step' in the decoded cache, decoding its chunk first if needed
+    int load(int step) {
+        int chunk = step / CHUNK_EVENTS;
+        if (chunk != cachedChunk) {
+            try {
+                decodeChunk(chunk);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read " + file, e);
+            }
+        }
+        return step % CHUNK_EVENTS;
+    }
+
+    void decodeChunk(int chunk) throws IOException {
+        long start = chunkStarts[chunk];
+        MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, chunkStarts[chunk + 1] - start);
+        int count = Math.min(CHUNK_EVENTS, size - chunk * CHUNK_EVENTS);
+        int previousA = 0;
+        int previousValue = 0;
+        for (int k = 0; k < count; k++) {
+            int tag = bytes.get() & 0xff;
+            int op = tag & 7;
+            int a = previousA + unzigzag(readVarint(bytes));
+            int b;
+            if (op == SortTrace.MARK) {
+                b = tag >>> 3;
+            } else if (op == SortTrace.WRITE) {
+                b = previousValue + unzigzag(readVarint(bytes));
+                previousValue = b;
+            } else {
+                b = a + unzigzag(readVarint(bytes));
+            }
+            ops[k] = (byte) op;
+            first[k] = a;
+            second[k] = b;
+            previousA = a;
+        }
+        cachedChunk = chunk;
+    }
+
+    public void close() throws IOException {
+        channel.close();
+        if (temporary) Files.deleteIfExists(file);
+    }
+
+    static int readVarint(ByteBuffer bytes) {
+        int value = 0;
+        int shift = 0;
+        while (true) {
+            int b = bytes.get();
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) return value;
+            shift += 7;
+        }
+    }
+
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // Streams events straight to disk as the algorithm produces them. The header is
+    // written by finish() once the run has completed; a run that fails or a file cut
+    // short by a crash keeps the zeroed placeholder and is rejected when opened.
+    static class Writer implements SortTracer.Sink, Closeable {
+        final FileChannel channel;
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        final String algorithm;
+        final int length;
+        long flushed = 0; // file offset of buffer position 0
+        long[] chunkStarts = new long[16];
+        int chunks = 0;
+        long events = 0;
+        long comparisons, swaps, writes, ranges;
+        int previousA, previousValue;
+
+        Writer(Path file, String algorithm, int[] initial) throws IOException {
+            if (algorithm.length() > NAME_BYTES) {
+                throw new IllegalArgumentException("Algorithm name longer than " + NAME_BYTES + " characters: " + algorithm);
+            }
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.algorithm = algorithm;
+            this.length = initial.length;
+            buffer.put(new byte[HEADER_BYTES]); // zeroed placeholder, filled in by finish()
+            for (int value : initial) {
+                ensureRoom(4);
+                buffer.putInt(value);
+            }
+        }
+
+        public void add(int op, int a, int b) {
+            ensureRoom(11); // tag + two 5-byte varints
+            if (events % CHUNK_EVENTS == 0) {
+                if (chunks == chunkStarts.length) chunkStarts = Arrays.copyOf(chunkStarts, chunks * 2);
+                chunkStarts[chunks++] = flushed + buffer.position();
+                previousA = 0;
+                previousValue = 0;
+            }
+            if (op == SortTrace.MARK) {
+                buffer.put((byte) (op | b << 3));
+                putVarint(zigzag(a - previousA));
+            } else {
+                buffer.put((byte) op);
+                putVarint(zigzag(a - previousA));
+                if (op == SortTrace.WRITE) {
+                    putVarint(zigzag(b - previousValue));
+                    previousValue = b;
+                } else {
+                    putVarint(zigzag(b - a));
+                }
+            }
+            previousA = a;
+            events++;
+            if (op == SortTrace.COMPARE) comparisons++;
+            else if (op == SortTrace.SWAP) swaps++;
+            else if (op == SortTrace.WRITE) writes++;
+            else if (op == SortTrace.RANGE) ranges++;
+        }
+
+        void putVarint(int value) {
+            while ((value & ~0x7f) != 0) {
+                buffer.put((byte) (value & 0x7f | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        void ensureRoom(int bytes) {
+            if (buffer.remaining() < bytes) {
+                try {
+                    flush();
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not write sort trace", e);
+                }
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                flushed += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        // Appends the chunk index and writes the header, making the file valid
+        void finish() throws IOException {
+            long indexOffset = flushed + buffer.position();
+            for (int k = 0; k < chunks; k++) {
+                ensureRoom(8);
+                buffer.putLong(chunkStarts[k]);
+            }
+            flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC).putInt(VERSION).putInt(length).putLong(events)
+                    .putLong(comparisons).putLong(swaps).putLong(writes).putLong(ranges)
+                    .putInt(chunks).putInt(0).putLong(indexOffset)
+                    .put(algorithm.getBytes(StandardCharsets.US_ASCII));
+            header.clear();
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+        }
+
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    // Runs the algorithm and streams its trace into 'file' without keeping it in memory
+    static void write(String algorithm, int[] input, IntBinaryOperator choosePivot, Path file) throws IOException {
+        try (Writer writer = new Writer(file, algorithm, input)) {
+            new SortTracer(input, writer).run(algorithm, choosePivot);
+            writer.finish();
+        }
+    }
+
+    // Records a run into a temporary file and opens it, for frames whose runs are too
+    // long to keep on the heap. The file is deleted when the trace is closed, or at exit;
+    // a run that fails to write or open deletes its partial file right away.
+    static SortTraceFile recordTemporary(String algorithm, int[] input, IntBinaryOperator choosePivot) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("sort-trace-", ".trc");
+            file.toFile().deleteOnExit();
+            write(algorithm, input, choosePivot, file);
+            SortTraceFile trace = open(file);
+            trace.temporary = true;
+            return trace;
+        } catch (IOException | RuntimeException e) {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                }
+            }
+            if (e instanceof RuntimeException) throw (RuntimeException) e;
+            throw new IllegalStateException("Could not write sort trace", e);
+        }
+    }
+
+    // Records a run in memory, or into a temporary file past STREAM_LENGTH elements.
+    // Release the result with closeQuietly once it is no longer played.
+    static SortTracer.Events recordOnHeapOrDisk(String algorithm, int[] input, IntBinaryOperator choosePivot) {
+        return input.length > STREAM_LENGTH ? recordTemporary(algorithm, input, choosePivot)
+                : SortTracer.record(algorithm, input, choosePivot);
+    }
+
+    // Closes the trace if it is a file, deleting it if temporary; an in-memory trace needs nothing
+    static void closeQuietly(SortTracer.Events events) {
+        if (!(events instanceof SortTraceFile)) return;
+        try {
+            ((SortTraceFile) events).close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    // Writes the trace of a random array, for loading into the sort visualizers:
+    //   java SortTraceFile <bubble|insertion|selection|quick|intro|merge|heap> <length> <file> [seed]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("usage: java SortTraceFile <bubble|insertion|selection|quick|intro|merge|heap> <length> <file> [seed]");
+            System.exit(2);
+        }
+        String algorithm = args[0].equalsIgnoreCase("intro") ? "Introsort"
+                : Character.toUpperCase(args[0].charAt(0)) + args[0].substring(1).toLowerCase() + " Sort";
+        int length = Integer.parseInt(args[1]);
+        Path file = Paths.get(args[2]);
+        Random random = args.length > 3 ? new Random(Long.parseLong(args[3])) : new Random();
+
+        int[] input = new int[length];
+        for (int i = 0; i < length; i++) {
+            input[i] = random.nextInt(Math.max(999, length)) + 1;
+        }
+
+        long start = System.nanoTime();
+        // Quick sort uses the visualizer's default "Last Element" pivot
+        write(algorithm, input, (low, high) -> high, file);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        try (SortTraceFile trace = open(file)) {
+            System.out.printf("%s of %,d elements: %,d events (%,d compares, %,d swaps, %,d writes) in %,d bytes, %.2f bytes/event, %,d ms%n",
+                    algorithm, length, trace.size(), trace.comparisons, trace.swaps, trace.writes,
+                    trace.chunkStarts[trace.chunkStarts.length - 1],
+                    trace.chunkStarts[trace.chunkStarts.length - 1] / (double) Math.max(1, trace.size()), millis);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+import javax.swing.SwingWorker;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.IntBinaryOperator;
+import java.util.function.Supplier;
+
+// Headless engine behind the sorting frames. Each algorithm runs to completion on a
+// private copy of the array and records every comparison, swap and write into a
+// SortTrace; the frames then only replay the trace, one event per timer tick.
+// The algorithms follow the step order the frames have always animated (bubble sort
+// without early exit, quick sort partitioning with the pivot parked at the high end,
+// top-down merge sort with mid = (left + right) / 2, and so on) so the explanations
+// still describe what is on screen.
+public class SortTracer {
+    // Introsort finishes ranges of at most this many elements with insertion sort
+    static final int INTRO_INSERTION_SIZE = 4;
+
+    // Read side of a trace, in memory or memory-mapped from a file
+    interface Events {
+        int size();
+        int op(int step);
+        int a(int step);
+        int b(int step);
+        int[] initialArray();
+        long comparisons();
+    }
+
+    // Where the algorithms send events as they run
+    interface Sink {
+        void add(int op, int a, int b);
+    }
+
+    final int[] array;
+    final Sink trace;
+
+    SortTracer(int[] input, Sink sink) {
+        array = input.clone();
+        trace = sink;
+    }
+
+    int compare(int i, int j) {
+        trace.add(SortTrace.COMPARE, i, j);
+        return Integer.compare(array[i], array[j]);
+    }
+
+    // Compares array[i] with a value held outside the array (the insertion key);
+    // the event names the slot the value was taken from
+    int compareValue(int i, int slot, int value) {
+        trace.add(SortTrace.COMPARE, i, slot);
+        return Integer.compare(array[i], value);
+    }
+
+    void swap(int i, int j) {
+        trace.add(SortTrace.SWAP, i, j);
+        int temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+
+    void write(int i, int value) {
+        trace.add(SortTrace.WRITE, i, value);
+        array[i] = value;
+    }
+
+    void range(int low, int high) {
+        trace.add(SortTrace.RANGE, low, high);
+    }
+
+    void mark(int index, int role) {
+        trace.add(SortTrace.MARK, index, role);
+    }
+
+    // One RANGE per pass over [0, n - 1 - pass]; every adjacent pair is compared
+    void bubble() {
+        int n = array.length;
+        for (int pass = 0; pass < n - 1; pass++) {
+            range(0, n - 1 - pass);
+            for (int i = 0; i < n - 1 - pass; i++) {
+                if (compare(i, i + 1) > 0) {
+                    swap(i, i + 1);
+                }
+            }
+        }
+    }
+
+    // RANGE [0, i] and a KEY mark per insertion; larger elements are shifted with writes
+    // and the key is written into the gap. COMPARE j i compares array[j] with the key.
+    void insertion() {
+        for (int i = 1; i < array.length; i++) {
+            range(0, i);
+            insertKey(0, i);
+        }
+    }
+
+    // Inserts array[i] into the sorted run [low, i - 1]
+    void insertKey(int low, int i) {
+        int[] a = array;
+        mark(i, SortTrace.KEY);
+        int key = a[i];
+        int j = i - 1;
+        while (j >= low && compareValue(j, i, key) > 0) {
+            write(j + 1, a[j]);
+            j--;
+        }
+        write(j + 1, key);
+    }
+
+    // RANGE [i, n - 1] per pass; MIN marks follow the running minimum and the pass
+    // always ends with a swap, even when the minimum is already in place
+    void selection() {
+        int n = array.length;
+        for (int i = 0; i < n - 1; i++) {
+            range(i, n - 1);
+            mark(i, SortTrace.MIN);
+            int min = i;
+            for (int j = i + 1; j < n; j++) {
+                if (compare(j, min) < 0) {
+                    min = j;
+                    mark(min, SortTrace.MIN);
+                }
+            }
+            swap(i, min);
+        }
+    }
+
+    // Per partition: RANGE [low, high], a SWAP moving the chosen pivot to high (if it is
+    // not already there) and a PIVOT mark. Each scan round ends with LEFT and RIGHT marks
+    // followed by either a SWAP of the two pointers or the SWAP placing the pivot.
+    // choosePivot maps (low, high) to the pivot index; sub-ranges shorter than two
+    // elements are never visited, and the left one is partitioned first.
+    void quick(IntBinaryOperator choosePivot) {
+        int[] stack = new int[2 * array.length + 2];
+        int top = 0;
+        if (array.length > 1) {
+            stack[top++] = 0;
+            stack[top++] = array.length - 1;
+        }
+        while (top > 0) {
+            int high = stack[--top];
+            int low = stack[--top];
+            range(low, high);
+            int left = partition(low, high, choosePivot.applyAsInt(low, high));
+
+            if (left + 1 < high) {
+                stack[top++] = left + 1;
+                stack[top++] = high;
+            }
+            if (low < left - 1) {
+                stack[top++] = low;
+                stack[top++] = left - 1;
+            }
+        }
+    }
+
+    // Partitions [low, high] around the value at 'pivot' and returns where it ends up
+    int partition(int low, int high, int pivot) {
+        if (pivot != high) {
+            swap(pivot, high);
+        }
+        mark(high, SortTrace.PIVOT);
+
+        int left = low;
+        int right = high - 1;
+        while (true) {
+            while (left <= right && compare(left, high) <= 0) {
+                left++;
+            }
+            while (left <= right && compare(right, high) > 0) {
+                right--;
+            }
+            mark(left, SortTrace.LEFT);
+            mark(right, SortTrace.RIGHT);
+            if (left < right) {
+                swap(left, right);
+                left++;
+                right--;
+            } else {
+                break;
+            }
+        }
+        swap(left, high);
+        return left;
+    }
+
+    // Quick sort with median-of-three pivots (their COMPAREs come right after the RANGE)
+    // that gives up on a range once the partitions above it are 2·log₂ n deep: that range
+    // is heap sorted in place instead, RANGE [low, high] followed by the sift-downs of
+    // heap() offset by low and one SWAP low end per extraction. Ranges of at most
+    // INTRO_INSERTION_SIZE elements are insertion sorted, RANGE [low, high] followed by
+    // the KEY marks, compares and writes of insertion(). A player tells the three apart
+    // by the event after the RANGE: a HEAPIFY mark, a KEY mark, or anything else.
+    void intro() {
+        int n = array.length;
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(Math.max(1, n)));
+        int[] stack = new int[3 * n + 3];
+        int top = 0;
+        if (n > 1) {
+            stack[top++] = 0;
+            stack[top++] = n - 1;
+            stack[top++] = 0;
+        }
+        while (top > 0) {
+            int depth = stack[--top];
+            int high = stack[--top];
+            int low = stack[--top];
+            range(low, high);
+            if (high - low + 1 <= INTRO_INSERTION_SIZE) {
+                for (int i = low + 1; i <= high; i++) {
+                    insertKey(low, i);
+                }
+                continue;
+            }
+            if (depth >= depthLimit) {
+                heapSortRange(low, high);
+                continue;
+            }
+            int left = partition(low, high, medianOfThree(low, high));
+
+            if (left + 1 < high) {
+                stack[top++] = left + 1;
+                stack[top++] = high;
+                stack[top++] = depth + 1;
+            }
+            if (low < left - 1) {
+                stack[top++] = low;
+                stack[top++] = left - 1;
+                stack[top++] = depth + 1;
+            }
+        }
+    }
+
+    // Index of the median of the first, middle and last value of [low, high]
+    int medianOfThree(int low, int high) {
+        int mid = (low + high) >>> 1;
+        if (compare(low, mid) > 0) {
+            if (compare(mid, high) >= 0) return mid;
+            return compare(low, high) > 0 ? high : low;
+        }
+        if (compare(mid, high) <= 0) return mid;
+        return compare(low, high) >= 0 ? low : high;
+    }
+
+    void heapSortRange(int low, int high) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(low, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(low, low + end);
+            siftDown(low, 0, end);
+        }
+    }
+
+    // Bottom-up order of the top-down recursion: RANGE [left, right] and a MID mark per
+    // merge, then the merged values written back left to right. COMPARE i j compares the
+    // run elements that sat at i and j when the merge began.
+    void merge() {
+        mergeSort(0, array.length - 1, new int[array.length]);
+    }
+
+    void mergeSort(int left, int right, int[] temp) {
+        if (left >= right) return;
+        int mid = (left + right) / 2;
+        mergeSort(left, mid, temp);
+        mergeSort(mid + 1, right, temp);
+
+        range(left, right);
+        mark(mid, SortTrace.MID);
+        System.arraycopy(array, left, temp, left, right - left + 1);
+        int i = left;
+        int j = mid + 1;
+        int k = left;
+        while (i <= mid && j <= right) {
+            trace.add(SortTrace.COMPARE, i, j);
+            if (temp[i] <= temp[j]) {
+                write(k++, temp[i++]);
+            } else {
+                write(k++, temp[j++]);
+            }
+        }
+        while (i <= mid) {
+            write(k++, temp[i++]);
+        }
+        while (j <= right) {
+            write(k++, temp[j++]);
+        }
+    }
+
+    // RANGE [0, n - 1] opens the build phase. Every sift-down step is a HEAPIFY mark on
+    // its root, a COMPARE of each child that is inside the heap against the largest so
+    // far, and a SWAP when a child wins. Each extraction is RANGE [0, end - 1] followed
+    // by SWAP 0 end, so the swapped-out maximum already lies outside the heap.
+    void heap() {
+        int n = array.length;
+        range(0, n - 1);
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(0, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            range(0, end - 1);
+            swap(0, end);
+            siftDown(0, 0, end);
+        }
+    }
+
+    // Sift-down in the heap laid out from index 'base'; root and heapSize are heap positions
+    void siftDown(int base, int root, int heapSize) {
+        while (true) {
+            mark(base + root, SortTrace.HEAPIFY);
+            int largest = root;
+            int left = 2 * root + 1;
+            int right = left + 1;
+            if (left < heapSize && compare(base + left, base + largest) > 0) {
+                largest = left;
+            }
+            if (right < heapSize && compare(base + right, base + largest) > 0) {
+                largest = right;
+            }
+            if (largest == root) return;
+            swap(base + root, base + largest);
+            root = largest;
+        }
+    }
+
+    // Runs one of the algorithms above by its display name
+    void run(String algorithm, IntBinaryOperator choosePivot) {
+        switch (algorithm) {
+            case "Bubble Sort": bubble(); break;
+            case "Insertion Sort": insertion(); break;
+            case "Selection Sort": selection(); break;
+            case "Quick Sort": quick(choosePivot); break;
+            case "Introsort": intro(); break;
+            case "Merge Sort": merge(); break;
+            case "Heap Sort": heap(); break;
+            default: throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+    }
+
+    // Records the algorithm into an in-memory trace
+    static SortTrace record(String algorithm, int[] input, IntBinaryOperator choosePivot) {
+        SortTrace trace = new SortTrace(input);
+        new SortTracer(input, trace).run(algorithm, choosePivot);
+        return trace;
+    }
+
+    // Runs the tracing algorithm on a background thread and hands the finished
+    // trace to onReady on the event dispatch thread. If it throws, running out of
+    // memory on a huge array or reading a damaged trace file, the cause goes to
+    // onFailed there instead, so the frame can report it and give the controls back.
+    static <T> void traceInBackground(Supplier<T> algorithm, Consumer<T> onReady, Consumer<Throwable> onFailed) {
+        new SwingWorker<T, Void>() {
+            protected T doInBackground() {
+                return algorithm.get();
+            }
+
+            protected void done() {
+                try {
+                    onReady.accept(get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    onFailed.accept(e.getCause());
+                }
+            }
+        }.execute();
+    }
+}
@@ -31,6 +31,17 @@ public class SortingVisualizerApp extends JFrame {
     boolean selectionFindingMin = false;
     boolean selectionSwapping = false;
 
+    // Recorded run being played back, and the next event to play. Both sorts are
+    // quadratic, so long runs are streamed to a temporary SortTraceFile.
+    SortTracer.Events trace;
+    int traceStep = 0;
+    // Turbo plays as many steps per frame as fit; all but the last one of a tick are
+    // played quietly: a quiet step moves the array and cursor on and returns before
+    // any status or explanation text is built
+    JCheckBox turboCheckBox;
+    TurboPacer turbo = new TurboPacer();
+    boolean quiet = false;
+
     // Common animation variables
     boolean isAnimating = false;
     int animationStep = 0;
@@ -117,6 +128,7 @@ public class SortingVisualizerApp extends JFrame {
         backButton.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
                 if (animationTimer != null) animationTimer.stop();
+                SortTraceFile.closeQuietly(trace);
                 dispose(); // Close this window
             }
         });
@@ -140,12 +152,18 @@ public class SortingVisualizerApp extends JFrame {
         speedSlider.setBackground(new Color(236, 240, 241));
         speedSlider.setForeground(new Color(44, 62, 80));
 
+        turboCheckBox = new JCheckBox("Turbo");
+        turboCheckBox.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        turboCheckBox.setForeground(new Color(44, 62, 80));
+        turboCheckBox.setBackground(new Color(236, 240, 241));
+
         stepLabel = new JLabel("Step: 0 / 0");
         stepLabel.setFont(new Font("Segoe UI", Font.BOLD, 12));
         stepLabel.setForeground(new Color(44, 62, 80));
 
         controlPanel.add(speedLabel);
         controlPanel.add(speedSlider);
+        controlPanel.add(turboCheckBox);
         controlPanel.add(Box.createHorizontalStrut(20));
         controlPanel.add(stepLabel);
 
@@ -241,10 +259,10 @@ public class SortingVisualizerApp extends JFrame {
         animationTimer = new Timer(getAnimationDelay(), new ActionListener() {
             public void actionPerformed(ActionEvent e) {
                 if (isPaused) return;
-                if (currentAlgorithm.equals("Insertion Sort")) {
-                    performInsertionSortStep();
+                if (turboCheckBox.isSelected()) {
+                    playTurboTick();
                 } else {
-                    performSelectionSortStep();
+                    playStep();
                 }
             }
         });
@@ -256,6 +274,13 @@ public class SortingVisualizerApp extends JFrame {
             }
         });
 
+        turboCheckBox.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                turbo.reset();
+                animationTimer.setDelay(getAnimationDelay());
+            }
+        });
+
         updateAlgorithmExplanation();
         pack();
         setLocationRelativeTo(null);
@@ -264,6 +289,7 @@ public class SortingVisualizerApp extends JFrame {
 
     // Add method to calculate animation delay based on slider value
     private int getAnimationDelay() {
+        if (turboCheckBox.isSelected()) return TurboPacer.FRAME_MILLIS;
         // Convert slider value (1-10) to delay (1000ms-100ms)
         // Higher slider value = faster animation = lower delay
         int sliderValue = speedSlider.getValue();
@@ -339,6 +365,9 @@ public class SortingVisualizerApp extends JFrame {
         animationStep = 0;
         currentStep = 0;
         isPaused = false;
+        SortTraceFile.closeQuietly(trace);
+        trace = null;
+        traceStep = 0;
 
         statusLabel.setText("Ready to sort - Select an algorithm and click 'Start Sort'!");
         stepLabel.setText("Step: 0 / " + totalSteps);
@@ -364,9 +393,9 @@ public class SortingVisualizerApp extends JFrame {
         JPanel inputPanel = new JPanel(new GridLayout(3, 2, 10, 10));
         inputPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
-        JLabel sizeLabel = new JLabel("Array Size (3-12):");
+        JLabel sizeLabel = new JLabel("Array Size (3-5000):");
         JTextField sizeField = new JTextField("8");
-        JLabel elementsLabel = new JLabel("Elements (space-separated):");
+        JLabel elementsLabel = new JLabel("Elements (space-separated, empty for random):");
         JTextField elementsField = new JTextField("4 3 2 10 12 1 5 6");
 
         inputPanel.add(sizeLabel);
@@ -380,8 +409,14 @@ public class SortingVisualizerApp extends JFrame {
         if (result == JOptionPane.OK_OPTION) {
             try {
                 int size = Integer.parseInt(sizeField.getText().trim());
-                if (size < 3 || size > 12) {
-                    JOptionPane.showMessageDialog(this, "Size must be between 3 and 12");
+                if (size < 3 || size > 5000) {
+                    JOptionPane.showMessageDialog(this, "Size must be between 3 and 5000");
+                    return;
+                }
+
+                // Sizes past what anyone types in are filled with random values
+                if (elementsField.getText().trim().isEmpty()) {
+                    generateRandomArray(size);
                     return;
                 }
 
@@ -423,9 +458,29 @@ public class SortingVisualizerApp extends JFrame {
         pauseButton.setText("Pause");
         pauseButton.setBackground(new Color(255, 165, 0));
 
-        // Update timer delay when starting animation
-        animationTimer.setDelay(getAnimationDelay());
-        animationTimer.start();
+        // The whole sort is recorded off the EDT first; the timer only replays it
+        int[] input = array;
+        String algorithm = currentAlgorithm;
+        // Counting the playback steps walks the whole trace, so it is done there too
+        SortTracer.traceInBackground(
+                () -> new PreparedTrace(SortTraceFile.recordOnHeapOrDisk(algorithm, input, null)),
+                prepared -> {
+                    if (array != input || !isAnimating) { // array was replaced while tracing
+                        SortTraceFile.closeQuietly(prepared.trace);
+                        return;
+                    }
+                    trace = prepared.trace;
+                    traceStep = 0;
+                    totalSteps = prepared.steps;
+                    turbo.reset();
+                    stepLabel.setText("Step: 0 / " + totalSteps);
+                    animationTimer.setDelay(getAnimationDelay());
+                    if (!isPaused) animationTimer.start();
+                },
+                cause -> {
+                    if (array != input || !isAnimating) return; // array was replaced while tracing
+                    traceFailed(cause);
+                });
 
         statusLabel.setText("Starting " + currentAlgorithm + " algorithm...");
 
@@ -440,6 +495,21 @@ public class SortingVisualizerApp extends JFrame {
         }
     }
 
+    // Recording or preparing the trace failed: report it and hand the controls back
+    // with the array as it was
+    void traceFailed(Throwable cause) {
+        JOptionPane.showMessageDialog(this, "❌ Could not prepare the sort: " + cause,
+                "Sort Error", JOptionPane.ERROR_MESSAGE);
+        resetSortingVariables();
+        startButton.setText("Start Sort");
+        startButton.setEnabled(true);
+        startButton.setBackground(new Color(46, 204, 113));
+        pauseButton.setText("Pause");
+        pauseButton.setEnabled(false);
+        pauseButton.setBackground(new Color(255, 165, 0));
+        repaint();
+    }
+
     void togglePause() {
         if (!isAnimating) return;
 
@@ -460,115 +530,195 @@ public class SortingVisualizerApp extends JFrame {
         }
     }
 
+    // A recorded trace with the number of timer ticks it takes to play
+    static class PreparedTrace {
+        final SortTracer.Events trace;
+        final int steps;
+
+        PreparedTrace(SortTracer.Events trace) {
+            this.trace = trace;
+            this.steps = countPlaybackSteps(trace);
+        }
+    }
+
+    // Timer ticks needed to play the trace: one per event except RANGE markers (and the
+    // MIN mark that rides along with the comparison that found it), plus the final tick
+    static int countPlaybackSteps(SortTracer.Events trace) {
+        int steps = 1;
+        for (int k = 0; k < trace.size(); k++) {
+            int op = trace.op(k);
+            boolean foundMin = op == SortTrace.MARK && k > 0 && trace.op(k - 1) == SortTrace.COMPARE;
+            if (op != SortTrace.RANGE && !foundMin) {
+                steps++;
+            }
+        }
+        return steps;
+    }
+
+    void playStep() {
+        if (currentAlgorithm.equals("Insertion Sort")) {
+            performInsertionSortStep();
+        } else {
+            performSelectionSortStep();
+        }
+    }
+
+    // Plays the steps of one turbo tick quietly, then the last one as usual
+    void playTurboTick() {
+        if (trace == null) return;
+        long start = System.nanoTime();
+        int steps = turbo.steps();
+        int played = 1;
+        quiet = true;
+        while (played < steps && traceStep < trace.size()) {
+            playStep();
+            played++;
+        }
+        quiet = false;
+        playStep();
+        turbo.tickDone(played, System.nanoTime() - start);
+    }
+
+    // Trace shape per key: RANGE 0 i, KEY mark, then compares and shift writes, and one
+    // last write that drops the key into place right before the next RANGE
     void performInsertionSortStep() {
+        if (trace == null) return;
+
         currentStep++;
-        stepLabel.setText("Step: " + currentStep + " / " + totalSteps);
+        if (!quiet) stepLabel.setText("Step: " + currentStep + " / " + totalSteps);
+
+        if (traceStep < trace.size() && trace.op(traceStep) == SortTrace.RANGE) {
+            insertionCurrentIndex = trace.b(traceStep);
+            traceStep++;
+        }
 
-        if (insertionCurrentIndex >= arraySize) {
+        if (traceStep >= trace.size()) {
             completeSorting();
             return;
         }
 
-        if (!insertionIsComparing && !insertionIsShifting) {
+        int op = trace.op(traceStep);
+        int a = trace.a(traceStep);
+        int b = trace.b(traceStep);
+        traceStep++;
+
+        if (op == SortTrace.MARK) {
             insertionKeyValue = array[insertionCurrentIndex];
             insertionCompareIndex = insertionCurrentIndex - 1;
-            insertionIsComparing = true;
+            insertionIsComparing = false;
+            insertionIsShifting = false;
+            if (quiet) return;
             statusLabel.setText("Selecting element " + insertionKeyValue + " at position " + insertionCurrentIndex);
             updateExplanation("SELECTING KEY ELEMENT\n\n" +
                     "Current element: " + insertionKeyValue + " (at index " + insertionCurrentIndex + ")\n" +
                     "This element needs to be inserted into the correct position in the sorted portion " +
                     "(indices 0 to " + (insertionCurrentIndex-1) + "). We'll compare it with elements from right to left.");
-        }
-
-        if (insertionIsComparing) {
-            if (insertionCompareIndex >= 0 && array[insertionCompareIndex] > insertionKeyValue) {
-                insertionIsComparing = false;
-                insertionIsShifting = true;
-                statusLabel.setText("Comparing: " + array[insertionCompareIndex] + " > " + insertionKeyValue + " → Shift right");
+        } else if (op == SortTrace.COMPARE) {
+            insertionCompareIndex = a;
+            insertionIsComparing = true;
+            insertionIsShifting = false;
+            if (quiet) return;
+            if (array[a] > insertionKeyValue) {
+                statusLabel.setText("Comparing: " + array[a] + " > " + insertionKeyValue + " → Shift right");
                 updateExplanation("COMPARISON & SHIFTING\n\n" +
-                        "Comparing: " + array[insertionCompareIndex] + " with key " + insertionKeyValue + "\n" +
-                        "Since " + array[insertionCompareIndex] + " > " + insertionKeyValue + ", we shift " +
-                        array[insertionCompareIndex] + " one position right to make space.");
+                        "Comparing: " + array[a] + " with key " + insertionKeyValue + "\n" +
+                        "Since " + array[a] + " > " + insertionKeyValue + ", we shift " +
+                        array[a] + " one position right to make space.");
             } else {
-                array[insertionCompareIndex + 1] = insertionKeyValue;
+                statusLabel.setText("Comparing: " + array[a] + " ≤ " + insertionKeyValue + " → Insert after it");
+                updateExplanation("COMPARISON\n\n" +
+                        "Comparing: " + array[a] + " with key " + insertionKeyValue + "\n" +
+                        "Since " + array[a] + " ≤ " + insertionKeyValue + ", the key belongs right after it.");
+            }
+        } else if (op == SortTrace.WRITE) {
+            SortTrace.apply(array, op, a, b);
+            boolean keyPlaced = traceStep >= trace.size() || trace.op(traceStep) == SortTrace.RANGE;
+            if (keyPlaced) {
                 insertionCurrentIndex++;
                 insertionIsComparing = false;
-                statusLabel.setText("Inserted " + insertionKeyValue + " at position " + (insertionCompareIndex + 1));
+                insertionIsShifting = false;
+                if (quiet) return;
+                statusLabel.setText("Inserted " + insertionKeyValue + " at position " + a);
                 updateExplanation("INSERTION COMPLETED\n\n" +
-                        "Element " + insertionKeyValue + " inserted at index " + (insertionCompareIndex + 1) + ".\n" +
+                        "Element " + insertionKeyValue + " inserted at index " + a + ".\n" +
                         "The sorted portion now extends from index 0 to " + (insertionCurrentIndex-1) + ".");
+            } else {
+                insertionCompareIndex = a - 1;
+                insertionIsComparing = false;
+                insertionIsShifting = true;
+                if (quiet) return;
+                statusLabel.setText("Shifted " + b + " from position " + (a - 1) + " to " + a);
             }
         }
 
-        if (insertionIsShifting) {
-            array[insertionCompareIndex + 1] = array[insertionCompareIndex];
-            insertionCompareIndex--;
-            insertionIsShifting = false;
-            insertionIsComparing = true;
-        }
-
         repaint();
     }
 
+    // Trace shape per pass: RANGE i n-1, MIN mark on i, compares each followed by a MIN
+    // mark when they found a smaller element, and a closing swap
     void performSelectionSortStep() {
+        if (trace == null) return;
+
         currentStep++;
-        stepLabel.setText("Step: " + currentStep + " / " + totalSteps);
+        if (!quiet) stepLabel.setText("Step: " + currentStep + " / " + totalSteps);
 
-        if (selectionCurrentIndex >= arraySize - 1) {
+        if (traceStep < trace.size() && trace.op(traceStep) == SortTrace.RANGE) {
+            selectionCurrentIndex = trace.a(traceStep);
+            traceStep++;
+        }
+
+        if (traceStep >= trace.size()) {
             completeSorting();
             return;
         }
 
-        if (!selectionFindingMin && !selectionSwapping) {
-            selectionMinIndex = selectionCurrentIndex;
-            selectionCompareIndex = selectionCurrentIndex + 1;
+        int op = trace.op(traceStep);
+        int a = trace.a(traceStep);
+        int b = trace.b(traceStep);
+        traceStep++;
+
+        if (op == SortTrace.MARK) {
+            selectionMinIndex = a;
+            selectionCompareIndex = a + 1;
             selectionFindingMin = true;
+            if (quiet) return;
             statusLabel.setText("Finding minimum in unsorted portion starting from index " + selectionCurrentIndex);
             updateExplanation("FINDING MINIMUM ELEMENT\n\n" +
                     "Pass " + (selectionCurrentIndex + 1) + ": Looking for the minimum element in the unsorted portion " +
                     "(indices " + selectionCurrentIndex + " to " + (arraySize-1) + ").\n" +
                     "Current minimum candidate: " + array[selectionMinIndex] + " at index " + selectionMinIndex);
-        }
-
-        if (selectionFindingMin) {
-            if (selectionCompareIndex < arraySize) {
-                if (array[selectionCompareIndex] < array[selectionMinIndex]) {
-                    selectionMinIndex = selectionCompareIndex;
-                    statusLabel.setText("New minimum found: " + array[selectionMinIndex] + " at index " + selectionMinIndex);
-                    updateExplanation("NEW MINIMUM FOUND!\n\n" +
-                            "Comparing " + array[selectionCompareIndex] + " with current minimum " + array[selectionMinIndex] + "\n" +
-                            "Since " + array[selectionCompareIndex] + " < " + array[selectionMinIndex] + ", we update our minimum to " +
-                            array[selectionMinIndex] + " at index " + selectionMinIndex);
-                } else {
-                    statusLabel.setText("Comparing: " + array[selectionCompareIndex] + " >= " + array[selectionMinIndex] + " → Continue");
-                    updateExplanation("COMPARISON\n\n" +
-                            "Comparing " + array[selectionCompareIndex] + " with current minimum " + array[selectionMinIndex] + "\n" +
-                            "Since " + array[selectionCompareIndex] + " >= " + array[selectionMinIndex] + ", the minimum remains " +
-                            array[selectionMinIndex] + " at index " + selectionMinIndex);
-                }
-                selectionCompareIndex++;
+        } else if (op == SortTrace.COMPARE) {
+            selectionCompareIndex = a;
+            boolean foundMin = traceStep < trace.size() && trace.op(traceStep) == SortTrace.MARK;
+            if (foundMin) {
+                int previousMin = array[selectionMinIndex];
+                selectionMinIndex = trace.a(traceStep);
+                traceStep++;
+                if (quiet) return;
+                statusLabel.setText("New minimum found: " + array[selectionMinIndex] + " at index " + selectionMinIndex);
+                updateExplanation("NEW MINIMUM FOUND!\n\n" +
+                        "Comparing " + array[a] + " with current minimum " + previousMin + "\n" +
+                        "Since " + array[a] + " < " + previousMin + ", we update our minimum to " +
+                        array[selectionMinIndex] + " at index " + selectionMinIndex);
             } else {
-                selectionFindingMin = false;
-                selectionSwapping = true;
-                statusLabel.setText("Swapping minimum " + array[selectionMinIndex] + " with " + array[selectionCurrentIndex]);
-                updateExplanation("SWAPPING ELEMENTS\n\n" +
-                        "Minimum element found: " + array[selectionMinIndex] + " at index " + selectionMinIndex + "\n" +
-                        "Swapping it with element " + array[selectionCurrentIndex] + " at index " + selectionCurrentIndex +
-                        " to place the minimum in its correct sorted position.");
+                if (quiet) return;
+                statusLabel.setText("Comparing: " + array[a] + " >= " + array[b] + " → Continue");
+                updateExplanation("COMPARISON\n\n" +
+                        "Comparing " + array[a] + " with current minimum " + array[b] + "\n" +
+                        "Since " + array[a] + " >= " + array[b] + ", the minimum remains " +
+                        array[b] + " at index " + b);
             }
-        }
-
-        if (selectionSwapping) {
-            // Perform swap
-            int temp = array[selectionCurrentIndex];
-            array[selectionCurrentIndex] = array[selectionMinIndex];
-            array[selectionMinIndex] = temp;
+        } else if (op == SortTrace.SWAP) {
+            selectionFindingMin = false;
+            SortTrace.apply(array, op, a, b);
 
             selectionCurrentIndex++;
             selectionSwapping = false;
+            if (quiet) return;
             statusLabel.setText("Swap completed. Position " + (selectionCurrentIndex-1) + " is now sorted.");
             updateExplanation("SWAP COMPLETED\n\n" +
-                    "Elements successfully swapped! Position " + (selectionCurrentIndex-1) + " now contains the " +
+                    "Minimum element " + array[a] + " swapped from index " + b + " into index " + a + ".\n" +
+                    "Position " + (selectionCurrentIndex-1) + " now contains the " +
                     (selectionCurrentIndex) + getOrdinalSuffix(selectionCurrentIndex) + " smallest element.\n" +
                     "Sorted portion: indices 0 to " + (selectionCurrentIndex-1) + "\n" +
                     "Moving to next position...");
@@ -630,6 +780,10 @@ public class SortingVisualizerApp extends JFrame {
 
     void drawArray(Graphics2D g2d) {
         if (array == null) return;
+        if (arraySize > SortPlots.MAX_BOX_ELEMENTS) {
+            drawCompactArray(g2d);
+            return;
+        }
 
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
@@ -748,6 +902,53 @@ public class SortingVisualizerApp extends JFrame {
         }
     }
 
+    // Arrays too long for boxes are drawn as value bars, with the sorted prefix shaded
+    // and the elements being compared marked by lines
+    void drawCompactArray(Graphics2D g2d) {
+        int width = arrayPanel.getWidth() - 80;
+        int height = arrayPanel.getHeight() - 110;
+        int left = 40;
+        int top = 75;
+        if (width <= 0 || height <= 0) return;
+
+        g2d.setFont(new Font("Segoe UI", Font.BOLD, 18));
+        g2d.setColor(new Color(44, 62, 80));
+        g2d.drawString(currentAlgorithm + " - " + arraySize + " elements", left, 35);
+        drawLegend(g2d, left, 50);
+
+        g2d.drawImage(SortPlots.valueBars(array, width, height, borderColor.getRGB(), Color.WHITE.getRGB()), left, top, null);
+        if (isAnimating) {
+            boolean insertion = currentAlgorithm.equals("Insertion Sort");
+            int sortedEnd = insertion ? insertionCurrentIndex - 1 : selectionCurrentIndex;
+            if (sortedEnd > 0) {
+                int x = left + SortPlots.columnOf(sortedEnd, arraySize, width);
+                g2d.setColor(new Color(sortedColor.getRed(), sortedColor.getGreen(), sortedColor.getBlue(), 80));
+                g2d.fillRect(left, top, x - left, height);
+            }
+            if (insertion) {
+                markColumn(g2d, insertionCurrentIndex, currentColor, left, top, width, height);
+                if (insertionIsComparing || insertionIsShifting) {
+                    markColumn(g2d, insertionCompareIndex, compareColor, left, top, width, height);
+                }
+            } else if (selectionFindingMin) {
+                markColumn(g2d, selectionCompareIndex, compareColor, left, top, width, height);
+                markColumn(g2d, selectionMinIndex, minColor, left, top, width, height);
+            } else if (selectionSwapping) {
+                markColumn(g2d, selectionCurrentIndex, currentColor, left, top, width, height);
+                markColumn(g2d, selectionMinIndex, currentColor, left, top, width, height);
+            }
+        }
+        g2d.setColor(borderColor);
+        g2d.drawRect(left, top, width, height);
+    }
+
+    void markColumn(Graphics2D g2d, int index, Color color, int left, int top, int width, int height) {
+        if (index < 0 || index >= arraySize) return;
+        int x = left + SortPlots.columnOf(index, arraySize, width);
+        g2d.setColor(color);
+        g2d.drawLine(x, top, x, top + height);
+    }
+
     void drawLegend(Graphics2D g2d, int x, int y) {
         g2d.setFont(new Font("Segoe UI", Font.PLAIN, 10));
 
@@ -0,0 +1,33 @@
+// Paces turbo playback: how many algorithm steps one timer tick runs. The timer
+// fires once per frame and the steps of a tick are given a fixed share of that frame,
+// the rest is left for the repaint that follows. The count follows the measured cost
+// of the previous tick, but at most doubles or halves per tick, so a stretch of
+// unusually cheap steps (a run of comparisons that do not swap) cannot queue up a
+// tick that stalls the event thread once the expensive ones come back.
+// Only the last step of a tick updates the labels and the explanation; the ones
+// before it just move the state on, so the text is set once per frame instead of
+// thousands of times.
+public class TurboPacer {
+    static final int FRAME_MILLIS = 16;
+    static final long STEP_BUDGET_NANOS = 10_000_000L;
+    static final int MAX_STEPS = 1 << 22;
+
+    int stepsPerTick = 1;
+
+    // Steps the next tick should run, including the visible last one
+    int steps() {
+        return stepsPerTick;
+    }
+
+    // Feeds back what a tick ran and how long it took
+    void tickDone(int steps, long nanos) {
+        if (steps < stepsPerTick) return; // the run ended mid-tick, the timing says nothing
+        long fitting = nanos <= 0 ? 2L * steps : steps * STEP_BUDGET_NANOS / nanos;
+        long next = Math.max(stepsPerTick / 2, Math.min(fitting, 2L * stepsPerTick));
+        stepsPerTick = (int) Math.max(1, Math.min(next, MAX_STEPS));
+    }
+
+    void reset() {
+        stepsPerTick = 1;
+    }
+}
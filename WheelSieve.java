@@ -0,0 +1,129 @@
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// Segmented Sieve of Eratosthenes on a mod 30 wheel.
+// Only the 8 residues coprime to 30 (1, 7, 11, 13, 17, 19, 23, 29) can be prime
+// past 5, so byte b holds the numbers 30b + RESIDUES[i] in bit i: one byte for
+// every 30 numbers, against 15 for an odd-only boolean[]. Multiples of 2, 3 and 5
+// are never stored or marked. For a base prime p, the multiples p * q with q in
+// one residue class all land on the same bit, p bytes apart, so crossing off p
+// is 8 strided passes with a fixed mask. Going on to mod 210 would save only
+// another 1/7 of the memory for a 48-residue layout that does not fit a byte.
+public class WheelSieve {
+    static final int[] RESIDUES = {1, 7, 11, 13, 17, 19, 23, 29};
+    // 32 KB of bitmap per window: 983,040 numbers
+    static final int SEGMENT_BYTES = 32 * 1024;
+
+    static final int[] BIT_OF = new int[30]; // residue mod 30 -> bit, -1 if it shares a factor with 30
+
+    static {
+        Arrays.fill(BIT_OF, -1);
+        for (int i = 0; i < RESIDUES.length; i++) BIT_OF[RESIDUES[i]] = i;
+    }
+
+    final long lowerBound;
+    final long upperBound;
+    final int[] basePrimes; // primes 7 .. sqrt(upperBound)
+
+    public WheelSieve(long lowerBound, long upperBound) {
+        if (upperBound < lowerBound) {
+            throw new IllegalArgumentException("upperBound must be >= lowerBound");
+        }
+        this.lowerBound = Math.max(0, lowerBound);
+        this.upperBound = upperBound;
+        int[] odd = SegmentedSieve.basePrimesUpTo(SegmentedSieve.isqrt(upperBound));
+        int skip = 0;
+        while (skip < odd.length && odd[skip] < 7) skip++;
+        this.basePrimes = Arrays.copyOfRange(odd, skip, odd.length);
+    }
+
+    // Calls action once for every prime in [lowerBound, upperBound], in increasing order
+    public void forEachPrime(LongConsumer action) {
+        for (int p : new int[]{2, 3, 5}) {
+            if (p >= lowerBound && p <= upperBound) action.accept(p);
+        }
+        sieve((bits, byteIndex) -> {
+            int open = ~bits & 0xff;
+            while (open != 0) {
+                action.accept(30 * byteIndex + RESIDUES[Integer.numberOfTrailingZeros(open)]);
+                open &= open - 1;
+            }
+        });
+    }
+
+    public long countPrimes() {
+        long[] count = new long[1];
+        for (int p : new int[]{2, 3, 5}) {
+            if (p >= lowerBound && p <= upperBound) count[0]++;
+        }
+        sieve((bits, byteIndex) -> count[0] += 8 - Integer.bitCount(bits & 0xff));
+        return count[0];
+    }
+
+    // Bytes of bitmap per window, the memory the engine needs besides the base primes
+    public long memoryBytes() {
+        long bytes = upperBound / 30 - lowerBound / 30 + 1;
+        return Math.min(bytes, SEGMENT_BYTES) + basePrimes.length * (4L + 8 * 8 + 8);
+    }
+
+    interface ByteVisitor {
+        void visit(byte bits, long byteIndex); // set bits are composite
+    }
+
+    // Sieves window by window and hands every byte, edges already trimmed, to the visitor
+    void sieve(ByteVisitor visitor) {
+        if (upperBound < 7) return;
+        long firstByte = lowerBound / 30;
+        long lastByte = upperBound / 30;
+
+        // nextByte[8j + i]: next byte to cross off for basePrimes[j] times a q in residue class i
+        long[] nextByte = new long[basePrimes.length * 8];
+        byte[] mask = new byte[basePrimes.length * 8];
+        for (int j = 0; j < basePrimes.length; j++) {
+            long p = basePrimes[j];
+            // Start at p * p, or at the first multiple inside the range
+            long q0 = Math.max(p, (30 * firstByte + p - 1) / p);
+            for (int i = 0; i < 8; i++) {
+                long q = q0 + Math.floorMod(RESIDUES[i] - q0, 30);
+                long m = p * q;
+                nextByte[8 * j + i] = m / 30;
+                mask[8 * j + i] = (byte) (1 << BIT_OF[(int) (m % 30)]);
+            }
+        }
+
+        byte[] segment = new byte[(int) Math.min(SEGMENT_BYTES, lastByte - firstByte + 1)];
+        for (long low = firstByte; low <= lastByte; low += segment.length) {
+            int length = (int) Math.min(segment.length, lastByte - low + 1);
+            long end = low + length;
+            Arrays.fill(segment, 0, length, (byte) 0);
+
+            for (int k = 0; k < nextByte.length; k++) {
+                long b = nextByte[k];
+                if (b >= end) continue;
+                long p = basePrimes[k >>> 3];
+                byte bit = mask[k];
+                for (; b < end; b += p) {
+                    segment[(int) (b - low)] |= bit;
+                }
+                nextByte[k] = b;
+            }
+
+            if (low == 0) segment[0] |= 1; // 1 is not prime
+            if (low == firstByte) segment[0] |= outside(low);
+            if (end - 1 == lastByte) segment[length - 1] |= outside(lastByte);
+            for (int k = 0; k < length; k++) {
+                visitor.visit(segment[k], low + k);
+            }
+        }
+    }
+
+    // Bits of the given byte whose numbers fall outside [lowerBound, upperBound]
+    byte outside(long byteIndex) {
+        int bits = 0;
+        for (int i = 0; i < 8; i++) {
+            long n = 30 * byteIndex + RESIDUES[i];
+            if (n < lowerBound || n > upperBound) bits |= 1 << i;
+        }
+        return (byte) bits;
+    }
+}